@@ -0,0 +1,112 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2025-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.checks.verifier.internal.InternalInputFile;
+import org.sonar.java.model.JParser;
+import org.sonar.java.model.JParserConfig;
+import org.sonar.java.model.JavaTree;
+import org.sonar.java.test.classpath.TestClasspathUtils;
+import org.sonar.plugins.java.api.JavaVersion;
+
+/**
+ * Fixed inputs of the benchmarks. By default, the first files (in path order) of the java-checks-test-sources "default"
+ * module, with its test classpath when it has been built. Both can be changed with system properties so that benchmarks
+ * can also be run on the projects of its/sources:
+ * <ul>
+ *   <li>{@value #SOURCES_PROPERTY}: directory of the java sources</li>
+ *   <li>{@value #CLASSPATH_PROPERTY}: classpath file, in the format of the test-classpath.txt of java-checks-test-sources</li>
+ *   <li>{@value #MAX_FILES_PROPERTY}: maximum number of files, {@value #DEFAULT_MAX_FILES} by default</li>
+ * </ul>
+ * Relative paths are resolved against the root of the repository, which is expected to be the working directory.
+ */
+public final class BenchmarkSources {
+
+  public static final String SOURCES_PROPERTY = "sonar.java.benchmark.sources";
+  public static final String CLASSPATH_PROPERTY = "sonar.java.benchmark.classpath";
+  public static final String MAX_FILES_PROPERTY = "sonar.java.benchmark.maxFiles";
+  public static final int DEFAULT_MAX_FILES = 200;
+
+  public static final JavaVersion JAVA_VERSION = JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION;
+
+  private static final Path TEST_SOURCES = Paths.get("java-checks-test-sources", "default");
+
+  private BenchmarkSources() {
+    // utility class
+  }
+
+  public record SourceFile(File file, String content) {
+
+    public InputFile inputFile() {
+      return InternalInputFile.inputFile("", file);
+    }
+
+    public JavaTree.CompilationUnitTreeImpl parse(List<File> classpath) {
+      return JParser.parse(JParserConfig.Mode.FILE_BY_FILE.create(JAVA_VERSION, classpath).astParser(), JAVA_VERSION.toString(), file.getName(), content);
+    }
+  }
+
+  public static List<SourceFile> sourceFiles() {
+    Path sources = Paths.get(System.getProperty(SOURCES_PROPERTY, TEST_SOURCES.resolve(Paths.get("src", "main", "java")).toString()));
+    int maxFiles = Integer.getInteger(MAX_FILES_PROPERTY, DEFAULT_MAX_FILES);
+    try (Stream<Path> files = Files.walk(sources)) {
+      return files
+        .filter(path -> path.toString().endsWith(".java") && Files.isRegularFile(path))
+        .sorted()
+        .limit(maxFiles)
+        .map(BenchmarkSources::read)
+        .toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to list the benchmark sources in " + sources.toAbsolutePath(), e);
+    }
+  }
+
+  public static List<File> classpath() {
+    List<File> classpath = new ArrayList<>();
+    String classpathFile = System.getProperty(CLASSPATH_PROPERTY);
+    if (classpathFile != null) {
+      classpath.addAll(TestClasspathUtils.loadFromFile(classpathFile));
+      return classpath;
+    }
+    Path testClasspath = TEST_SOURCES.resolve(Paths.get("target", "test-classpath.txt"));
+    if (Files.exists(testClasspath)) {
+      classpath.add(TEST_SOURCES.resolve(Paths.get("target", "classes")).toFile());
+      classpath.addAll(TestClasspathUtils.loadFromFile(testClasspath.toString()));
+    }
+    return classpath;
+  }
+
+  private static SourceFile read(Path path) {
+    try {
+      return new SourceFile(path.toFile(), Files.readString(path, StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read " + path, e);
+    }
+  }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2025-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.java.se.constraint.BooleanConstraint;
+import org.sonar.java.se.constraint.ConstraintsByDomain;
+import org.sonar.java.se.constraint.ObjectConstraint;
+import org.sonar.java.se.constraint.TypedConstraint;
+
+/**
+ * Operations of the symbolic execution on the constraints of symbolic values: adding the constraints learnt on a path,
+ * looking them up and comparing the resulting constraint sets, mostly made of object and boolean constraints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConstraintsByDomainBenchmark {
+
+  private static final int VALUES = 1_000;
+
+  private final List<ConstraintsByDomain> previous = new ArrayList<>();
+  private final TypedConstraint typedConstraint = new TypedConstraint("java.lang.String");
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < VALUES; i++) {
+      previous.add(constraints(i));
+    }
+  }
+
+  @Benchmark
+  public int learnAndCompare() {
+    int result = 0;
+    for (int i = 0; i < VALUES; i++) {
+      ConstraintsByDomain constraints = constraints(i);
+      if (constraints.hasConstraint(ObjectConstraint.NOT_NULL)) {
+        result++;
+      }
+      if (constraints.get(BooleanConstraint.class) == BooleanConstraint.TRUE) {
+        result++;
+      }
+      if (constraints.equals(previous.get(i)) && constraints.hashCode() == previous.get(i).hashCode()) {
+        result++;
+      }
+      if (constraints.remove(BooleanConstraint.class).isEmpty()) {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  private ConstraintsByDomain constraints(int i) {
+    ConstraintsByDomain constraints = ConstraintsByDomain.empty()
+      .put(i % 2 == 0 ? ObjectConstraint.NOT_NULL : ObjectConstraint.NULL);
+    if (i % 3 != 0) {
+      constraints = constraints.put(i % 3 == 1 ? BooleanConstraint.TRUE : BooleanConstraint.FALSE);
+    }
+    if (i % 10 == 0) {
+      constraints = constraints.put(typedConstraint);
+    }
+    return constraints;
+  }
+
+}
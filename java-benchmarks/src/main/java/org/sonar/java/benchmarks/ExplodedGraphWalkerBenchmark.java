@@ -0,0 +1,93 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2025-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.benchmarks.BenchmarkSources.SourceFile;
+import org.sonar.java.model.DefaultJavaFileScannerContext;
+import org.sonar.java.model.JavaTree;
+import org.sonar.java.reporting.AnalyzerMessage;
+import org.sonar.java.se.ExplodedGraphWalker;
+import org.sonar.java.se.ExplorationStrategy;
+import org.sonar.java.se.SymbolicExecutionVisitor;
+
+/**
+ * Symbolic execution of all the methods of already parsed files, with the checks that the {@code ExplodedGraphWalker}
+ * always runs, with each exploration strategy. Reported issues are counted instead of being saved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExplodedGraphWalkerBenchmark {
+
+  @Param({"DFS", "BFS", "TOPOLOGICAL"})
+  public ExplorationStrategy strategy;
+
+  private final List<IssueCountingContext> contexts = new ArrayList<>();
+
+  @Setup
+  public void setup() {
+    List<File> classpath = BenchmarkSources.classpath();
+    for (SourceFile sourceFile : BenchmarkSources.sourceFiles()) {
+      JavaTree.CompilationUnitTreeImpl tree = sourceFile.parse(classpath);
+      contexts.add(new IssueCountingContext(tree, sourceFile.inputFile()));
+    }
+  }
+
+  @Benchmark
+  public void execute(Blackhole blackhole) {
+    for (IssueCountingContext context : contexts) {
+      new SymbolicExecutionVisitor(Collections.emptyList(), strategy, ExplodedGraphWalker.DEFAULT_MAX_STEPS).scanFile(context);
+      blackhole.consume(context.issueCount);
+    }
+  }
+
+  private static class IssueCountingContext extends DefaultJavaFileScannerContext {
+
+    private long issueCount;
+
+    IssueCountingContext(JavaTree.CompilationUnitTreeImpl tree, InputFile inputFile) {
+      super(tree, inputFile, tree.sema, null, BenchmarkSources.JAVA_VERSION, true, false);
+    }
+
+    @Override
+    public void reportIssue(AnalyzerMessage message) {
+      issueCount++;
+    }
+  }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2025-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.ref.Reference;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.sonar.java.se.xproc.BinaryMethodBehaviors;
+import org.sonar.java.se.xproc.MethodBehavior;
+import org.sonar.java.se.xproc.MethodBehaviorJsonAdapter;
+
+/**
+ * Loading of the hardcoded method behaviors of the symbolic execution, from their JSON description and from the binary
+ * form compiled at build time, which is decoded lazily.
+ * The heap retained by the loaded behaviors is reported as the "retainedBytes" secondary result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HardcodedBehaviorsBenchmark {
+
+  private static final Path JSON_BEHAVIORS = Paths.get("java-symbolic-execution", "java-symbolic-execution-plugin", "src", "main", "hardcoded-behaviors");
+  private static final Type LIST_OF_METHOD_BEHAVIORS_TYPE = new TypeToken<List<MethodBehavior>>() {}.getType();
+  private static final String BINARY_BEHAVIORS = "/org/sonar/java/se/xproc/hardcoded-behaviors.bin";
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class RetainedHeap {
+    public long retainedBytes;
+    private long measured;
+
+    /**
+     * Measured out of the timed operations, the counter being set by each operation as JMH resets it at each iteration.
+     */
+    @Setup(Level.Iteration)
+    public void measure(BenchmarkParams params) {
+      String benchmark = params.getBenchmark();
+      if (benchmark.endsWith("loadJson")) {
+        measured = retainedBytes(HardcodedBehaviorsBenchmark::loadJsonBehaviors);
+      } else if (benchmark.endsWith("loadBinary")) {
+        measured = retainedBytes(HardcodedBehaviorsBenchmark::loadBinaryBehaviors);
+      } else {
+        measured = retainedBytes(() -> decodeAll(loadBinaryBehaviors()));
+      }
+    }
+
+    void report() {
+      retainedBytes = measured;
+    }
+  }
+
+  @Benchmark
+  public Map<String, MethodBehavior> loadJson(RetainedHeap retainedHeap) {
+    retainedHeap.report();
+    return loadJsonBehaviors();
+  }
+
+  @Benchmark
+  public BinaryMethodBehaviors loadBinary(RetainedHeap retainedHeap) {
+    retainedHeap.report();
+    return loadBinaryBehaviors();
+  }
+
+  /**
+   * Worst case of the lazy decoding, when all the behaviors are looked up.
+   */
+  @Benchmark
+  public BinaryMethodBehaviors loadBinaryAndDecodeAll(RetainedHeap retainedHeap) {
+    retainedHeap.report();
+    return decodeAll(loadBinaryBehaviors());
+  }
+
+  /**
+   * Same reading as the generator of the binary form, which is part of the build and not of the plugin.
+   */
+  private static Map<String, MethodBehavior> loadJsonBehaviors() {
+    Map<String, MethodBehavior> result = new LinkedHashMap<>();
+    Gson gson = MethodBehaviorJsonAdapter.gson();
+    try (Stream<Path> paths = Files.list(JSON_BEHAVIORS)) {
+      for (Path file : paths.filter(path -> path.getFileName().toString().endsWith(".json")).sorted().toList()) {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+          List<MethodBehavior> deserialized = gson.fromJson(reader, LIST_OF_METHOD_BEHAVIORS_TYPE);
+          deserialized.forEach(methodBehavior -> result.put(methodBehavior.signature(), methodBehavior));
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return result;
+  }
+
+  private static BinaryMethodBehaviors loadBinaryBehaviors() {
+    try (InputStream inputStream = BinaryMethodBehaviors.class.getResourceAsStream(BINARY_BEHAVIORS)) {
+      if (inputStream == null) {
+        throw new IllegalStateException("Missing " + BINARY_BEHAVIORS + ", the symbolic execution plugin has to be built with Maven");
+      }
+      return BinaryMethodBehaviors.read(inputStream);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static BinaryMethodBehaviors decodeAll(BinaryMethodBehaviors behaviors) {
+    behaviors.signatures().forEach(behaviors::get);
+    return behaviors;
+  }
+
+  private static long retainedBytes(Supplier<Object> loader) {
+    long before = usedHeapAfterGc();
+    Object loaded = loader.get();
+    long after = usedHeapAfterGc();
+    Reference.reachabilityFence(loaded);
+    return after - before;
+  }
+
+  private static long usedHeapAfterGc() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+}
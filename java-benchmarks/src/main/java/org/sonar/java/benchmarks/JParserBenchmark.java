@@ -0,0 +1,81 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2025-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.java.benchmarks.BenchmarkSources.SourceFile;
+import org.sonar.java.model.JParserConfig;
+
+/**
+ * Parsing of the benchmark sources file by file: ECJ parsing, binding resolution and conversion into the SonarJava tree.
+ * <p>
+ * A lazy conversion of the method bodies was investigated and declined: the conversion is about 3% of the parsing time, and
+ * the bodies would be converted anyway, as the highlighting, the metrics and the recording of the symbol usages walk all of
+ * them. {@link #parseWithoutConversion(Blackhole)} keeps track of that share.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JParserBenchmark {
+
+  private List<SourceFile> sourceFiles;
+  private List<File> classpath;
+
+  @Setup
+  public void setup() {
+    sourceFiles = BenchmarkSources.sourceFiles();
+    classpath = BenchmarkSources.classpath();
+  }
+
+  @Benchmark
+  public void parse(Blackhole blackhole) {
+    for (SourceFile sourceFile : sourceFiles) {
+      blackhole.consume(sourceFile.parse(classpath));
+    }
+  }
+
+  /**
+   * ECJ parsing and binding resolution only, the difference with {@link #parse(Blackhole)} being the cost of the conversion.
+   */
+  @Benchmark
+  public void parseWithoutConversion(Blackhole blackhole) {
+    for (SourceFile sourceFile : sourceFiles) {
+      ASTParser astParser = JParserConfig.Mode.FILE_BY_FILE.create(BenchmarkSources.JAVA_VERSION, classpath).astParser();
+      astParser.setUnitName(sourceFile.file().getName());
+      astParser.setSource(sourceFile.content().toCharArray());
+      blackhole.consume(astParser.createAST(null));
+    }
+  }
+
+}
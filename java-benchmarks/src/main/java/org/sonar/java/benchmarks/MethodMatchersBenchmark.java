@@ -0,0 +1,110 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2025-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.java.benchmarks.BenchmarkSources.SourceFile;
+import org.sonar.plugins.java.api.semantic.MethodMatchers;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.MethodInvocationTree;
+
+/**
+ * Matching of all the method invocations of already parsed files against method matchers similar to the ones of the rules,
+ * either combined with {@link MethodMatchers#or(List)}, which only evaluates the matchers of the invoked method name and
+ * number of parameters, or evaluated one after the other.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MethodMatchersBenchmark {
+
+  private final List<MethodInvocationTree> invocations = new ArrayList<>();
+  private List<MethodMatchers> matchersList;
+  private MethodMatchers matchers;
+
+  @Setup
+  public void setup() {
+    List<File> classpath = BenchmarkSources.classpath();
+    BaseTreeVisitor invocationsCollector = new BaseTreeVisitor() {
+      @Override
+      public void visitMethodInvocation(MethodInvocationTree tree) {
+        invocations.add(tree);
+        super.visitMethodInvocation(tree);
+      }
+    };
+    for (SourceFile sourceFile : BenchmarkSources.sourceFiles()) {
+      sourceFile.parse(classpath).accept(invocationsCollector);
+    }
+    matchersList = List.of(
+      MethodMatchers.create().ofSubTypes("java.util.Collection").names("add", "remove", "contains", "size", "isEmpty").withAnyParameters().build(),
+      MethodMatchers.create().ofSubTypes("java.util.Map").names("get", "put", "containsKey", "computeIfAbsent").withAnyParameters().build(),
+      MethodMatchers.create().ofTypes("java.lang.String").names("equals", "equalsIgnoreCase", "format", "valueOf", "substring", "indexOf")
+        .withAnyParameters().build(),
+      MethodMatchers.create().ofAnyType().names("toString", "hashCode").addWithoutParametersMatcher().build(),
+      MethodMatchers.create().ofAnyType().names("equals").addParametersMatcher("java.lang.Object").build(),
+      MethodMatchers.create().ofSubTypes("java.io.Closeable").names("close").addWithoutParametersMatcher().build(),
+      MethodMatchers.create().ofSubTypes("java.io.InputStream").names("read").withAnyParameters().build(),
+      MethodMatchers.create().ofTypes("java.util.Objects").names("requireNonNull", "equals", "hash").withAnyParameters().build(),
+      MethodMatchers.create().ofSubTypes("java.lang.Thread").names("sleep", "start", "run").withAnyParameters().build(),
+      MethodMatchers.create().ofSubTypes("java.util.stream.Stream").names("map", "filter", "collect", "forEach").withAnyParameters().build(),
+      MethodMatchers.create().ofTypes("java.lang.Math").names("abs", "max", "min", "round").withAnyParameters().build(),
+      MethodMatchers.create().ofSubTypes("java.util.Optional").names("get", "isPresent", "orElse").withAnyParameters().build());
+    matchers = MethodMatchers.or(matchersList);
+  }
+
+  @Benchmark
+  public int matches() {
+    int matches = 0;
+    for (MethodInvocationTree invocation : invocations) {
+      if (matchers.matches(invocation)) {
+        matches++;
+      }
+    }
+    return matches;
+  }
+
+  @Benchmark
+  public int matchesEach() {
+    int matches = 0;
+    for (MethodInvocationTree invocation : invocations) {
+      for (MethodMatchers matcher : matchersList) {
+        if (matcher.matches(invocation)) {
+          matches++;
+          break;
+        }
+      }
+    }
+    return matches;
+  }
+
+}
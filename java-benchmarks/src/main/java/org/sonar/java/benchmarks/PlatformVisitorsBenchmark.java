@@ -0,0 +1,159 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2025-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.issue.NoSonarFilter;
+import org.sonar.api.measures.FileLinesContextFactory;
+import org.sonar.java.Measurer;
+import org.sonar.java.SonarComponents;
+import org.sonar.java.ast.visitors.FileLinesVisitor;
+import org.sonar.java.ast.visitors.SyntaxHighlighterVisitor;
+import org.sonar.java.benchmarks.BenchmarkSources.SourceFile;
+import org.sonar.java.metrics.MetricsComputer;
+import org.sonar.java.model.VisitorsBridge;
+import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * Computation of the measures, lines, highlighting and symbols of the largest files, by the platform visitors sharing a single walk
+ * of the tree ("fused"), compared to each of them walking the tree on its own, followed by the walks which the measurer used to
+ * start through the {@link MetricsComputer} for the metrics of the file ("separate"). The data given to the sensor context is discarded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PlatformVisitorsBenchmark {
+
+  @Param({"fused", "separate"})
+  public String walks;
+
+  @Param({"20"})
+  public int largestFiles;
+
+  private final List<Tree> trees = new ArrayList<>();
+  private final List<InputFile> inputFiles = new ArrayList<>();
+  private VisitorsBridge visitorsBridge;
+
+  @Setup
+  public void setup() {
+    List<File> classpath = BenchmarkSources.classpath();
+    BenchmarkSources.sourceFiles().stream()
+      .sorted(Comparator.comparingInt((SourceFile sourceFile) -> sourceFile.content().length()).reversed())
+      .limit(largestFiles)
+      .forEach(sourceFile -> {
+        trees.add(sourceFile.parse(classpath));
+        inputFiles.add(sourceFile.inputFile());
+      });
+
+    SensorContext sensorContext = discarding(SensorContext.class);
+    SonarComponents sonarComponents = new SonarComponents(discarding(FileLinesContextFactory.class), null, null, null, null, null);
+    sonarComponents.setSensorContext(sensorContext);
+    List<JavaFileScanner> visitors = new ArrayList<>();
+    visitors.add(new Measurer(sensorContext, new DiscardingNoSonarFilter()));
+    visitors.add(new FileLinesVisitor(sonarComponents));
+    visitors.add(new SyntaxHighlighterVisitor(sonarComponents));
+    if ("separate".equals(walks)) {
+      // hidden behind plain scanners, the platform visitors are not given to a shared walk
+      visitors = new ArrayList<>(visitors.stream().<JavaFileScanner>map(visitor -> visitor::scanFile).toList());
+      visitors.add(PlatformVisitorsBenchmark::computeFileMetrics);
+    }
+    visitorsBridge = new VisitorsBridge(visitors, classpath, sonarComponents, BenchmarkSources.JAVA_VERSION);
+  }
+
+  @Benchmark
+  public void visitFile() {
+    for (int i = 0; i < trees.size(); i++) {
+      visitorsBridge.setCurrentFile(inputFiles.get(i));
+      visitorsBridge.visitFile(trees.get(i), false);
+    }
+  }
+
+  /**
+   * The metrics of the file, as computed by the measurer with the visitors of the metrics computer.
+   */
+  private static void computeFileMetrics(JavaFileScannerContext context) {
+    MetricsComputer metricsComputer = new MetricsComputer();
+    CompilationUnitTree tree = context.getTree();
+    metricsComputer.getNoSonarLines(tree);
+    metricsComputer.getComplexityNodes(tree);
+    metricsComputer.getNumberOfCommentedLines(tree);
+    metricsComputer.getNumberOfStatements(tree);
+    metricsComputer.getLinesOfCode(tree);
+  }
+
+  private static class DiscardingNoSonarFilter extends NoSonarFilter {
+    @Override
+    public NoSonarFilter noSonarInFile(InputFile inputFile, Set<Integer> noSonarLines) {
+      return this;
+    }
+  }
+
+  /**
+   * @return an implementation of the given interface of the sensor API discarding what it is given, fluent methods returning itself
+   */
+  private static <T> T discarding(Class<T> type) {
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+      Class<?> returnType = method.getReturnType();
+      if (returnType.isInstance(proxy)) {
+        return proxy;
+      }
+      if (returnType.isInterface()) {
+        return discarding(returnType);
+      }
+      if (returnType == String.class) {
+        return type.getSimpleName();
+      }
+      if (returnType == Optional.class) {
+        return Optional.empty();
+      }
+      if (returnType == boolean.class) {
+        return false;
+      }
+      if (returnType == int.class) {
+        return 0;
+      }
+      return null;
+    }));
+  }
+
+}
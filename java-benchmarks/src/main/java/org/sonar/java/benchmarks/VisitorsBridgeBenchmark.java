@@ -0,0 +1,139 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2025-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.benchmarks.BenchmarkSources.SourceFile;
+import org.sonar.java.model.VisitorsBridge;
+import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonar.plugins.java.api.tree.Tree.Kind;
+
+/**
+ * Walk of already parsed files by {@link VisitorsBridge#visitFile}, dispatching the trees to subscription visitors which
+ * only count the nodes they are notified of, so that the cost of the walk itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VisitorsBridgeBenchmark {
+
+  /**
+   * Kinds commonly subscribed to by the rules, each visitor subscribes to one of them.
+   */
+  private static final Kind[] SUBSCRIBED_KINDS = {
+    Kind.METHOD_INVOCATION, Kind.METHOD, Kind.CLASS, Kind.IDENTIFIER, Kind.VARIABLE, Kind.MEMBER_SELECT, Kind.NEW_CLASS,
+    Kind.IF_STATEMENT, Kind.STRING_LITERAL, Kind.BLOCK, Kind.RETURN_STATEMENT, Kind.LAMBDA_EXPRESSION, Kind.ANNOTATION,
+    Kind.EQUAL_TO, Kind.FOR_STATEMENT, Kind.TRY_STATEMENT};
+
+  @Param({"10", "100"})
+  public int visitorCount;
+
+  @Param({"false", "true"})
+  public boolean tokenVisitors;
+
+  private final List<Tree> trees = new ArrayList<>();
+  private final List<InputFile> inputFiles = new ArrayList<>();
+  private final List<CountingVisitor> visitors = new ArrayList<>();
+  private VisitorsBridge visitorsBridge;
+
+  @Setup
+  public void setup() {
+    List<File> classpath = BenchmarkSources.classpath();
+    for (SourceFile sourceFile : BenchmarkSources.sourceFiles()) {
+      trees.add(sourceFile.parse(classpath));
+      inputFiles.add(sourceFile.inputFile());
+    }
+    for (int i = 0; i < visitorCount; i++) {
+      visitors.add(new CountingVisitor(SUBSCRIBED_KINDS[i % SUBSCRIBED_KINDS.length]));
+    }
+    if (tokenVisitors) {
+      visitors.add(new CountingVisitor(Kind.TOKEN));
+      visitors.add(new CountingVisitor(Kind.TRIVIA));
+    }
+    visitorsBridge = new VisitorsBridge(visitors, Collections.emptyList(), null, BenchmarkSources.JAVA_VERSION);
+  }
+
+  @Benchmark
+  public void visitFile(Blackhole blackhole) {
+    for (int i = 0; i < trees.size(); i++) {
+      visitorsBridge.setCurrentFile(inputFiles.get(i));
+      visitorsBridge.visitFile(trees.get(i), false);
+    }
+    for (CountingVisitor visitor : visitors) {
+      blackhole.consume(visitor.count);
+    }
+  }
+
+  private static class CountingVisitor extends IssuableSubscriptionVisitor {
+
+    private final List<Kind> nodesToVisit;
+    private long count;
+
+    CountingVisitor(Kind kind) {
+      nodesToVisit = Collections.singletonList(kind);
+    }
+
+    @Override
+    public List<Kind> nodesToVisit() {
+      return nodesToVisit;
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      count++;
+    }
+
+    @Override
+    public void leaveNode(Tree tree) {
+      count++;
+    }
+
+    @Override
+    public void visitToken(SyntaxToken syntaxToken) {
+      count++;
+    }
+
+    @Override
+    public void visitTrivia(SyntaxTrivia syntaxTrivia) {
+      count++;
+    }
+  }
+
+}
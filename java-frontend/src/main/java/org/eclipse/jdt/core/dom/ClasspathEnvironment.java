@@ -0,0 +1,282 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.eclipse.jdt.core.dom;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.jdt.internal.compiler.batch.ClasspathJar;
+import org.eclipse.jdt.internal.compiler.batch.FileSystem;
+import org.eclipse.jdt.internal.compiler.batch.Main;
+import org.eclipse.jdt.internal.compiler.env.AccessRuleSet;
+import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
+import org.eclipse.jdt.internal.compiler.util.Util;
+import org.eclipse.jdt.internal.core.BasicCompilationUnit;
+import org.eclipse.jdt.internal.core.DefaultWorkingCopyOwner;
+
+/**
+ * Long-lived classpath shared by all the parsers of an analysis.
+ * <p>
+ * {@link ASTParser} rebuilds its classpath each time an AST is created, and each jar then scans all its entries again to know which
+ * packages it contains. The package index of each jar is computed here only once, and then shared by the name environments of all
+ * the parsers created by {@link #newParser(int)}, whatever their classpath. This class is thread-safe.
+ * <p>
+ * Each name environment still opens its own handle on the jars, so that {@link ASTUtils#getEnvironmentCleaner(AST)} keeps
+ * releasing them as before.
+ */
+public final class ClasspathEnvironment {
+
+  private static final int RESOLVE_BINDINGS_FLAGS = org.eclipse.jdt.core.ICompilationUnit.ENABLE_BINDINGS_RECOVERY;
+
+  private final Map<String, Optional<Set<String>>> packagesByJar = new ConcurrentHashMap<>();
+  private final JarPackages jarPackages;
+
+  public ClasspathEnvironment() {
+    this((jar, scanner) -> scanner.apply(jar));
+  }
+
+  /**
+   * @param jarPackages where the packages of the jars are looked up before scanning the jars, like a persistent index
+   */
+  public ClasspathEnvironment(JarPackages jarPackages) {
+    this.jarPackages = jarPackages;
+  }
+
+  /**
+   * Packages of the jars, able to remember them beyond the lifetime of an environment.
+   */
+  @FunctionalInterface
+  public interface JarPackages {
+    /**
+     * @param scanner reads the packages from the jar itself, empty when the jar is not readable
+     */
+    Optional<Set<String>> packages(File jar, Function<File, Optional<Set<String>>> scanner);
+  }
+
+  /**
+   * @return a parser relying on this environment for the compilation units given as source and for the source files given by path.
+   * Resolving bindings is the only supported mode.
+   */
+  public ASTParser newParser(int apiLevel) {
+    return new Parser(this, apiLevel);
+  }
+
+  /**
+   * @return the number of types looked up in the jars of the classpath by the ASTs created with the given parser, 0 when the parser
+   * was not created by an environment
+   */
+  public static int jarLookups(ASTParser parser) {
+    return parser instanceof Parser environmentParser ? environmentParser.jarLookups : 0;
+  }
+
+  int indexedJars() {
+    return packagesByJar.size();
+  }
+
+  List<FileSystem.Classpath> classpath(String[] classpathEntries, boolean includeRunningVMBootclasspath, Runnable onJarLookup) {
+    // Same resolution of the entries as ASTParser, only plain jars are then swapped for indexed ones
+    Main main = new Main(new PrintWriter(System.out), new PrintWriter(System.err), false, null, null);
+    ArrayList<FileSystem.Classpath> allEntries = new ArrayList<>();
+    try {
+      if (includeRunningVMBootclasspath) {
+        Util.collectRunningVMBootclasspath(allEntries);
+      }
+      for (String classpathEntry : classpathEntries) {
+        main.processPathEntries(Main.DEFAULT_SIZE_CLASSPATH, allEntries, classpathEntry, null, false, false);
+      }
+      if (main.pendingErrors != null && !main.pendingErrors.isEmpty()) {
+        throw new IllegalStateException("invalid environment settings");
+      }
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException("invalid environment settings", e);
+    }
+    List<FileSystem.Classpath> result = new ArrayList<>(allEntries.size());
+    for (FileSystem.Classpath entry : allEntries) {
+      result.add(entry.getClass() == ClasspathJar.class ? indexed((ClasspathJar) entry, onJarLookup) : entry);
+    }
+    return result;
+  }
+
+  private IndexedJar indexed(ClasspathJar jar, Runnable onLookup) {
+    String path = jar.getPath();
+    Set<String> packages = packagesByJar.computeIfAbsent(path, p -> jarPackages.packages(new File(p), IndexedJar::scanPackages)).orElse(null);
+    return new IndexedJar(new File(path), jar.accessRuleSet, jar.destinationPath, packages, onLookup);
+  }
+
+  /**
+   * Jar answering package lookups from an index shared across name environments, instead of scanning its own entries.
+   */
+  private static final class IndexedJar extends ClasspathJar {
+
+    @Nullable
+    private final Set<String> packages;
+    private final Runnable onLookup;
+
+    private IndexedJar(File file, @Nullable AccessRuleSet accessRuleSet, @Nullable String destinationPath, @Nullable Set<String> packages,
+      Runnable onLookup) {
+      super(file, true, accessRuleSet, destinationPath);
+      this.packages = packages;
+      this.packageCache = packages;
+      this.onLookup = onLookup;
+    }
+
+    @Override
+    public NameEnvironmentAnswer findClass(char[] typeName, String qualifiedPackageName, String moduleName, String qualifiedBinaryFileName,
+      boolean asBinaryOnly) {
+      onLookup.run();
+      return super.findClass(typeName, qualifiedPackageName, moduleName, qualifiedBinaryFileName, asBinaryOnly);
+    }
+
+    @Override
+    public void reset() {
+      // closes the jar, but keeps the index of its packages
+      super.reset();
+      this.packageCache = packages;
+    }
+
+    private static Optional<Set<String>> scanPackages(File file) {
+      IndexedJar jar = new IndexedJar(file, null, null, null, () -> {
+      });
+      try {
+        jar.initialize();
+        // computes the package cache of the jar
+        jar.getModulesDeclaringPackage("", null);
+        return Optional.of(Collections.unmodifiableSet(jar.packageCache));
+      } catch (IOException e) {
+        // unreadable jar, the name environments will ignore it
+        return Optional.empty();
+      } finally {
+        jar.reset();
+      }
+    }
+  }
+
+  /**
+   * Parser creating its ASTs against the classpath of the environment, as {@link ASTParser} would do with the same settings.
+   */
+  private static final class Parser extends ASTParser {
+
+    private final ClasspathEnvironment environment;
+    private final int apiLevel;
+    @Nullable
+    private Map<String, String> compilerOptions;
+    @Nullable
+    private String[] classpathEntries;
+    private boolean includeRunningVMBootclasspath;
+    private boolean resolveBindings;
+    private boolean bindingsRecovery;
+    @Nullable
+    private char[] source;
+    @Nullable
+    private String unitName;
+    private int jarLookups;
+
+    private Parser(ClasspathEnvironment environment, int apiLevel) {
+      super(apiLevel);
+      this.environment = environment;
+      this.apiLevel = apiLevel;
+    }
+
+    @Override
+    public void setCompilerOptions(Map<String, String> options) {
+      super.setCompilerOptions(options);
+      this.compilerOptions = options == null ? null : new HashMap<>(options);
+    }
+
+    @Override
+    public void setEnvironment(String[] classpathEntries, String[] sourcepathEntries, String[] encodings, boolean includeRunningVMBootclasspath) {
+      super.setEnvironment(classpathEntries, sourcepathEntries, encodings, includeRunningVMBootclasspath);
+      this.classpathEntries = classpathEntries;
+      this.includeRunningVMBootclasspath = includeRunningVMBootclasspath;
+    }
+
+    @Override
+    public void setResolveBindings(boolean enabled) {
+      super.setResolveBindings(enabled);
+      this.resolveBindings = enabled;
+    }
+
+    @Override
+    public void setBindingsRecovery(boolean enabled) {
+      super.setBindingsRecovery(enabled);
+      this.bindingsRecovery = enabled;
+    }
+
+    @Override
+    public void setSource(char[] source) {
+      super.setSource(source);
+      this.source = source;
+    }
+
+    @Override
+    public void setUnitName(String unitName) {
+      super.setUnitName(unitName);
+      this.unitName = unitName;
+    }
+
+    @Override
+    public ASTNode createAST(IProgressMonitor monitor) {
+      if (!isSupported() || source == null || unitName == null) {
+        return super.createAST(monitor);
+      }
+      try {
+        SubMonitor subMonitor = SubMonitor.convert(monitor, 1);
+        BasicCompilationUnit sourceUnit = new BasicCompilationUnit(source, null, unitName, (org.eclipse.jdt.core.IJavaElement) null);
+        return CompilationUnitResolver.getInstance().toCompilationUnit(sourceUnit, true, null, classpath(), -1, apiLevel,
+          Collections.unmodifiableMap(compilerOptions), DefaultWorkingCopyOwner.PRIMARY, null, flags(), subMonitor.split(1));
+      } finally {
+        source = null;
+        unitName = null;
+      }
+    }
+
+    @Override
+    public void createASTs(String[] sourceFilePaths, String[] encodings, String[] bindingKeys, FileASTRequestor requestor, IProgressMonitor monitor) {
+      if (!isSupported()) {
+        super.createASTs(sourceFilePaths, encodings, bindingKeys, requestor, monitor);
+        return;
+      }
+      CompilationUnitResolver.getInstance().resolve(sourceFilePaths.clone(), encodings.clone(), bindingKeys.clone(), requestor, apiLevel,
+        Collections.unmodifiableMap(compilerOptions), classpath(), flags(), monitor);
+    }
+
+    private boolean isSupported() {
+      return resolveBindings && compilerOptions != null && classpathEntries != null;
+    }
+
+    private List<FileSystem.Classpath> classpath() {
+      return environment.classpath(classpathEntries, includeRunningVMBootclasspath, () -> jarLookups++);
+    }
+
+    private int flags() {
+      return bindingsRecovery ? RESOLVE_BINDINGS_FLAGS : 0;
+    }
+  }
+
+}
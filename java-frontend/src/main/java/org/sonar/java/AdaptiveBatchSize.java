@@ -0,0 +1,189 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import com.sun.management.GcInfo;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Size of the ECJ batches, adapted after each batch to the heap usage and to the time spent in garbage collection.
+ * The batches shrink when the heap is under pressure, to avoid running out of memory, and grow back when the heap is
+ * comfortable, as larger batches share more binding resolution.
+ */
+class AdaptiveBatchSize {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AdaptiveBatchSize.class);
+
+  static final long MIN_BATCH_SIZE_IN_BYTES = 10_000L;
+  static final double HIGH_HEAP_USAGE = 0.7;
+  static final double LOW_HEAP_USAGE = 0.5;
+  static final double HIGH_GC_TIME = 0.25;
+  static final double LOW_GC_TIME = 0.1;
+
+  interface HeapMonitor {
+    /**
+     * @return the heap used right after the most recent garbage collection, in bytes
+     */
+    long usedAfterGc();
+
+    /**
+     * @return the maximum size of the heap, in bytes
+     */
+    long max();
+
+    /**
+     * @return the accumulated time spent in garbage collection since the start of the JVM, in milliseconds
+     */
+    long gcTimeInMillis();
+  }
+
+  private final HeapMonitor heapMonitor;
+  private final long maxBatchSizeInBytes;
+  private long batchSizeInBytes;
+  private long smallestBatchSizeInBytes;
+  private long largestBatchSizeInBytes;
+  private long batchStartNanos;
+  private long batchStartGcTimeInMillis;
+
+  AdaptiveBatchSize(long initialBatchSizeInBytes, long maxBatchSizeInBytes, HeapMonitor heapMonitor) {
+    this.heapMonitor = heapMonitor;
+    this.batchSizeInBytes = Math.max(MIN_BATCH_SIZE_IN_BYTES, initialBatchSizeInBytes);
+    this.maxBatchSizeInBytes = Math.max(batchSizeInBytes, maxBatchSizeInBytes);
+    this.smallestBatchSizeInBytes = batchSizeInBytes;
+    this.largestBatchSizeInBytes = batchSizeInBytes;
+  }
+
+  static AdaptiveBatchSize create(long initialBatchSizeInBytes, long maxBatchSizeInBytes) {
+    return new AdaptiveBatchSize(initialBatchSizeInBytes, maxBatchSizeInBytes, new ManagementHeapMonitor());
+  }
+
+  long batchSizeInBytes() {
+    return batchSizeInBytes;
+  }
+
+  void startBatch() {
+    batchStartNanos = System.nanoTime();
+    batchStartGcTimeInMillis = heapMonitor.gcTimeInMillis();
+  }
+
+  /**
+   * @return the size of the next batch
+   */
+  long endBatch() {
+    double batchMillis = Math.max(1L, System.nanoTime() - batchStartNanos) / 1_000_000.0;
+    double gcTime = Math.min(1.0, (heapMonitor.gcTimeInMillis() - batchStartGcTimeInMillis) / batchMillis);
+    long max = heapMonitor.max();
+    double heapUsage = max > 0 ? (heapMonitor.usedAfterGc() / (double) max) : 0.0;
+    long previousBatchSizeInBytes = batchSizeInBytes;
+    if (heapUsage > HIGH_HEAP_USAGE || gcTime > HIGH_GC_TIME) {
+      batchSizeInBytes = Math.max(MIN_BATCH_SIZE_IN_BYTES, batchSizeInBytes / 2);
+    } else if (heapUsage < LOW_HEAP_USAGE && gcTime < LOW_GC_TIME) {
+      batchSizeInBytes = Math.min(maxBatchSizeInBytes, batchSizeInBytes + batchSizeInBytes / 2);
+    }
+    if (batchSizeInBytes != previousBatchSizeInBytes && LOG.isDebugEnabled()) {
+      LOG.debug("Batch size {} from {} KB to {} KB: heap usage after GC {}%, GC time {}% of the last batch.",
+        batchSizeInBytes < previousBatchSizeInBytes ? "decreased" : "increased",
+        previousBatchSizeInBytes / 1_000L,
+        batchSizeInBytes / 1_000L,
+        percentage(heapUsage),
+        percentage(gcTime));
+    }
+    smallestBatchSizeInBytes = Math.min(smallestBatchSizeInBytes, batchSizeInBytes);
+    largestBatchSizeInBytes = Math.max(largestBatchSizeInBytes, batchSizeInBytes);
+    return batchSizeInBytes;
+  }
+
+  void logSummary() {
+    LOG.info("Adaptive batch size ranged from {} KB to {} KB.", smallestBatchSizeInBytes / 1_000L, largestBatchSizeInBytes / 1_000L);
+  }
+
+  private static String percentage(double ratio) {
+    return String.format(Locale.ROOT, "%.0f", ratio * 100);
+  }
+
+  static class ManagementHeapMonitor implements HeapMonitor {
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final Set<String> heapPoolNames = ManagementFactory.getMemoryPoolMXBeans().stream()
+      .filter(pool -> pool.getType() == MemoryType.HEAP)
+      .map(MemoryPoolMXBean::getName)
+      .collect(Collectors.toSet());
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+    /**
+     * The usages of all the heap pools are taken from the same collection, the most recent one. The collection usage of each pool
+     * would otherwise mix the old generation after the last full collection with the young one after the last minor collection.
+     */
+    @Override
+    public long usedAfterGc() {
+      GcInfo lastGc = lastGcInfo();
+      if (lastGc == null) {
+        // Before the first garbage collection, the current usage is the best we know
+        return memory.getHeapMemoryUsage().getUsed();
+      }
+      long used = 0L;
+      for (Map.Entry<String, MemoryUsage> poolUsage : lastGc.getMemoryUsageAfterGc().entrySet()) {
+        if (heapPoolNames.contains(poolUsage.getKey())) {
+          used += poolUsage.getValue().getUsed();
+        }
+      }
+      return used;
+    }
+
+    @Nullable
+    private GcInfo lastGcInfo() {
+      GcInfo lastGc = null;
+      for (GarbageCollectorMXBean collector : collectors) {
+        if (collector instanceof com.sun.management.GarbageCollectorMXBean platformCollector) {
+          GcInfo gcInfo = platformCollector.getLastGcInfo();
+          if (gcInfo != null && (lastGc == null || gcInfo.getEndTime() > lastGc.getEndTime())) {
+            lastGc = gcInfo;
+          }
+        }
+      }
+      return lastGc;
+    }
+
+    @Override
+    public long max() {
+      MemoryUsage heap = memory.getHeapMemoryUsage();
+      return heap.getMax() > 0L ? heap.getMax() : heap.getCommitted();
+    }
+
+    @Override
+    public long gcTimeInMillis() {
+      long time = 0L;
+      for (GarbageCollectorMXBean collector : collectors) {
+        time += Math.max(0L, collector.getCollectionTime());
+      }
+      return time;
+    }
+  }
+
+}
@@ -20,13 +20,30 @@ public class AnalysisProgress {
   private final int totalFileCount;
   private int currentBatchSize;
   private int analysedFileCount;
+  private final boolean reported;
 
   public AnalysisProgress(int totalFileCount) {
+    this(totalFileCount, true);
+  }
+
+  private AnalysisProgress(int totalFileCount, boolean reported) {
     this.totalFileCount = totalFileCount;
+    this.reported = reported;
     currentBatchSize = 0;
     analysedFileCount = 0;
   }
 
+  /**
+   * @return the progress of batches parsed on worker threads, which do not log it: the thread scanning their files reports the progress
+   */
+  public static AnalysisProgress unreported(int totalFileCount) {
+    return new AnalysisProgress(totalFileCount, false);
+  }
+
+  public boolean isReported() {
+    return reported;
+  }
+
   public void startBatch(int currentBatchSize) {
     this.currentBatchSize = currentBatchSize;
   }
@@ -17,19 +17,36 @@
 package org.sonar.java;
 
 import java.io.File;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
+import org.eclipse.jdt.core.dom.ClasspathEnvironment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
@@ -38,6 +55,7 @@ import org.sonar.java.ast.JavaAstScanner;
 import org.sonar.java.ast.visitors.FileLinesVisitor;
 import org.sonar.java.ast.visitors.SyntaxHighlighterVisitor;
 import org.sonar.java.caching.CacheContextImpl;
+import org.sonar.java.classpath.PersistentJarIndex;
 import org.sonar.java.collections.CollectionUtils;
 import org.sonar.java.exceptions.ApiMismatchException;
 import org.sonar.java.filters.SonarJavaIssueFilter;
@@ -47,6 +65,7 @@ import org.sonar.plugins.java.api.JavaCheck;
 import org.sonar.plugins.java.api.JavaResourceLocator;
 import org.sonar.plugins.java.api.JavaVersion;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
+import org.sonarsource.performance.measure.DurationMeasure;
 import org.sonarsource.performance.measure.PerformanceMeasure;
 import org.sonarsource.performance.measure.PerformanceMeasure.Duration;
 
@@ -54,6 +73,7 @@ public class JavaFrontend {
 
   private static final Logger LOG = LoggerFactory.getLogger(JavaFrontend.class);
   private static final String BATCH_ERROR_MESSAGE = "Batch Mode failed, analysis of Java Files stopped.";
+  private static final FutureTask<Void> END_OF_BATCH = new FutureTask<>(() -> null);
 
   private final JavaVersion javaVersion;
   private final SonarComponents sonarComponents;
@@ -61,6 +81,10 @@ public class JavaFrontend {
   private final JavaAstScanner astScanner;
   private final JavaAstScanner astScannerForTests;
   private final JavaAstScanner astScannerForGeneratedFiles;
+  // The classpaths of the scanners largely overlap, their jars are indexed once for all the batches and files
+  private final ClasspathEnvironment classpathEnvironment = new ClasspathEnvironment(this::jarPackages);
+  @Nullable
+  private PersistentJarIndex jarIndex;
 
   public JavaFrontend(JavaVersion javaVersion, @Nullable SonarComponents sonarComponents, @Nullable Measurer measurer,
                       JavaResourceLocator javaResourceLocator, @Nullable SonarJavaIssueFilter postAnalysisIssueFilter, JavaCheck... visitors) {
@@ -100,15 +124,15 @@ public class JavaFrontend {
       .flatMap(Collection::stream).distinct().toList();
 
     //AstScanner for main files
-    astScanner = new JavaAstScanner(sonarComponents);
+    astScanner = new JavaAstScanner(sonarComponents, classpathEnvironment);
     astScanner.setVisitorBridge(createVisitorBridge(codeVisitors, classpath, javaVersion, sonarComponents, inAndroidContext));
 
     //AstScanner for test files
-    astScannerForTests = new JavaAstScanner(sonarComponents);
+    astScannerForTests = new JavaAstScanner(sonarComponents, classpathEnvironment);
     astScannerForTests.setVisitorBridge(createVisitorBridge(testCodeVisitors, testClasspath, javaVersion, sonarComponents, inAndroidContext));
 
     //AstScanner for generated files
-    astScannerForGeneratedFiles = new JavaAstScanner(sonarComponents);
+    astScannerForGeneratedFiles = new JavaAstScanner(sonarComponents, classpathEnvironment);
     astScannerForGeneratedFiles.setVisitorBridge(createVisitorBridge(jspCodeVisitors, jspClasspath, javaVersion, sonarComponents, inAndroidContext));
   }
 
@@ -125,6 +149,37 @@ public class JavaFrontend {
   }
 
   public void scan(Iterable<InputFile> sourceFiles, Iterable<InputFile> testFiles, Iterable<? extends InputFile> generatedFiles) {
+    jarIndex = loadJarIndex();
+    try {
+      scanFiles(sourceFiles, testFiles, generatedFiles);
+    } finally {
+      if (jarIndex != null) {
+        jarIndex.save();
+      }
+    }
+  }
+
+  @Nullable
+  private PersistentJarIndex loadJarIndex() {
+    if (sonarComponents == null) {
+      return null;
+    }
+    try {
+      File workDir = sonarComponents.projectLevelWorkDir();
+      return workDir == null ? null : PersistentJarIndex.load(workDir);
+    } catch (RuntimeException e) {
+      // the index only saves time, the analysis goes on without it
+      LOG.debug("The index of the classpath jars is disabled: {}", e.getMessage());
+      return null;
+    }
+  }
+
+  private Optional<Set<String>> jarPackages(File jar, Function<File, Optional<Set<String>>> scanner) {
+    PersistentJarIndex index = jarIndex;
+    return index == null ? scanner.apply(jar) : index.packages(jar, scanner);
+  }
+
+  private void scanFiles(Iterable<InputFile> sourceFiles, Iterable<InputFile> testFiles, Iterable<? extends InputFile> generatedFiles) {
     if (canOptimizeScanning()) {
       long successfullyScanned = 0L;
       long total = 0L;
@@ -216,27 +271,212 @@ public class JavaFrontend {
       scanBatch(context, allInputFiles, analysisProgress);
     } else {
       long batchSize = batchModeSizeInKB * 1_000L;
-      LOG.info("{} with batch size {} KB.", logUsingBatch, batchModeSizeInKB);
-      BatchGenerator generator = new BatchGenerator(allInputFiles.iterator(), batchSize);
-      while (generator.hasNext()) {
-        List<InputFile> batch = generator.next();
-        scanBatch(context, batch, analysisProgress);
+      BatchGenerator generator = new BatchGenerator(PackageAffinityOrder.order(allInputFiles).iterator(), batchSize);
+      int threads = getBatchModeThreads();
+      if (threads > 1) {
+        if (isAdaptiveBatchSizeEnabled()) {
+          LOG.warn("The adaptive batch size is not supported with several threads, the batch size is fixed.");
+        }
+        // each thread parses its own batch: the ASTs and ECJ environments kept in memory are those of a single batch of the configured size
+        generator.setBatchSizeInBytes(batchSize / threads);
+        LOG.info("{} with batch size {} KB on {} threads.", logUsingBatch, batchModeSizeInKB / threads, threads);
+        scanBatchesInParallel(context, generator, analysisProgress, threads, allInputFiles.size());
+      } else if (isAdaptiveBatchSizeEnabled()) {
+        LOG.info("{} with an initial batch size of {} KB, adapted to the heap usage after each batch.", logUsingBatch, batchModeSizeInKB);
+        scanBatchesWithAdaptiveSize(context, generator, analysisProgress);
+      } else {
+        LOG.info("{} with batch size {} KB.", logUsingBatch, batchModeSizeInKB);
+        while (generator.hasNext()) {
+          List<InputFile> batch = generator.next();
+          scanBatch(context, batch, analysisProgress);
+        }
       }
     }
   }
 
+  /**
+   * Scans the batches one after the other, the size of each batch depending on the heap usage and on the time spent in
+   * garbage collection during the previous one.
+   */
+  private void scanBatchesWithAdaptiveSize(BatchModeContext context, BatchGenerator generator, AnalysisProgress analysisProgress) {
+    AdaptiveBatchSize adaptiveBatchSize = AdaptiveBatchSize.create(generator.batchSizeInBytes(), SonarComponents.MAX_IDEAL_BATCH_SIZE_IN_KB * 1_000L);
+    generator.setBatchSizeInBytes(adaptiveBatchSize.batchSizeInBytes());
+    while (generator.hasNext()) {
+      List<InputFile> batch = generator.next();
+      adaptiveBatchSize.startBatch();
+      scanBatch(context, batch, analysisProgress);
+      generator.setBatchSizeInBytes(adaptiveBatchSize.endBatch());
+    }
+    adaptiveBatchSize.logSummary();
+  }
+
+  /**
+   * Parses the batches on a pool of worker threads, each batch having its own ECJ environment.
+   *
+   * Only the parsing and the binding resolution run concurrently: a worker hands each parsed file over to the current thread,
+   * which scans the files one after the other while the worker waits, so checks never see two files at the same time and
+   * do not need to be thread-safe. The batches are cut when a thread is available, at most one batch being parsed by each
+   * thread, and their files are scanned in the order of the batches, as in the sequential batch mode.
+   * The progress is reported by the current thread, the durations measured by the workers are merged into its measure.
+   */
+  private void scanBatchesInParallel(BatchModeContext context, BatchGenerator generator, AnalysisProgress analysisProgress, int threads,
+    int fileCount) {
+    AtomicBoolean stopped = new AtomicBoolean(false);
+    ExecutorService executor = Executors.newFixedThreadPool(threads, new BatchThreadFactory());
+    Deque<ParallelBatch> batches = new ArrayDeque<>();
+    Duration parallelDuration = PerformanceMeasure.start("ParallelBatches");
+    DurationMeasure parallelMeasure = WorkerPerformanceMeasure.current();
+    ProgressMonitor monitor = new ProgressMonitor(this::analysisCancelled, analysisProgress);
+    long start = System.nanoTime();
+    try {
+      analysisProgress.startBatch(fileCount);
+      monitor.beginTask("Scan of the parsed batches", fileCount);
+      int batchCount = 0;
+      long busyNanos = 0L;
+      while (generator.hasNext() || !batches.isEmpty()) {
+        while (batches.size() < threads && generator.hasNext()) {
+          List<InputFile> batchFiles = generator.next();
+          BlockingQueue<FutureTask<Void>> scanQueue = new LinkedBlockingQueue<>();
+          DurationMeasure workerMeasure = parallelMeasure == null ? null : new DurationMeasure("ParallelWorkers");
+          batches.add(new ParallelBatch(scanQueue, executor.submit(() -> WorkerPerformanceMeasure.record(workerMeasure,
+            () -> parseBatchInParallel(context, batchFiles, fileCount, scanQueue, stopped, workerMeasure)))));
+        }
+        ParallelBatch batch = batches.remove();
+        scanParsedFiles(batch.scanQueue(), monitor);
+        DurationMeasure workerMeasure = awaitBatch(batch.parsing());
+        busyNanos += workerMeasure.durationNanos();
+        if (parallelMeasure != null) {
+          parallelMeasure.addOrMerge(workerMeasure);
+        }
+        batchCount++;
+      }
+      analysisProgress.endBatch();
+      long wallNanos = Math.max(1L, System.nanoTime() - start);
+      LOG.info("Parallel batch mode analyzed {} batches in {} ms, workers busy parsing for {} ms, parallelism x{}.",
+        batchCount,
+        TimeUnit.NANOSECONDS.toMillis(wallNanos),
+        TimeUnit.NANOSECONDS.toMillis(busyNanos),
+        String.format(Locale.ROOT, "%.2f", busyNanos / (double) wallNanos));
+    } finally {
+      stopped.set(true);
+      executor.shutdownNow();
+      monitor.done();
+      parallelDuration.stop();
+    }
+  }
+
+  /**
+   * A batch parsed by a worker, whose parsed files are queued to be scanned by the current thread.
+   */
+  private record ParallelBatch(BlockingQueue<FutureTask<Void>> scanQueue, Future<DurationMeasure> parsing) {
+  }
+
+  /**
+   * Runs on a worker thread: parses the batch and waits for the current thread to scan each parsed file.
+   * @return the durations measured by the worker, whose own duration is the time spent parsing, without the waits
+   */
+  private DurationMeasure parseBatchInParallel(BatchModeContext context, List<InputFile> batch, int totalFileCount,
+    BlockingQueue<FutureTask<Void>> scanQueue, AtomicBoolean stopped, @Nullable DurationMeasure workerMeasure) {
+    DurationMeasure measure = workerMeasure == null ? new DurationMeasure("ParallelWorkers") : workerMeasure;
+    long start = System.nanoTime();
+    long waitNanos = 0L;
+    try {
+      if (!stopped.get() && !analysisCancelled()) {
+        AnalysisProgress workerProgress = AnalysisProgress.unreported(totalFileCount);
+        workerProgress.startBatch(batch.size());
+        Set<Runnable> environmentsCleaners = new HashSet<>();
+        long[] waits = {0L};
+        JParserConfig.Mode.BATCH
+          .create(javaVersion, context.getClasspath(), shouldIgnoreUnnamedModuleForSplitPackage(), classpathEnvironment)
+          .parse(batch, () -> stopped.get() || analysisCancelled(), workerProgress, (input, result) -> {
+            FutureTask<Void> scan = new FutureTask<>(() -> scanAsBatchCallback(input, result, context, environmentsCleaners), null);
+            long waitStart = System.nanoTime();
+            scanQueue.add(scan);
+            awaitScan(scan);
+            waits[0] += System.nanoTime() - waitStart;
+          });
+        environmentsCleaners.forEach(Runnable::run);
+        waitNanos = waits[0];
+      }
+    } catch (RuntimeException | Error e) {
+      stopped.set(true);
+      throw e;
+    } finally {
+      scanQueue.add(END_OF_BATCH);
+    }
+    measure.addCalls(1L, System.nanoTime() - start - waitNanos);
+    return measure;
+  }
+
+  private static void awaitScan(FutureTask<Void> scan) {
+    Duration waitDuration = PerformanceMeasure.start("WaitForScan");
+    try {
+      scan.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AnalysisException("Analysis cancelled", e);
+    } catch (ExecutionException e) {
+      // rethrown in the worker, as if the file had been scanned by the worker itself
+      throw unwrap(e);
+    } finally {
+      waitDuration.stop();
+    }
+  }
+
+  /**
+   * Scans, on the current thread, the files of a batch parsed by a worker, until the batch is over.
+   */
+  private static void scanParsedFiles(BlockingQueue<FutureTask<Void>> scanQueue, ProgressMonitor monitor) {
+    try {
+      FutureTask<Void> scan = scanQueue.take();
+      while (scan != END_OF_BATCH) {
+        scan.run();
+        monitor.worked(1);
+        scan = scanQueue.take();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AnalysisException("Analysis cancelled", e);
+    }
+  }
+
+  private static <T> T awaitBatch(Future<T> batch) {
+    try {
+      return batch.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AnalysisException("Analysis cancelled", e);
+    } catch (ExecutionException e) {
+      throw unwrap(e);
+    }
+  }
+
+  private static RuntimeException unwrap(ExecutionException e) {
+    Throwable cause = e.getCause();
+    if (cause instanceof RuntimeException runtimeException) {
+      return runtimeException;
+    }
+    if (cause instanceof Error error) {
+      throw error;
+    }
+    return new AnalysisException(BATCH_ERROR_MESSAGE, cause);
+  }
+
   private <T extends InputFile> void scanBatch(BatchModeContext context, List<T> batchFiles, AnalysisProgress analysisProgress) {
     analysisProgress.startBatch(batchFiles.size());
     Set<Runnable> environmentsCleaners = new HashSet<>();
-    boolean shouldIgnoreUnnamedModuleForSplitPackage = sonarComponents!= null && sonarComponents.shouldIgnoreUnnamedModuleForSplitPackage();
     JParserConfig.Mode.BATCH
-      .create(javaVersion, context.getClasspath(), shouldIgnoreUnnamedModuleForSplitPackage)
+      .create(javaVersion, context.getClasspath(), shouldIgnoreUnnamedModuleForSplitPackage(), classpathEnvironment)
       .parse(batchFiles, this::analysisCancelled, analysisProgress, (input, result) -> scanAsBatchCallback(input, result, context, environmentsCleaners));
     // Due to a bug in ECJ, JAR files remain locked after the analysis on Windows, we unlock them manually, at the end of each batches. See SONARJAVA-3609.
     environmentsCleaners.forEach(Runnable::run);
     analysisProgress.endBatch();
   }
 
+  private boolean shouldIgnoreUnnamedModuleForSplitPackage() {
+    return sonarComponents!= null && sonarComponents.shouldIgnoreUnnamedModuleForSplitPackage();
+  }
+
   private static void scanAsBatchCallback(InputFile inputFile, JParserConfig.Result result, BatchModeContext context, Set<Runnable> environmentsCleaners) {
     JavaAstScanner scanner = context.selectScanner(inputFile);
     Duration duration = PerformanceMeasure.start(context.descriptor(inputFile));
@@ -247,6 +487,17 @@ public class JavaFrontend {
     duration.stop();
   }
 
+  private static class BatchThreadFactory implements ThreadFactory {
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "Java batch analysis " + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
   interface BatchModeContext {
     String descriptor();
 
@@ -327,7 +578,7 @@ public class JavaFrontend {
   }
 
   static class BatchGenerator {
-    public final long batchSizeInBytes;
+    private long batchSizeInBytes;
     private final Iterator<InputFile> source;
     private InputFile buffer = null;
 
@@ -337,6 +588,14 @@ public class JavaFrontend {
       this.batchSizeInBytes = batchSizeInBytes;
     }
 
+    public long batchSizeInBytes() {
+      return batchSizeInBytes;
+    }
+
+    public void setBatchSizeInBytes(long batchSizeInBytes) {
+      this.batchSizeInBytes = batchSizeInBytes;
+    }
+
     public boolean hasNext() {
       return buffer != null || source.hasNext();
     }
@@ -383,6 +642,15 @@ public class JavaFrontend {
     return sonarComponents != null && sonarComponents.isAutoScan();
   }
 
+  @VisibleForTesting
+  int getBatchModeThreads() {
+    return sonarComponents == null ? 1 : sonarComponents.getBatchModeThreads();
+  }
+
+  private boolean isAdaptiveBatchSizeEnabled() {
+    return sonarComponents != null && sonarComponents.isAdaptiveBatchSizeEnabled();
+  }
+
   @VisibleForTesting
   long getBatchModeSizeInKB() {
     return sonarComponents == null ? -1L : sonarComponents.getBatchModeSizeInKB();
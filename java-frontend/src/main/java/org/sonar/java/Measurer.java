@@ -17,30 +17,40 @@
 package org.sonar.java;
 
 import java.io.Serializable;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import org.sonar.api.SonarProduct;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.issue.NoSonarFilter;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.measures.Metric;
-import org.sonar.java.ast.visitors.CognitiveComplexityVisitor;
-import org.sonar.java.ast.visitors.SubscriptionVisitor;
+import org.sonar.java.ast.visitors.CommentLinesVisitor;
+import org.sonar.java.ast.visitors.FileMetricsVisitor;
+import org.sonar.java.ast.visitors.PlatformSubscriptionVisitor;
 import org.sonar.java.metrics.MetricsScannerContext;
-import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.NewClassTree;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
 
-public class Measurer extends SubscriptionVisitor {
+/**
+ * Saves the measures of the main files. The metrics of the whole file are computed by a {@link FileMetricsVisitor} fed by the walk of
+ * this visitor, rather than by the visitors of the {@link org.sonar.java.metrics.MetricsComputer} which would each walk the file again.
+ */
+public class Measurer extends PlatformSubscriptionVisitor {
 
   private final SensorContext sensorContext;
   private final NoSonarFilter noSonarFilter;
+  private final FileMetricsVisitor fileMetricsVisitor = new FileMetricsVisitor();
   private InputFile sonarFile;
+  private boolean measuring;
   private int methods;
   private final Deque<ClassTree> classTrees = new LinkedList<>();
   private int classes;
@@ -50,46 +60,65 @@ public class Measurer extends SubscriptionVisitor {
     this.noSonarFilter = noSonarFilter;
   }
 
-  public class TestFileMeasurer implements JavaFileScanner {
+  public class TestFileMeasurer extends PlatformSubscriptionVisitor {
+    private CommentLinesVisitor commentLinesVisitor = new CommentLinesVisitor();
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return Collections.singletonList(Tree.Kind.TOKEN);
+    }
+
+    @Override
+    public void setContext(JavaFileScannerContext context) {
+      super.setContext(context);
+      commentLinesVisitor = new CommentLinesVisitor();
+    }
+
+    @Override
+    public void visitToken(SyntaxToken syntaxToken) {
+      commentLinesVisitor.visitToken(syntaxToken);
+    }
+
     @Override
-    public void scanFile(JavaFileScannerContext context) {
-      sonarFile = context.getInputFile();
-      var metricsComputer = ((MetricsScannerContext)context).getMetricsComputer();
-      noSonarFilter.noSonarInFile(sonarFile, metricsComputer.getNoSonarLines(context.getTree()));
+    public void leaveFile(JavaFileScannerContext context) {
+      noSonarFilter.noSonarInFile(context.getInputFile(), commentLinesVisitor.noSonarLines());
     }
   }
 
   @Override
   public List<Tree.Kind> nodesToVisit() {
-    return Arrays.asList(Tree.Kind.CLASS, Tree.Kind.INTERFACE, Tree.Kind.ENUM, Tree.Kind.ANNOTATION_TYPE, Tree.Kind.RECORD,
-        Tree.Kind.NEW_CLASS, Tree.Kind.ENUM_CONSTANT,
-        Tree.Kind.METHOD, Tree.Kind.CONSTRUCTOR);
+    Set<Tree.Kind> kinds = EnumSet.copyOf(fileMetricsVisitor.nodesToVisit());
+    kinds.add(Tree.Kind.NEW_CLASS);
+    return new ArrayList<>(kinds);
   }
 
-
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
+    super.setContext(context);
     sonarFile = context.getInputFile();
-    var metricsComputer = ((MetricsScannerContext)context).getMetricsComputer();
-    noSonarFilter.noSonarInFile(sonarFile, metricsComputer.getNoSonarLines(context.getTree()));
-    if(isSonarLintContext()) {
-      // No need to compute metrics on SonarLint side, but the no sonar filter is still required
-      return;
-    }
+    // No need to compute metrics on SonarLint side, but the no sonar filter is still required
+    measuring = !isSonarLintContext();
+    fileMetricsVisitor.clear();
     classTrees.clear();
     methods = 0;
     classes = 0;
-    super.setContext(context);
-    scanTree(context.getTree());
-    //leave file.
+  }
+
+  @Override
+  public void leaveFile(JavaFileScannerContext context) {
+    noSonarFilter.noSonarInFile(sonarFile, fileMetricsVisitor.noSonarLines());
+    if (!measuring) {
+      return;
+    }
     saveMetricOnFile(CoreMetrics.CLASSES, classes);
     saveMetricOnFile(CoreMetrics.FUNCTIONS, methods);
-    saveMetricOnFile(CoreMetrics.COMPLEXITY, metricsComputer.getComplexityNodes(context.getTree()).size());
-    saveMetricOnFile(CoreMetrics.COMMENT_LINES, metricsComputer.getNumberOfCommentedLines(context.getTree()));
-    saveMetricOnFile(CoreMetrics.STATEMENTS, metricsComputer.getNumberOfStatements(context.getTree()));
-    saveMetricOnFile(CoreMetrics.NCLOC, metricsComputer.getLinesOfCode(context.getTree()));
+    saveMetricOnFile(CoreMetrics.COMPLEXITY, fileMetricsVisitor.complexity());
+    saveMetricOnFile(CoreMetrics.COMMENT_LINES, fileMetricsVisitor.commentLines());
+    saveMetricOnFile(CoreMetrics.STATEMENTS, fileMetricsVisitor.statements());
+    saveMetricOnFile(CoreMetrics.NCLOC, fileMetricsVisitor.linesOfCode());
 
-    saveMetricOnFile(CoreMetrics.COGNITIVE_COMPLEXITY, CognitiveComplexityVisitor.compilationUnitComplexity(context.getTree()));
+    var metricsComputer = ((MetricsScannerContext) context).getMetricsComputer();
+    saveMetricOnFile(CoreMetrics.COGNITIVE_COMPLEXITY, metricsComputer.getCompilationUnitComplexity(context.getTree()));
   }
 
   private boolean isSonarLintContext() {
@@ -98,6 +127,10 @@ public class Measurer extends SubscriptionVisitor {
 
   @Override
   public void visitNode(Tree tree) {
+    if (!measuring) {
+      return;
+    }
+    fileMetricsVisitor.visitNode(tree);
     if (isClassTree(tree)) {
       classes++;
       classTrees.push((ClassTree) tree);
@@ -114,11 +147,20 @@ public class Measurer extends SubscriptionVisitor {
 
   @Override
   public void leaveNode(Tree tree) {
+    if (!measuring) {
+      return;
+    }
+    fileMetricsVisitor.leaveNode(tree);
     if (isClassTree(tree)) {
       classTrees.pop();
     }
   }
 
+  @Override
+  public void visitToken(SyntaxToken syntaxToken) {
+    fileMetricsVisitor.visitToken(syntaxToken);
+  }
+
   private static boolean isClassTree(Tree tree) {
     return tree.is(Tree.Kind.CLASS, Tree.Kind.INTERFACE, Tree.Kind.ENUM, Tree.Kind.ANNOTATION_TYPE, Tree.Kind.RECORD);
   }
@@ -0,0 +1,203 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+
+/**
+ * Orders the files so that the files of a package, then the packages importing each other, follow each other.
+ * Cutting the ordered files into ECJ batches then compiles tightly coupled files together, sharing the resolution of their types.
+ * Only the package and import declarations at the beginning of the files are read.
+ */
+final class PackageAffinityOrder {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PackageAffinityOrder.class);
+
+  private static final Pattern PACKAGE = Pattern.compile("package\\s++([\\w.]++)\\s*+;");
+  private static final Pattern IMPORT = Pattern.compile("import\\s++(static\\s++)?([\\w.]++)(\\.\\*)?\\s*+;");
+
+  private PackageAffinityOrder() {
+  }
+
+  static List<InputFile> order(List<InputFile> files) {
+    Map<String, List<InputFile>> filesByPackage = new LinkedHashMap<>();
+    Map<String, List<String>> importsByPackage = new HashMap<>();
+    for (InputFile file : files) {
+      Header header = readHeader(file);
+      filesByPackage.computeIfAbsent(header.packageName, k -> new ArrayList<>()).add(file);
+      importsByPackage.computeIfAbsent(header.packageName, k -> new ArrayList<>()).addAll(header.importedPackages);
+    }
+    List<InputFile> ordered = new ArrayList<>(files.size());
+    Set<String> visited = new HashSet<>();
+    for (String packageName : filesByPackage.keySet()) {
+      Deque<String> toVisit = new ArrayDeque<>();
+      toVisit.push(packageName);
+      while (!toVisit.isEmpty()) {
+        String current = toVisit.pop();
+        if (visited.add(current)) {
+          ordered.addAll(filesByPackage.get(current));
+          // the most imported package is visited first, so it is pushed last
+          importedProjectPackages(current, importsByPackage.get(current), filesByPackage.keySet()).stream()
+            .filter(imported -> !visited.contains(imported))
+            .forEach(toVisit::push);
+        }
+      }
+    }
+    LOG.debug("Ordered {} files of {} packages by package and import affinity.", ordered.size(), filesByPackage.size());
+    return ordered;
+  }
+
+  /**
+   * @return the packages of the project imported by the given package, from the least to the most imported one
+   */
+  private static List<String> importedProjectPackages(String packageName, List<String> imports, Set<String> projectPackages) {
+    Map<String, Integer> importCounts = new LinkedHashMap<>();
+    for (String imported : imports) {
+      if (!imported.equals(packageName) && projectPackages.contains(imported)) {
+        importCounts.merge(imported, 1, Integer::sum);
+      }
+    }
+    List<String> result = new ArrayList<>(importCounts.keySet());
+    result.sort(Comparator.comparing(importCounts::get));
+    return result;
+  }
+
+  private static Header readHeader(InputFile file) {
+    Header header = new Header();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.inputStream(), file.charset()))) {
+      String line;
+      boolean inComment = false;
+      while ((line = reader.readLine()) != null) {
+        line = line.trim();
+        if (inComment) {
+          inComment = !line.contains("*/");
+        } else if (line.startsWith("/*")) {
+          inComment = !line.contains("*/");
+        } else if (!line.isEmpty() && !line.startsWith("//") && !header.read(line)) {
+          // the first type declaration ends the header
+          break;
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Unable to read the package and imports of {}, it is ordered with the files of the default package.", file);
+    }
+    return header;
+  }
+
+  private static class Header {
+    private String packageName = "";
+    private final List<String> importedPackages = new ArrayList<>();
+    private boolean declarationRead = false;
+    private int annotationParentheses = 0;
+
+    /**
+     * @return true when the line is a package or import declaration, or annotations of the package declaration
+     */
+    boolean read(String line) {
+      String declaration = declarationRead ? line : skipAnnotations(line);
+      if (declaration.isEmpty()) {
+        return true;
+      }
+      declarationRead = readDeclaration(declaration);
+      return declarationRead;
+    }
+
+    /**
+     * Skips the annotations which can precede the package declaration, like in "package-info.java", their arguments possibly spanning
+     * several lines.
+     * @return the rest of the line following the annotations
+     */
+    private String skipAnnotations(String line) {
+      int i = 0;
+      while (i < line.length()) {
+        char c = line.charAt(i);
+        if (annotationParentheses > 0) {
+          if (c == '(') {
+            annotationParentheses++;
+          } else if (c == ')') {
+            annotationParentheses--;
+          }
+          i++;
+        } else if (c == '@') {
+          i = skipAnnotationName(line, i + 1);
+          String arguments = line.substring(i).stripLeading();
+          if (arguments.startsWith("(")) {
+            annotationParentheses = 1;
+            i = line.length() - arguments.length() + 1;
+          }
+        } else if (Character.isWhitespace(c)) {
+          i++;
+        } else {
+          break;
+        }
+      }
+      return line.substring(i);
+    }
+
+    private static int skipAnnotationName(String line, int start) {
+      int i = start;
+      while (i < line.length() && (Character.isJavaIdentifierPart(line.charAt(i)) || line.charAt(i) == '.')) {
+        i++;
+      }
+      return i;
+    }
+
+    private boolean readDeclaration(String line) {
+      Matcher packageMatcher = PACKAGE.matcher(line);
+      if (packageMatcher.lookingAt()) {
+        packageName = packageMatcher.group(1);
+        return true;
+      }
+      Matcher importMatcher = IMPORT.matcher(line);
+      if (importMatcher.lookingAt()) {
+        String name = importMatcher.group(2);
+        boolean onDemand = importMatcher.group(3) != null;
+        // "import a.b.C;" and "import static a.b.C.*;" drop one segment, "import static a.b.C.m;" drops two
+        int droppedSegments = (onDemand ? 0 : 1) + (importMatcher.group(1) != null ? 1 : 0);
+        importedPackages.add(dropLastSegments(name, droppedSegments));
+        return true;
+      }
+      return false;
+    }
+
+    private static String dropLastSegments(String name, int count) {
+      String result = name;
+      for (int i = 0; i < count && result.lastIndexOf('.') > 0; i++) {
+        result = result.substring(0, result.lastIndexOf('.'));
+      }
+      return result;
+    }
+  }
+
+}
@@ -93,7 +93,9 @@ public class ProgressMonitor implements IProgressMonitor, Runnable {
     if (analysisProgress.isFirstBatch()) {
       log("Starting batch processing.");
     }
-    thread.start();
+    if (analysisProgress.isReported()) {
+      thread.start();
+    }
   }
 
   @Override
@@ -153,6 +155,9 @@ public class ProgressMonitor implements IProgressMonitor, Runnable {
   }
 
   private void log(String message) {
+    if (!analysisProgress.isReported()) {
+      return;
+    }
     synchronized (logger) {
       logger.info(message);
       logger.notifyAll();
@@ -87,6 +87,30 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
   public static final String SONAR_AUTOSCAN_CHECK_FILTERING = "sonar.internal.analysis.autoscan.filtering";
   public static final String SONAR_BATCH_SIZE_KEY = "sonar.java.experimental.batchModeSizeInKB";
   public static final String SONAR_FILE_BY_FILE = "sonar.java.fileByFile";
+  /**
+   * Number of threads used to parse batches concurrently in batch mode. When not set, batches are processed one after the other.
+   */
+  public static final String SONAR_BATCH_MODE_THREADS_KEY = "sonar.java.experimental.batchModeThreads";
+  /**
+   * Whether the size of the batches is adapted to the heap usage after each batch, starting from the batch mode size.
+   * When not set, all the batches have the batch mode size.
+   */
+  public static final String SONAR_ADAPTIVE_BATCH_SIZE_KEY = "sonar.java.experimental.adaptiveBatchSize";
+  /**
+   * Number of threads used to compare the content of the files with the hashes cached by the previous analysis before
+   * scanning them without parsing. When not set, the files are compared one after the other.
+   */
+  public static final String SONAR_SCAN_WITHOUT_PARSING_THREADS_KEY = "sonar.java.experimental.scanWithoutParsingThreads";
+  /**
+   * Time in milliseconds a rule can spend on a file. A subscription rule exceeding it is stopped for the rest of the file.
+   * When not set, the rules are never stopped.
+   */
+  public static final String SONAR_RULE_TIME_BUDGET_KEY = "sonar.java.experimental.ruleTimeBudgetPerFileInMs";
+  /**
+   * Whether the platform visitors annotated with {@code ThreadSafeVisitor} walk each file on a thread of their own, while the rules
+   * run on the analysis thread. When not set, all the visitors run on the analysis thread.
+   */
+  public static final String SONAR_CONCURRENT_SYNTAX_VISITORS_KEY = "sonar.java.experimental.concurrentSyntaxVisitors";
   /**
    * Describes if an optimized analysis of unchanged by skipping some rules is enabled.
    * By default, the property is not set (null), leaving SQ/SC to decide whether to enable this behavior.
@@ -102,6 +126,7 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
   public static final String SONAR_IGNORE_UNNAMED_MODULE_FOR_SPLIT_PACKAGE = "sonar.java.ignoreUnnamedModuleForSplitPackage";
   private static final Version SONARLINT_6_3 = Version.parse("6.3");
   private static final Version SONARQUBE_9_2 = Version.parse("9.2");
+  static final long MAX_IDEAL_BATCH_SIZE_IN_KB = 500L;
   @VisibleForTesting
   static LongSupplier maxMemoryInBytesProvider = () -> Runtime.getRuntime().maxMemory();
 
@@ -127,6 +152,8 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
   private final Set<RuleKey> additionalAutoScanCompatibleRuleKeys;
 
   private boolean alreadyLoggedSkipStatus = false;
+  @Nullable
+  private ContentHashCache contentHashCache;
 
   public SonarComponents(FileLinesContextFactory fileLinesContextFactory, FileSystem fs,
     ClasspathForMain javaClasspath, ClasspathForTest javaTestClasspath,
@@ -222,6 +249,7 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
 
   public void setSensorContext(SensorContext context) {
     this.context = context;
+    this.contentHashCache = null;
   }
 
   public void setCheckFilter(UnaryOperator<List<JavaCheck>> checkFilter) {
@@ -476,6 +504,53 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
     return config.getLong(SONAR_BATCH_SIZE_KEY).orElse(computeIdealBatchSize());
   }
 
+  /**
+   * Returns whether the size of the batches is adapted to the heap usage, as read from configuration.
+   */
+  public boolean isAdaptiveBatchSizeEnabled() {
+    return context.config().getBoolean(SONAR_ADAPTIVE_BATCH_SIZE_KEY).orElse(false);
+  }
+
+  /**
+   * Returns whether the thread-safe platform visitors walk the files on a thread of their own, as read from configuration.
+   */
+  public boolean isConcurrentSyntaxVisitorsEnabled() {
+    return context.config().getBoolean(SONAR_CONCURRENT_SYNTAX_VISITORS_KEY).orElse(false);
+  }
+
+  /**
+   * Returns the number of threads used to process batches, as read from configuration.
+   *
+   * @return the number of threads, or 1 when batches should be processed sequentially.
+   */
+  public int getBatchModeThreads() {
+    return context.config().getInt(SONAR_BATCH_MODE_THREADS_KEY)
+      .filter(threads -> threads > 1)
+      .orElse(1);
+  }
+
+  /**
+   * Returns the time a rule can spend on a file before being stopped for this file, as read from configuration.
+   *
+   * @return the time budget in milliseconds, or 0 when the rules are never stopped.
+   */
+  public long getRuleTimeBudgetPerFileInMillis() {
+    return context.config().getLong(SONAR_RULE_TIME_BUDGET_KEY)
+      .filter(budget -> budget > 0)
+      .orElse(0L);
+  }
+
+  /**
+   * Returns the number of threads used to find the unchanged files before scanning them without parsing, as read from configuration.
+   *
+   * @return the number of threads, or 1 when the files should be looked up on the analysis thread.
+   */
+  public int getScanWithoutParsingThreads() {
+    return context.config().getInt(SONAR_SCAN_WITHOUT_PARSING_THREADS_KEY)
+      .filter(threads -> threads > 1)
+      .orElse(1);
+  }
+
   public boolean shouldIgnoreUnnamedModuleForSplitPackage() {
     return context.config().getBoolean(SONAR_IGNORE_UNNAMED_MODULE_FOR_SPLIT_PACKAGE).orElse(false);
   }
@@ -485,7 +560,7 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
     // If we assume that the average size of a file is 5KB and the average CI should have 1GB of memory,
     // it will be able to analyze 10 files in batch.
     // We max the value to 500KB (100 files) because there is only little advantages to go further.
-    return Math.min(500L, ((long) (maxMemoryInBytesProvider.getAsLong() * 0.00005)) / 1000L);
+    return Math.min(MAX_IDEAL_BATCH_SIZE_IN_KB, ((long) (maxMemoryInBytesProvider.getAsLong() * 0.00005)) / 1000L);
   }
 
   public File projectLevelWorkDir() {
@@ -549,7 +624,7 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
 
 
   public boolean fileCanBeSkipped(InputFile inputFile) {
-    var contentHashCache = new ContentHashCache(this);
+    var contentHashCache = contentHashCache();
     if (inputFile instanceof GeneratedFile) {
       // Generated files should not be skipped as we cannot assess the change status of the source file
       return false;
@@ -557,24 +632,18 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
     boolean canSkipInContext;
     try {
       canSkipInContext = canSkipUnchangedFiles();
-      if (!alreadyLoggedSkipStatus) {
-        if (canSkipInContext) {
-          LOG.info("The Java analyzer is running in a context where unchanged files can be skipped. Full analysis is performed " +
-            "for changed files, optimized analysis for unchanged files.");
-        } else {
-          LOG.info("The Java analyzer cannot skip unchanged files in this context. A full analysis is performed for all files.");
-        }
-        alreadyLoggedSkipStatus = true;
+      if (canSkipInContext) {
+        logSkipStatusOnce("The Java analyzer is running in a context where unchanged files can be skipped. Full analysis is performed " +
+          "for changed files, optimized analysis for unchanged files.");
+      } else {
+        logSkipStatusOnce("The Java analyzer cannot skip unchanged files in this context. A full analysis is performed for all files.");
       }
     } catch (ApiMismatchException e) {
-      if (!alreadyLoggedSkipStatus) {
-        LOG.info(
-          "Cannot determine whether the context allows skipping unchanged files: canSkipUnchangedFiles not part of sonar-plugin-api. " +
-            "Not skipping. {}",
-          e.getCause().getMessage()
-        );
-        alreadyLoggedSkipStatus = true;
-      }
+      logSkipStatusOnce(
+        "Cannot determine whether the context allows skipping unchanged files: canSkipUnchangedFiles not part of sonar-plugin-api. " +
+          "Not skipping. {}",
+        e.getCause().getMessage()
+      );
       contentHashCache.writeToCache(inputFile);
       return false;
     }
@@ -585,6 +654,26 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
     return contentHashCache.hasSameHashCached(inputFile);
   }
 
+  /**
+   * Synchronized as unchanged files can be looked up by several threads, see {@link #SONAR_SCAN_WITHOUT_PARSING_THREADS_KEY}.
+   */
+  private synchronized void logSkipStatusOnce(String message, Object... args) {
+    if (!alreadyLoggedSkipStatus) {
+      LOG.info(message, args);
+      alreadyLoggedSkipStatus = true;
+    }
+  }
+
+  /**
+   * The content hash cache is created once per module, its hashers being reused from one file to the other.
+   */
+  private synchronized ContentHashCache contentHashCache() {
+    if (contentHashCache == null) {
+      contentHashCache = new ContentHashCache(this);
+    }
+    return contentHashCache;
+  }
+
   public InputComponent project() {
     return context.project();
   }
@@ -0,0 +1,79 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import java.lang.reflect.Field;
+import java.util.function.Supplier;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonarsource.performance.measure.DurationMeasure;
+import org.sonarsource.performance.measure.PerformanceMeasure;
+
+/**
+ * {@link PerformanceMeasure} records the durations in a tree held by a thread local: durations started on worker threads are dropped.
+ * A worker thread can instead record its durations in a tree of its own, which the thread having started the workers merges afterwards
+ * into its current measure. The thread local is not exposed by the library, it is read by reflection: when it can not be, the durations
+ * of the workers are not recorded.
+ */
+final class WorkerPerformanceMeasure {
+
+  private static final Logger LOG = LoggerFactory.getLogger(WorkerPerformanceMeasure.class);
+
+  @Nullable
+  private static final ThreadLocal<DurationMeasure> CURRENT_MEASURE = currentMeasure();
+
+  private WorkerPerformanceMeasure() {
+  }
+
+  @CheckForNull
+  @SuppressWarnings("unchecked")
+  private static ThreadLocal<DurationMeasure> currentMeasure() {
+    try {
+      Field field = PerformanceMeasure.class.getDeclaredField("THREAD_LOCAL_CURRENT_MEASURE");
+      field.setAccessible(true);
+      return (ThreadLocal<DurationMeasure>) field.get(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOG.debug("Durations measured on worker threads will not be recorded: {}", e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * @return the measure the durations started by the current thread are recorded in, null when they are not recorded
+   */
+  @CheckForNull
+  static DurationMeasure current() {
+    return CURRENT_MEASURE == null ? null : CURRENT_MEASURE.get();
+  }
+
+  /**
+   * Runs a task on the current worker thread, recording the durations it starts in the given measure when it is not null.
+   */
+  static <T> T record(@Nullable DurationMeasure workerMeasure, Supplier<T> task) {
+    if (workerMeasure == null || CURRENT_MEASURE == null) {
+      return task.get();
+    }
+    CURRENT_MEASURE.set(workerMeasure);
+    try {
+      return task.get();
+    } finally {
+      CURRENT_MEASURE.remove();
+    }
+  }
+}
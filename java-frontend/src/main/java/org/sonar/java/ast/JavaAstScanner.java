@@ -19,17 +19,24 @@ package org.sonar.java.ast;
 import com.sonar.sslr.api.RecognitionException;
 import java.io.File;
 import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.eclipse.jdt.core.dom.ClasspathEnvironment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
@@ -53,11 +60,17 @@ public class JavaAstScanner {
     + " Such files only exist in Java9+ projects.";
 
   private final SonarComponents sonarComponents;
+  private final ClasspathEnvironment classpathEnvironment;
   private VisitorsBridge visitor;
   private boolean reportedMisconfiguredVersion = false;
 
   public JavaAstScanner(@Nullable SonarComponents sonarComponents) {
+    this(sonarComponents, new ClasspathEnvironment());
+  }
+
+  public JavaAstScanner(@Nullable SonarComponents sonarComponents, ClasspathEnvironment classpathEnvironment) {
     this.sonarComponents = sonarComponents;
+    this.classpathEnvironment = classpathEnvironment;
   }
 
   public List<File> getClasspath() {
@@ -72,11 +85,74 @@ public class JavaAstScanner {
    * under the {@code false} key, files that need to be parsed for further analysis.
    */
   public Map<Boolean, List<InputFile>> scanWithoutParsing(Iterable<? extends InputFile> inputFiles) {
+    int threads = sonarComponents == null ? 1 : sonarComponents.getScanWithoutParsingThreads();
+    if (threads > 1) {
+      List<InputFile> files = StreamSupport.stream(inputFiles.spliterator(), false).collect(Collectors.toList());
+      if (files.size() > 1) {
+        return scanWithoutParsing(files, filesCanBeSkipped(files, Math.min(threads, files.size())));
+      }
+      inputFiles = files;
+    }
     return StreamSupport.stream(inputFiles.spliterator(), false)
       // Split files between successfully scanned without parsing and failed to scan without parsing
       .collect(Collectors.partitioningBy(visitor::scanWithoutParsing));
   }
 
+  private Map<Boolean, List<InputFile>> scanWithoutParsing(List<InputFile> files, List<Boolean> filesCanBeSkipped) {
+    Map<Boolean, List<InputFile>> result = new HashMap<>();
+    result.put(true, new ArrayList<>());
+    result.put(false, new ArrayList<>());
+    for (int i = 0; i < files.size(); i++) {
+      InputFile file = files.get(i);
+      result.get(visitor.scanWithoutParsing(file, filesCanBeSkipped.get(i))).add(file);
+    }
+    return result;
+  }
+
+  /**
+   * Looks the files up in the cache of the previous analysis on a pool of threads, as reading the cached hashes and hashing
+   * the contents of the files is the bulk of the work for unchanged files.
+   * The scanners are then run on the analysis thread in the order of the files, as they can collect data from one file to the other.
+   */
+  private List<Boolean> filesCanBeSkipped(List<InputFile> files, int threads) {
+    ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "Java unchanged files lookup");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      List<Future<Boolean>> lookups = new ArrayList<>(files.size());
+      for (InputFile file : files) {
+        lookups.add(executor.submit(() -> sonarComponents.fileCanBeSkipped(file)));
+      }
+      List<Boolean> result = new ArrayList<>(lookups.size());
+      for (Future<Boolean> lookup : lookups) {
+        result.add(awaitLookup(lookup));
+      }
+      return result;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static boolean awaitLookup(Future<Boolean> lookup) {
+    try {
+      return lookup.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AnalysisException("Analysis cancelled", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new AnalysisException("Unable to look up unchanged files", cause);
+    }
+  }
+
   public void scan(Iterable<? extends InputFile> inputFiles) {
     List<? extends InputFile> filesNames = filterModuleInfo(inputFiles).toList();
     AnalysisProgress analysisProgress = new AnalysisProgress(filesNames.size());
@@ -84,7 +160,7 @@ public class JavaAstScanner {
       boolean shouldIgnoreUnnamedModuleForSplitPacakge = sonarComponents != null &&
         sonarComponents.shouldIgnoreUnnamedModuleForSplitPackage();
       JParserConfig.Mode.FILE_BY_FILE
-        .create(visitor.getJavaVersion(), visitor.getClasspath(), shouldIgnoreUnnamedModuleForSplitPacakge)
+        .create(visitor.getJavaVersion(), visitor.getClasspath(), shouldIgnoreUnnamedModuleForSplitPacakge, classpathEnvironment)
         .parse(filesNames,
           this::analysisCancelled,
           analysisProgress,
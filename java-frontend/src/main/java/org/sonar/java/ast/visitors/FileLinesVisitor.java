@@ -67,7 +67,7 @@ import static org.sonar.plugins.java.api.tree.Tree.Kind.WHILE_STATEMENT;
 /**
  * Saves information about lines directly into Sonar by using {@link FileLinesContext}.
  */
-public class FileLinesVisitor extends SubscriptionVisitor {
+public class FileLinesVisitor extends PlatformSubscriptionVisitor {
 
   private final SonarComponents sonarComponents;
   private final Set<Integer> linesOfCode = new HashSet<>();
@@ -89,8 +89,14 @@ public class FileLinesVisitor extends SubscriptionVisitor {
   }
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
-    super.scanFile(context);
+  public void setContext(JavaFileScannerContext context) {
+    super.setContext(context);
+    linesOfCode.clear();
+    executableLines.clear();
+  }
+
+  @Override
+  public void leaveFile(JavaFileScannerContext context) {
     InputFile currentFile = context.getInputFile();
     FileLinesContext fileLinesContext = sonarComponents.fileLinesContextFor(currentFile);
     for (int line = 1; line <= currentFile.lines(); line++) {
@@ -98,9 +104,6 @@ public class FileLinesVisitor extends SubscriptionVisitor {
       fileLinesContext.setIntValue(CoreMetrics.EXECUTABLE_LINES_DATA_KEY, line, executableLines.contains(line) ? 1 : 0);
     }
     fileLinesContext.save();
-
-    linesOfCode.clear();
-    executableLines.clear();
   }
 
   @Override
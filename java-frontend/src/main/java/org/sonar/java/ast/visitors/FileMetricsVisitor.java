@@ -0,0 +1,201 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.ast.visitors;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.sonar.java.ast.api.JavaKeyword;
+import org.sonar.java.model.InternalSyntaxToken;
+import org.sonar.plugins.java.api.tree.CaseLabelTree;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.ForStatementTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.StatementTree;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonar.plugins.java.api.tree.TryStatementTree;
+import org.sonar.plugins.java.api.tree.VariableTree;
+
+/**
+ * Computes in a single walk the metrics of a whole file for which {@link org.sonar.java.metrics.MetricsComputer} needs one walk each:
+ * lines of code ({@link LinesOfCodeVisitor}), comment and NOSONAR lines ({@link CommentLinesVisitor}), statements ({@link StatementVisitor})
+ * and complexity ({@link ComplexityVisitor}). Its callbacks can also be forwarded by a visitor walking the file for other purposes.
+ */
+public class FileMetricsVisitor extends SubscriptionVisitor {
+
+  private static final String DEFAULT_KEYWORD = JavaKeyword.DEFAULT.getValue();
+
+  private final Set<Integer> linesOfCode = new HashSet<>();
+  private final Set<Tree> variableTypes = new HashSet<>();
+  private CommentLinesVisitor commentLinesVisitor = new CommentLinesVisitor();
+  private int statements;
+  private int complexity;
+
+  @Override
+  public List<Tree.Kind> nodesToVisit() {
+    return Arrays.asList(Tree.Kind.TOKEN,
+      Tree.Kind.CLASS, Tree.Kind.ENUM, Tree.Kind.INTERFACE, Tree.Kind.ANNOTATION_TYPE, Tree.Kind.RECORD,
+      Tree.Kind.METHOD, Tree.Kind.CONSTRUCTOR, Tree.Kind.LAMBDA_EXPRESSION, Tree.Kind.VARIABLE,
+      Tree.Kind.CASE_LABEL, Tree.Kind.CONDITIONAL_EXPRESSION, Tree.Kind.CONDITIONAL_AND, Tree.Kind.CONDITIONAL_OR,
+      Tree.Kind.EMPTY_STATEMENT, Tree.Kind.EXPRESSION_STATEMENT, Tree.Kind.IF_STATEMENT, Tree.Kind.ASSERT_STATEMENT, Tree.Kind.SWITCH_STATEMENT,
+      Tree.Kind.WHILE_STATEMENT, Tree.Kind.DO_STATEMENT, Tree.Kind.FOR_STATEMENT, Tree.Kind.FOR_EACH_STATEMENT,
+      Tree.Kind.BREAK_STATEMENT, Tree.Kind.CONTINUE_STATEMENT, Tree.Kind.RETURN_STATEMENT, Tree.Kind.THROW_STATEMENT,
+      Tree.Kind.SYNCHRONIZED_STATEMENT, Tree.Kind.TRY_STATEMENT);
+  }
+
+  public void analyze(CompilationUnitTree tree) {
+    clear();
+    scanTree(tree);
+  }
+
+  /**
+   * Forgets the metrics of the previous file, before the trees of another one are visited.
+   */
+  public void clear() {
+    linesOfCode.clear();
+    variableTypes.clear();
+    // a new instance, as the NOSONAR lines of the previous file are handed over
+    commentLinesVisitor = new CommentLinesVisitor();
+    statements = 0;
+    complexity = 0;
+  }
+
+  @Override
+  public void visitNode(Tree tree) {
+    switch (tree.kind()) {
+      case METHOD,
+        CONSTRUCTOR:
+        if (((MethodTree) tree).block() != null) {
+          complexity++;
+        }
+        break;
+      case VARIABLE:
+        variableTypes.add(((VariableTree) tree).type());
+        break;
+      case CASE_LABEL:
+        // default keyword does not count in complexity
+        if (!DEFAULT_KEYWORD.equals(((CaseLabelTree) tree).caseOrDefaultKeyword().text())) {
+          complexity++;
+        }
+        break;
+      case LAMBDA_EXPRESSION,
+        CONDITIONAL_EXPRESSION,
+        CONDITIONAL_AND,
+        CONDITIONAL_OR:
+        complexity++;
+        break;
+      case IF_STATEMENT,
+        WHILE_STATEMENT,
+        DO_STATEMENT,
+        FOR_STATEMENT,
+        FOR_EACH_STATEMENT:
+        complexity++;
+        statements++;
+        break;
+      case TRY_STATEMENT:
+        TryStatementTree tryStatementTree = (TryStatementTree) tree;
+        statements += 1 - tryStatementTree.resourceList().size() - tryStatementTree.catches().size();
+        break;
+      case EMPTY_STATEMENT,
+        EXPRESSION_STATEMENT,
+        ASSERT_STATEMENT,
+        SWITCH_STATEMENT,
+        BREAK_STATEMENT,
+        CONTINUE_STATEMENT,
+        RETURN_STATEMENT,
+        THROW_STATEMENT,
+        SYNCHRONIZED_STATEMENT:
+        statements++;
+        break;
+      default:
+        // variables of classes are only forgotten when leaving them
+        break;
+    }
+  }
+
+  @Override
+  public void leaveNode(Tree tree) {
+    switch (tree.kind()) {
+      case METHOD,
+        CONSTRUCTOR:
+        ((MethodTree) tree).parameters().forEach(parameter -> variableTypes.remove(parameter.type()));
+        break;
+      case CLASS,
+        ENUM,
+        INTERFACE,
+        ANNOTATION_TYPE,
+        RECORD:
+        for (Tree member : ((ClassTree) tree).members()) {
+          if (member.is(Tree.Kind.VARIABLE)) {
+            variableTypes.remove(((VariableTree) member).type());
+          }
+        }
+        break;
+      case FOR_STATEMENT:
+        ForStatementTree forStatementTree = (ForStatementTree) tree;
+        removeVariables(forStatementTree.initializer());
+        removeVariables(forStatementTree.update());
+        break;
+      default:
+        // nothing to forget
+        break;
+    }
+  }
+
+  private void removeVariables(List<StatementTree> statementTrees) {
+    for (StatementTree statementTree : statementTrees) {
+      if (statementTree.is(Tree.Kind.VARIABLE)) {
+        variableTypes.remove(((VariableTree) statementTree).type());
+      } else {
+        statements--;
+      }
+    }
+  }
+
+  @Override
+  public void visitToken(SyntaxToken syntaxToken) {
+    if (!((InternalSyntaxToken) syntaxToken).isEOF()) {
+      linesOfCode.add(syntaxToken.line());
+    }
+    commentLinesVisitor.visitToken(syntaxToken);
+  }
+
+  public int linesOfCode() {
+    return linesOfCode.size();
+  }
+
+  public int commentLines() {
+    return commentLinesVisitor.commentLinesMetric();
+  }
+
+  public Set<Integer> noSonarLines() {
+    return commentLinesVisitor.noSonarLines();
+  }
+
+  public int statements() {
+    // a declaration of several variables sharing the same type is a single statement
+    return statements + variableTypes.size();
+  }
+
+  public int complexity() {
+    return complexity;
+  }
+
+}
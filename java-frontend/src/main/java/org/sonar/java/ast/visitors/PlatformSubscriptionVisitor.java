@@ -0,0 +1,35 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.ast.visitors;
+
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+
+/**
+ * Subscription visitor feeding the platform with data about a file (measures, lines, highlighting, symbols) instead of raising issues.
+ * The {@link org.sonar.java.model.VisitorsBridge} runs all of them in a single walk of the tree: a visitor has to prepare the file in
+ * {@link #setContext(JavaFileScannerContext)} and save its data in {@link #leaveFile(JavaFileScannerContext)}.
+ */
+public abstract class PlatformSubscriptionVisitor extends SubscriptionVisitor {
+
+  @Override
+  public void scanFile(JavaFileScannerContext context) {
+    setContext(context);
+    scanTree(context.getTree());
+    leaveFile(context);
+  }
+
+}
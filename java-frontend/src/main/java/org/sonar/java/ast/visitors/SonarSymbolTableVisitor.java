@@ -16,48 +16,106 @@
  */
 package org.sonar.java.ast.visitors;
 
+import java.util.Arrays;
 import java.util.List;
+import javax.annotation.Nullable;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.symbol.NewSymbol;
 import org.sonar.api.batch.sensor.symbol.NewSymbolTable;
+import org.sonar.java.SonarComponents;
+import org.sonar.java.model.GeneratedFile;
 import org.sonar.java.model.declaration.VariableTreeImpl;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.semantic.Symbol;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ClassTree;
-import org.sonar.plugins.java.api.tree.CompilationUnitTree;
-import org.sonar.plugins.java.api.tree.EnumConstantTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
 import org.sonar.plugins.java.api.tree.ImportTree;
 import org.sonar.plugins.java.api.tree.LabeledStatementTree;
 import org.sonar.plugins.java.api.tree.MemberSelectExpressionTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
-import org.sonar.plugins.java.api.location.Range;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TypeParameterTree;
 import org.sonar.plugins.java.api.tree.VariableTree;
 
-public class SonarSymbolTableVisitor extends BaseTreeVisitor {
+public class SonarSymbolTableVisitor extends PlatformSubscriptionVisitor {
 
-  private final NewSymbolTable newSymbolTable;
-  private CompilationUnitTree outerClass;
+  private final SonarComponents sonarComponents;
+  @Nullable
+  private NewSymbolTable newSymbolTable;
 
-  public SonarSymbolTableVisitor(NewSymbolTable newSymbolTable) {
-    this.newSymbolTable = newSymbolTable;
+  public SonarSymbolTableVisitor(SonarComponents sonarComponents) {
+    this.sonarComponents = sonarComponents;
   }
 
   @Override
-  public void visitCompilationUnit(CompilationUnitTree tree) {
-    if (outerClass == null) {
-      outerClass = tree;
+  public List<Tree.Kind> nodesToVisit() {
+    return Arrays.asList(
+      Tree.Kind.CLASS, Tree.Kind.ENUM, Tree.Kind.INTERFACE, Tree.Kind.ANNOTATION_TYPE, Tree.Kind.RECORD,
+      Tree.Kind.VARIABLE, Tree.Kind.ENUM_CONSTANT,
+      Tree.Kind.METHOD, Tree.Kind.CONSTRUCTOR,
+      Tree.Kind.LABELED_STATEMENT,
+      Tree.Kind.IMPORT);
+  }
+
+  @Override
+  public void setContext(JavaFileScannerContext context) {
+    super.setContext(context);
+    InputFile inputFile = context.getInputFile();
+    if (!context.fileParsed()
+      || sonarComponents.isSonarLintContext()
+      // don't provide semantic data (symbol highlighting) to SQ for generated files (jsp)
+      || inputFile instanceof GeneratedFile) {
+      newSymbolTable = null;
+    } else {
+      newSymbolTable = sonarComponents.symbolizableFor(inputFile);
     }
-    super.visitCompilationUnit(tree);
+  }
 
-    if (tree.equals(outerClass)) {
+  @Override
+  public void leaveFile(JavaFileScannerContext context) {
+    if (newSymbolTable != null) {
       newSymbolTable.save();
+      newSymbolTable = null;
     }
   }
 
   @Override
-  public void visitClass(ClassTree tree) {
+  public void visitNode(Tree tree) {
+    if (newSymbolTable == null) {
+      return;
+    }
+    switch (tree.kind()) {
+      case CLASS,
+        ENUM,
+        INTERFACE,
+        ANNOTATION_TYPE,
+        RECORD:
+        visitClass((ClassTree) tree);
+        break;
+      case VARIABLE:
+        VariableTree variableTree = (VariableTree) tree;
+        createSymbol(variableTree.simpleName(), variableTree.symbol().usages());
+        break;
+      case ENUM_CONSTANT:
+        VariableTreeImpl enumConstant = (VariableTreeImpl) tree;
+        createSymbol(enumConstant.simpleName(), enumConstant.symbol().usages());
+        break;
+      case METHOD,
+        CONSTRUCTOR:
+        visitMethod((MethodTree) tree);
+        break;
+      case LABELED_STATEMENT:
+        LabeledStatementTree labeledStatementTree = (LabeledStatementTree) tree;
+        createSymbol(labeledStatementTree.label(), labeledStatementTree.symbol().usages());
+        break;
+      default:
+        visitImport((ImportTree) tree);
+        break;
+    }
+  }
+
+  private void visitClass(ClassTree tree) {
     IdentifierTree simpleName = tree.simpleName();
     if (simpleName != null) {
       createSymbol(simpleName, tree.symbol().usages());
@@ -65,39 +123,17 @@ public class SonarSymbolTableVisitor extends BaseTreeVisitor {
     for (TypeParameterTree typeParameterTree : tree.typeParameters()) {
       createSymbol(typeParameterTree.identifier(), typeParameterTree.symbol().usages());
     }
-    super.visitClass(tree);
   }
 
-  @Override
-  public void visitVariable(VariableTree tree) {
-    createSymbol(tree.simpleName(), tree.symbol().usages());
-    super.visitVariable(tree);
-  }
-
-  @Override
-  public void visitEnumConstant(EnumConstantTree tree) {
-    createSymbol(tree.simpleName(), ((VariableTreeImpl) tree).symbol().usages());
-    super.visitEnumConstant(tree);
-  }
-
-  @Override
-  public void visitMethod(MethodTree tree) {
+  private void visitMethod(MethodTree tree) {
     List<IdentifierTree> usages = tree.symbol().usages();
     createSymbol(tree.simpleName(), usages);
     for (TypeParameterTree typeParameterTree : tree.typeParameters()) {
       createSymbol(typeParameterTree.identifier(), typeParameterTree.symbol().usages());
     }
-    super.visitMethod(tree);
   }
 
-  @Override
-  public void visitLabeledStatement(LabeledStatementTree tree) {
-    createSymbol(tree.label(), tree.symbol().usages());
-    super.visitLabeledStatement(tree);
-  }
-
-  @Override
-  public void visitImport(ImportTree tree) {
+  private void visitImport(ImportTree tree) {
     IdentifierTree identifierTree;
     if (tree.qualifiedIdentifier().is(Tree.Kind.IDENTIFIER)) {
       identifierTree = (IdentifierTree) tree.qualifiedIdentifier();
@@ -111,19 +147,17 @@ public class SonarSymbolTableVisitor extends BaseTreeVisitor {
         createSymbol(identifierTree, symbol.usages());
       }
     }
-    super.visitImport(tree);
   }
 
+  /**
+   * Identifiers never span several lines: their bounds are taken from their token without computing its range.
+   */
   private void createSymbol(IdentifierTree declaration, List<IdentifierTree> usages) {
-    Range range = declaration.identifierToken().range();
-    NewSymbol newSymbol = newSymbolTable.newSymbol(
-      range.start().line(), range.start().columnOffset(),
-      range.end().line(), range.end().columnOffset());
+    SyntaxToken token = declaration.identifierToken();
+    NewSymbol newSymbol = newSymbolTable.newSymbol(token.line(), token.column(), token.line(), token.column() + token.text().length());
     for (IdentifierTree usage : usages) {
-      range = usage.identifierToken().range();
-      newSymbol.newReference(
-        range.start().line(), range.start().columnOffset(),
-        range.end().line(), range.end().columnOffset());
+      token = usage.identifierToken();
+      newSymbol.newReference(token.line(), token.column(), token.line(), token.column() + token.text().length());
     }
   }
 
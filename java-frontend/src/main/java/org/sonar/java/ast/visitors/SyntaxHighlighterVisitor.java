@@ -28,6 +28,7 @@ import java.util.stream.Collectors;
 import org.sonar.api.batch.sensor.highlighting.NewHighlighting;
 import org.sonar.api.batch.sensor.highlighting.TypeOfText;
 import org.sonar.java.SonarComponents;
+import org.sonar.java.annotations.ThreadSafeVisitor;
 import org.sonar.java.ast.api.JavaKeyword;
 import org.sonar.java.ast.api.JavaRestrictedKeyword;
 import org.sonar.java.model.ModifiersUtils;
@@ -44,7 +45,8 @@ import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.YieldStatementTree;
 
-public class SyntaxHighlighterVisitor extends SubscriptionVisitor {
+@ThreadSafeVisitor
+public class SyntaxHighlighterVisitor extends PlatformSubscriptionVisitor {
 
   private final SonarComponents sonarComponents;
   private final Map<Tree.Kind, TypeOfText> typesByKind;
@@ -95,11 +97,14 @@ public class SyntaxHighlighterVisitor extends SubscriptionVisitor {
   }
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  public void setContext(JavaFileScannerContext context) {
+    super.setContext(context);
     highlighting = sonarComponents.highlightableFor(context.getInputFile());
+    withinModule = false;
+  }
 
-    super.scanFile(context);
-
+  @Override
+  public void leaveFile(JavaFileScannerContext context) {
     highlighting.save();
   }
 
@@ -152,13 +157,19 @@ public class SyntaxHighlighterVisitor extends SubscriptionVisitor {
     highlight(tree, tree, typeOfText);
   }
 
+  /**
+   * Only text blocks span several lines: the bounds of the other tokens are taken from the tokens without computing their range.
+   */
   private void highlight(Tree from, Tree to, TypeOfText typeOfText) {
-    Position first = Position.startOf(from);
-    Position last = Position.endOf(to);
-    highlighting.highlight(
-      first.line(), first.columnOffset(),
-      last.line(), last.columnOffset(),
-      typeOfText);
+    SyntaxToken firstToken = from.firstToken();
+    SyntaxToken lastToken = to.lastToken();
+    String lastText = lastToken.text();
+    if (lastText.startsWith("\"\"\"")) {
+      Position last = Position.endOf(lastToken);
+      highlighting.highlight(firstToken.line(), firstToken.column(), last.line(), last.columnOffset(), typeOfText);
+    } else {
+      highlighting.highlight(firstToken.line(), firstToken.column(), lastToken.line(), lastToken.column() + lastText.length(), typeOfText);
+    }
   }
 
   @Override
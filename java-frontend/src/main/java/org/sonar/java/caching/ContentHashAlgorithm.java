@@ -0,0 +1,68 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.config.Configuration;
+
+/**
+ * Algorithms available to compute the content hashes of the files, stored in the cache under a key depending on the algorithm.
+ */
+public enum ContentHashAlgorithm {
+  /**
+   * Historical algorithm, the default one.
+   */
+  MD5,
+  /**
+   * Faster non-cryptographic algorithm, good enough to detect changes of files.
+   */
+  XXH64;
+
+  /**
+   * Algorithm used to compute the content hashes, {@code MD5} by default. When it is changed, the hashes cached with
+   * {@code MD5} by the previous analysis are still used to detect unchanged files.
+   */
+  public static final String CONTENT_HASH_ALGORITHM_KEY = "sonar.java.caching.contentHashAlgorithm";
+
+  private static final Logger LOG = LoggerFactory.getLogger(ContentHashAlgorithm.class);
+
+  public String cacheKeyPrefix() {
+    return "java:contentHash:" + name() + ":";
+  }
+
+  public ContentHasher newHasher() throws NoSuchAlgorithmException {
+    return this == XXH64 ? ContentHasher.xxHash64() : ContentHasher.messageDigest(name());
+  }
+
+  public static ContentHashAlgorithm fromConfiguration(Configuration configuration) {
+    return configuration.get(CONTENT_HASH_ALGORITHM_KEY)
+      .map(String::trim)
+      .map(value -> Arrays.stream(values())
+        .filter(algorithm -> algorithm.name().equals(value.toUpperCase(Locale.ROOT)))
+        .findFirst()
+        .orElseGet(() -> {
+          LOG.warn("Unsupported value '{}' for property '{}', using {}.", value, CONTENT_HASH_ALGORITHM_KEY, MD5);
+          return MD5;
+        }))
+      .orElse(MD5);
+  }
+
+}
@@ -29,12 +29,20 @@ import org.sonar.java.SonarComponents;
 public class ContentHashCache {
 
   private static final Logger LOG = LoggerFactory.getLogger(ContentHashCache.class);
-  private static final String CONTENT_HASH_KEY = String.format("java:contentHash:%s:", FileHashingUtils.HASH_ALGORITHM);
   private static final String HASH_COMPUTE_FAIL_MSG = "Failed to compute content hash for file %s";
 
   private ReadCache readCache;
+  /**
+   * Writes are synchronized on the write cache, as the files can be looked up by several threads and the implementations
+   * of the cache are not thread-safe.
+   */
   private WriteCache writeCache;
   private final boolean enabled;
+  private ContentHashAlgorithm algorithm = ContentHashAlgorithm.MD5;
+  /**
+   * Hashers are reused from one file to the other, one per thread as they are not thread-safe.
+   */
+  private final ThreadLocal<ContentHasher> hashers = new ThreadLocal<>();
 
   public ContentHashCache(SonarComponents sonarComponents) {
     CacheContextImpl cacheContext = CacheContextImpl.of(sonarComponents);
@@ -44,6 +52,7 @@ public class ContentHashCache {
     if (enabled) {
       readCache = sensorContext.previousCache();
       writeCache = sensorContext.nextCache();
+      algorithm = ContentHashAlgorithm.fromConfiguration(sensorContext.config());
     }
   }
 
@@ -60,7 +69,7 @@ public class ContentHashCache {
     try {
       LOG.trace("Reading cache for the file {}", inputFile.key());
       byte[] cachedHash = readCache.read(cacheKey).readAllBytes();
-      byte[] fileHash = FileHashingUtils.inputFileContentHash(inputFile);
+      byte[] fileHash = contentHash(inputFile);
       boolean isHashEqual = MessageDigest.isEqual(fileHash, cachedHash);
       if (isHashEqual) {
         copyFromPrevious(inputFile);
@@ -70,7 +79,9 @@ public class ContentHashCache {
       return isHashEqual;
     } catch (IllegalArgumentException e) {
       LOG.trace(String.format("Could not find key %s in the cache", cacheKey));
+      boolean isMD5HashEqual = hasSameMD5HashCached(inputFile);
       writeToCache(inputFile);
+      return isMD5HashEqual;
     } catch (IOException | NoSuchAlgorithmException e) {
       LOG.warn(String.format(HASH_COMPUTE_FAIL_MSG, inputFile.key()));
     }
@@ -93,7 +104,10 @@ public class ContentHashCache {
     LOG.trace("Writing to the cache for file {}", inputFile.key());
     String cacheKey = getCacheKey(inputFile);
     try {
-      writeCache.write(cacheKey, FileHashingUtils.inputFileContentHash(inputFile));
+      byte[] hash = contentHash(inputFile);
+      synchronized (writeCache) {
+        writeCache.write(cacheKey, hash);
+      }
       return true;
     } catch (IllegalArgumentException e) {
       LOG.trace(String.format("Tried to write multiple times to cache key %s. Ignoring writes after the first.", cacheKey));
@@ -103,12 +117,41 @@ public class ContentHashCache {
     return false;
   }
 
+  /**
+   * Migration path when the algorithm is changed: the previous analysis cached the hashes computed with MD5.
+   */
+  private boolean hasSameMD5HashCached(InputFile inputFile) {
+    String md5CacheKey = ContentHashAlgorithm.MD5.cacheKeyPrefix() + inputFile.key();
+    if (algorithm == ContentHashAlgorithm.MD5 || !readCache.contains(md5CacheKey)) {
+      return false;
+    }
+    LOG.trace("Comparing with the MD5 hash cached for the file {}", inputFile.key());
+    try {
+      byte[] cachedHash = readCache.read(md5CacheKey).readAllBytes();
+      return MessageDigest.isEqual(FileHashingUtils.inputFileContentHash(inputFile), cachedHash);
+    } catch (IllegalArgumentException | IOException | NoSuchAlgorithmException e) {
+      LOG.warn(String.format(HASH_COMPUTE_FAIL_MSG, inputFile.key()));
+      return false;
+    }
+  }
+
+  private byte[] contentHash(InputFile inputFile) throws IOException, NoSuchAlgorithmException {
+    ContentHasher hasher = hashers.get();
+    if (hasher == null) {
+      hasher = algorithm.newHasher();
+      hashers.set(hasher);
+    }
+    return hasher.hash(inputFile);
+  }
+
   private void copyFromPrevious(InputFile inputFile) {
     LOG.trace("Copying cache from previous for file {}", inputFile.key());
-    writeCache.copyFromPrevious(getCacheKey(inputFile));
+    synchronized (writeCache) {
+      writeCache.copyFromPrevious(getCacheKey(inputFile));
+    }
   }
 
-  private static String getCacheKey(InputFile inputFile) {
-    return CONTENT_HASH_KEY + inputFile.key();
+  private String getCacheKey(InputFile inputFile) {
+    return algorithm.cacheKeyPrefix() + inputFile.key();
   }
 }
@@ -0,0 +1,123 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import org.sonar.api.batch.fs.InputFile;
+
+/**
+ * Computes content hashes by streaming bytes through a reusable buffer, without decoding the content into a String.
+ * An instance is not thread-safe, but can be reused for any number of files.
+ */
+public abstract class ContentHasher {
+
+  private static final int BUFFER_SIZE = 16 * 1024;
+
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+
+  /**
+   * Hashes the content of the input file encoded in UTF-8, without byte order mark, and taking into account contents which are
+   * only in memory. The bytes of a UTF-8 file are streamed as provided by {@link InputFile#inputStream()}, while the content of
+   * a file using another charset is decoded and re-encoded, so that its hash, used as cache key, does not depend on how it is
+   * computed. Only malformed UTF-8 content, which a decoding would have replaced, gets another hash than the decoded content.
+   */
+  public byte[] hash(InputFile inputFile) throws IOException {
+    reset();
+    if (!StandardCharsets.UTF_8.equals(inputFile.charset())) {
+      byte[] contentBytes = inputFile.contents().getBytes(StandardCharsets.UTF_8);
+      update(contentBytes, 0, contentBytes.length);
+      return digest();
+    }
+    try (InputStream inputStream = inputFile.inputStream()) {
+      int read;
+      while ((read = inputStream.read(buffer)) != -1) {
+        update(buffer, 0, read);
+      }
+    }
+    return digest();
+  }
+
+  /**
+   * Hashes the bytes of the file, which are expected to be encoded in UTF-8.
+   */
+  public byte[] hash(Path path) throws IOException {
+    reset();
+    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      while (channel.read(byteBuffer) != -1) {
+        update(buffer, 0, byteBuffer.position());
+        byteBuffer.clear();
+      }
+    }
+    return digest();
+  }
+
+  protected abstract void reset();
+
+  protected abstract void update(byte[] bytes, int offset, int length);
+
+  protected abstract byte[] digest();
+
+  static ContentHasher messageDigest(String algorithm) throws NoSuchAlgorithmException {
+    MessageDigest messageDigest = MessageDigest.getInstance(algorithm);
+    return new ContentHasher() {
+      @Override
+      protected void reset() {
+        messageDigest.reset();
+      }
+
+      @Override
+      protected void update(byte[] bytes, int offset, int length) {
+        messageDigest.update(bytes, offset, length);
+      }
+
+      @Override
+      protected byte[] digest() {
+        return messageDigest.digest();
+      }
+    };
+  }
+
+  static ContentHasher xxHash64() {
+    XxHash64 xxHash64 = new XxHash64();
+    return new ContentHasher() {
+      @Override
+      protected void reset() {
+        xxHash64.reset();
+      }
+
+      @Override
+      protected void update(byte[] bytes, int offset, int length) {
+        xxHash64.update(bytes, offset, length);
+      }
+
+      @Override
+      protected byte[] digest() {
+        return ByteBuffer.allocate(Long.BYTES).putLong(xxHash64.digest()).array();
+      }
+    };
+  }
+
+}
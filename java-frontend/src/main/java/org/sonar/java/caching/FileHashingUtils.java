@@ -16,16 +16,10 @@
  */
 package org.sonar.java.caching;
 
-import org.sonar.api.batch.fs.InputFile;
-
-import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.security.MessageDigest;
+import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
-
-import static java.nio.charset.StandardCharsets.UTF_8;
+import org.sonar.api.batch.fs.InputFile;
 
 public class FileHashingUtils {
 
@@ -35,16 +29,11 @@ public class FileHashingUtils {
   public static final String HASH_ALGORITHM = "MD5";
 
   public static byte[] inputFileContentHash(InputFile inputFile) throws IOException, NoSuchAlgorithmException {
-    byte[] contentBytes = inputFile.contents().getBytes(StandardCharsets.UTF_8);
-    MessageDigest messageDigest = MessageDigest.getInstance(HASH_ALGORITHM);
-    return messageDigest.digest(contentBytes);
+    return ContentHashAlgorithm.MD5.newHasher().hash(inputFile);
   }
 
   public static byte[] inputFileContentHash(String filepath) throws IOException, NoSuchAlgorithmException {
-    File file = new File(filepath);
-    String contents = new String(Files.readAllBytes(file.toPath()), UTF_8);
-    MessageDigest messageDigest = MessageDigest.getInstance(HASH_ALGORITHM);
-    return messageDigest.digest(contents.getBytes(UTF_8));
+    return ContentHashAlgorithm.MD5.newHasher().hash(Paths.get(filepath));
   }
 
 }
@@ -0,0 +1,135 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Streaming implementation of the XXH64 non-cryptographic hash function, with a seed of 0.
+ * See <a href="https://github.com/Cyan4973/xxHash/blob/dev/doc/xxhash_spec.md">the specification</a>.
+ */
+final class XxHash64 {
+
+  private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+  private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+  private static final long PRIME_3 = 0x165667B19E3779F9L;
+  private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+  private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+
+  private static final int STRIPE_LENGTH = 32;
+
+  private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+  private final byte[] pending = new byte[STRIPE_LENGTH];
+  private int pendingLength;
+  private long totalLength;
+  private long acc1;
+  private long acc2;
+  private long acc3;
+  private long acc4;
+
+  XxHash64() {
+    reset();
+  }
+
+  void reset() {
+    acc1 = PRIME_1 + PRIME_2;
+    acc2 = PRIME_2;
+    acc3 = 0L;
+    acc4 = -PRIME_1;
+    totalLength = 0L;
+    pendingLength = 0;
+  }
+
+  void update(byte[] bytes, int offset, int length) {
+    totalLength += length;
+    int position = offset;
+    int end = offset + length;
+    if (pendingLength > 0) {
+      int missing = Math.min(STRIPE_LENGTH - pendingLength, length);
+      System.arraycopy(bytes, position, pending, pendingLength, missing);
+      pendingLength += missing;
+      position += missing;
+      if (pendingLength < STRIPE_LENGTH) {
+        return;
+      }
+      consumeStripe(pending, 0);
+      pendingLength = 0;
+    }
+    while (end - position >= STRIPE_LENGTH) {
+      consumeStripe(bytes, position);
+      position += STRIPE_LENGTH;
+    }
+    pendingLength = end - position;
+    System.arraycopy(bytes, position, pending, 0, pendingLength);
+  }
+
+  long digest() {
+    long hash;
+    if (totalLength >= STRIPE_LENGTH) {
+      hash = Long.rotateLeft(acc1, 1) + Long.rotateLeft(acc2, 7) + Long.rotateLeft(acc3, 12) + Long.rotateLeft(acc4, 18);
+      hash = mergeAccumulator(hash, acc1);
+      hash = mergeAccumulator(hash, acc2);
+      hash = mergeAccumulator(hash, acc3);
+      hash = mergeAccumulator(hash, acc4);
+    } else {
+      hash = PRIME_5;
+    }
+    hash += totalLength;
+
+    int position = 0;
+    for (; position + Long.BYTES <= pendingLength; position += Long.BYTES) {
+      hash ^= round(0L, (long) LONG_LE.get(pending, position));
+      hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_4;
+    }
+    if (position + Integer.BYTES <= pendingLength) {
+      hash ^= (((int) INT_LE.get(pending, position)) & 0xFFFFFFFFL) * PRIME_1;
+      hash = Long.rotateLeft(hash, 23) * PRIME_2 + PRIME_3;
+      position += Integer.BYTES;
+    }
+    for (; position < pendingLength; position++) {
+      hash ^= (pending[position] & 0xFFL) * PRIME_5;
+      hash = Long.rotateLeft(hash, 11) * PRIME_1;
+    }
+
+    hash ^= hash >>> 33;
+    hash *= PRIME_2;
+    hash ^= hash >>> 29;
+    hash *= PRIME_3;
+    hash ^= hash >>> 32;
+    return hash;
+  }
+
+  private void consumeStripe(byte[] bytes, int offset) {
+    acc1 = round(acc1, (long) LONG_LE.get(bytes, offset));
+    acc2 = round(acc2, (long) LONG_LE.get(bytes, offset + 8));
+    acc3 = round(acc3, (long) LONG_LE.get(bytes, offset + 16));
+    acc4 = round(acc4, (long) LONG_LE.get(bytes, offset + 24));
+  }
+
+  private static long round(long accumulator, long lane) {
+    return Long.rotateLeft(accumulator + lane * PRIME_2, 31) * PRIME_1;
+  }
+
+  private static long mergeAccumulator(long hash, long accumulator) {
+    return (hash ^ round(0L, accumulator)) * PRIME_1 + PRIME_4;
+  }
+
+}
@@ -113,6 +113,9 @@ public class CFG implements ControlFlowGraph {
   private final Deque<Boolean> enclosedByCatch = new LinkedList<>();
   private final TryStatement outerTry;
 
+  private LiveVariables liveVariables;
+  private LiveVariables liveVariablesWithFields;
+
   private static class TryStatement {
     Map<Type, Block> catches = new LinkedHashMap<>();
     List<Block> runtimeCatches = new ArrayList<>();
@@ -219,6 +222,19 @@ public class CFG implements ControlFlowGraph {
     return blocks;
   }
 
+  LiveVariables liveVariables(boolean includeFields) {
+    if (includeFields) {
+      if (liveVariablesWithFields == null) {
+        liveVariablesWithFields = LiveVariables.compute(this, true);
+      }
+      return liveVariablesWithFields;
+    }
+    if (liveVariables == null) {
+      liveVariables = LiveVariables.compute(this, false);
+    }
+    return liveVariables;
+  }
+
   public interface IBlock<T> {
     int id();
     List<T> elements();
@@ -0,0 +1,299 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.cfg;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.java.api.semantic.Symbol;
+
+/**
+ * Iterative dataflow analysis over the blocks of a control flow graph. Facts are numbered and stored as bits of {@link BitSet}s,
+ * and the blocks are processed in reverse post-order (post-order for backward analyses) until no facts change.
+ * Exceptional edges are followed like the other edges.
+ */
+public final class DataFlow {
+
+  public enum Direction {
+    FORWARD,
+    BACKWARD
+  }
+
+  public enum Meet {
+    /**
+     * Facts holding on at least one path, like liveness or reaching definitions.
+     */
+    UNION,
+    /**
+     * Facts holding on every path, like definite assignment.
+     */
+    INTERSECTION
+  }
+
+  /**
+   * Computes the facts at the end of a block, in the direction of the analysis, from the facts at its start.
+   */
+  @FunctionalInterface
+  public interface Transfer {
+    /**
+     * @param facts the facts at the start of the block, to be updated in place
+     */
+    void apply(ControlFlowGraph.Block block, BitSet facts);
+  }
+
+  private DataFlow() {
+  }
+
+  /**
+   * @return the transfer function removing the facts killed by a block and adding the ones it generates, a block missing from the maps
+   * neither generating nor killing facts
+   */
+  public static Transfer genKill(Map<? extends ControlFlowGraph.Block, BitSet> gen, Map<? extends ControlFlowGraph.Block, BitSet> kill) {
+    return (block, facts) -> {
+      BitSet blockKill = kill.get(block);
+      if (blockKill != null) {
+        facts.andNot(blockKill);
+      }
+      BitSet blockGen = gen.get(block);
+      if (blockGen != null) {
+        facts.or(blockGen);
+      }
+    };
+  }
+
+  public static Result analyze(ControlFlowGraph cfg, Direction direction, Meet meet, Transfer transfer) {
+    List<ControlFlowGraph.Block> order = order(cfg, direction);
+    Map<ControlFlowGraph.Block, Integer> positions = new HashMap<>();
+    for (int i = 0; i < order.size(); i++) {
+      positions.put(order.get(i), i);
+    }
+    BitSet[] start = new BitSet[order.size()];
+    BitSet[] end = new BitSet[order.size()];
+    ControlFlowGraph.Block boundary = direction == Direction.FORWARD ? cfg.entryBlock() : cfg.exitBlock();
+    BitSet workList = new BitSet(order.size());
+    workList.set(0, order.size());
+    for (int position = workList.nextSetBit(0); position >= 0; position = workList.nextSetBit(0)) {
+      workList.clear(position);
+      ControlFlowGraph.Block block = order.get(position);
+      BitSet facts = meet(meet, sources(block, direction), positions, end);
+      if (meet == Meet.INTERSECTION && block == boundary) {
+        // nothing holds on the path coming from outside of the graph, even when the boundary block is part of a loop
+        facts.clear();
+      }
+      start[position] = (BitSet) facts.clone();
+      transfer.apply(block, facts);
+      if (!facts.equals(end[position])) {
+        end[position] = facts;
+        for (ControlFlowGraph.Block dependent : dependents(block, direction)) {
+          Integer dependentPosition = positions.get(dependent);
+          if (dependentPosition != null) {
+            workList.set(dependentPosition);
+          }
+        }
+      }
+    }
+    return direction == Direction.FORWARD ? new Result(positions, start, end) : new Result(positions, end, start);
+  }
+
+  /**
+   * Neighbours whose facts are not computed yet are ignored, which for an intersection is the same as starting from all the facts.
+   */
+  private static BitSet meet(Meet meet, Collection<? extends ControlFlowGraph.Block> sources, Map<ControlFlowGraph.Block, Integer> positions, BitSet[] end) {
+    BitSet facts = null;
+    for (ControlFlowGraph.Block source : sources) {
+      Integer sourcePosition = positions.get(source);
+      BitSet sourceFacts = sourcePosition == null ? null : end[sourcePosition];
+      if (sourceFacts == null) {
+        continue;
+      }
+      if (facts == null) {
+        facts = (BitSet) sourceFacts.clone();
+      } else if (meet == Meet.UNION) {
+        facts.or(sourceFacts);
+      } else {
+        facts.and(sourceFacts);
+      }
+    }
+    return facts == null ? new BitSet() : facts;
+  }
+
+  private static Collection<? extends ControlFlowGraph.Block> sources(ControlFlowGraph.Block block, Direction direction) {
+    return direction == Direction.FORWARD ? block.predecessors() : successorsAndExceptions(block);
+  }
+
+  private static Collection<? extends ControlFlowGraph.Block> dependents(ControlFlowGraph.Block block, Direction direction) {
+    return direction == Direction.FORWARD ? successorsAndExceptions(block) : block.predecessors();
+  }
+
+  private static Collection<? extends ControlFlowGraph.Block> successorsAndExceptions(ControlFlowGraph.Block block) {
+    Set<? extends ControlFlowGraph.Block> exceptions = block.exceptions();
+    if (exceptions.isEmpty()) {
+      return block.successors();
+    }
+    Set<ControlFlowGraph.Block> successors = new HashSet<>(block.successors());
+    successors.addAll(exceptions);
+    return successors;
+  }
+
+  /**
+   * Reverse post-order of the blocks reachable from the entry block for forward analyses, post-order for backward ones, followed by
+   * the unreachable blocks, so that most blocks are processed after the blocks their facts come from.
+   */
+  private static List<ControlFlowGraph.Block> order(ControlFlowGraph cfg, Direction direction) {
+    List<ControlFlowGraph.Block> postOrder = new ArrayList<>();
+    Set<ControlFlowGraph.Block> visited = new HashSet<>();
+    Deque<Iterator<? extends ControlFlowGraph.Block>> stack = new ArrayDeque<>();
+    Deque<ControlFlowGraph.Block> path = new ArrayDeque<>();
+    ControlFlowGraph.Block entry = cfg.entryBlock();
+    visited.add(entry);
+    path.push(entry);
+    stack.push(successorsAndExceptions(entry).iterator());
+    while (!stack.isEmpty()) {
+      Iterator<? extends ControlFlowGraph.Block> successors = stack.peek();
+      if (successors.hasNext()) {
+        ControlFlowGraph.Block successor = successors.next();
+        if (visited.add(successor)) {
+          path.push(successor);
+          stack.push(successorsAndExceptions(successor).iterator());
+        }
+      } else {
+        stack.pop();
+        postOrder.add(path.pop());
+      }
+    }
+    List<ControlFlowGraph.Block> order = new ArrayList<>(postOrder.size());
+    if (direction == Direction.FORWARD) {
+      for (int i = postOrder.size() - 1; i >= 0; i--) {
+        order.add(postOrder.get(i));
+      }
+    } else {
+      order.addAll(postOrder);
+    }
+    for (ControlFlowGraph.Block block : cfg.blocks()) {
+      if (!visited.contains(block)) {
+        order.add(block);
+      }
+    }
+    return order;
+  }
+
+  /**
+   * Facts at the start and at the end of each block, in the order of the program whatever the direction of the analysis.
+   * The returned bit sets must not be modified.
+   */
+  public static final class Result {
+
+    private final Map<ControlFlowGraph.Block, Integer> positions;
+    private final BitSet[] in;
+    private final BitSet[] out;
+
+    private Result(Map<ControlFlowGraph.Block, Integer> positions, BitSet[] in, BitSet[] out) {
+      this.positions = positions;
+      this.in = in;
+      this.out = out;
+    }
+
+    public BitSet in(ControlFlowGraph.Block block) {
+      return in[positions.get(block)];
+    }
+
+    public BitSet out(ControlFlowGraph.Block block) {
+      return out[positions.get(block)];
+    }
+  }
+
+  /**
+   * Numbers the symbols of a method, to use them as facts.
+   */
+  public static final class SymbolIndex {
+
+    private final Map<Symbol, Integer> indexes = new HashMap<>();
+    private final List<Symbol> symbols = new ArrayList<>();
+
+    public int index(Symbol symbol) {
+      return indexes.computeIfAbsent(symbol, s -> {
+        symbols.add(s);
+        return symbols.size() - 1;
+      });
+    }
+
+    /**
+     * @return an unmodifiable view of the symbols whose bits are set
+     */
+    public Set<Symbol> asSet(BitSet bits) {
+      return new SymbolSet(bits);
+    }
+
+    private final class SymbolSet extends AbstractSet<Symbol> {
+
+      private final BitSet bits;
+
+      private SymbolSet(BitSet bits) {
+        this.bits = bits;
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        Integer index = indexes.get(o);
+        return index != null && bits.get(index);
+      }
+
+      @Override
+      public int size() {
+        return bits.cardinality();
+      }
+
+      @Override
+      public boolean isEmpty() {
+        return bits.isEmpty();
+      }
+
+      @Override
+      public Iterator<Symbol> iterator() {
+        return new Iterator<>() {
+          private int next = bits.nextSetBit(0);
+
+          @Override
+          public boolean hasNext() {
+            return next >= 0;
+          }
+
+          @Override
+          public Symbol next() {
+            if (next < 0) {
+              throw new NoSuchElementException();
+            }
+            Symbol symbol = symbols.get(next);
+            next = bits.nextSetBit(next + 1);
+            return symbol;
+          }
+        };
+      }
+    }
+  }
+}
@@ -0,0 +1,324 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.classpath;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.eclipse.jdt.core.dom.ClasspathEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Packages of the jars of the classpath, kept from one analysis to the next in the work directory of the project, so that unchanged
+ * jars are not scanned again.
+ * <p>
+ * The jars are identified by a digest of their canonical path, size and last modification time: hashing their content would read
+ * more than the scan it saves. The file is read at once, without being mapped so that it can be replaced at the end of the
+ * analysis on any platform, and the packages of a jar are only decoded on its first lookup. Layout of the file:
+ * <pre>
+ * magic, version, count
+ * index:   (long key, int offset)...                                   (sorted by key)
+ * entries: (path, long size, long lastModified, int count, package...)...  (strings as int length and UTF-8 bytes)
+ * </pre>
+ */
+public final class PersistentJarIndex implements ClasspathEnvironment.JarPackages {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PersistentJarIndex.class);
+
+  public static final String FILE_NAME = "sonar-java-jar-index.bin";
+  /**
+   * Entries kept in the file, the ones used by the last analysis coming first, and entries remembered during an analysis.
+   */
+  static final int MAX_ENTRIES = 10_000;
+
+  private static final int MAGIC = 0x534A4A49;
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 3 * Integer.BYTES;
+  private static final int INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+
+  private final Path file;
+  private final ByteBuffer data;
+  private final int count;
+  private final Map<Long, Entry> usedEntries = new ConcurrentHashMap<>();
+  private final long loadNanos;
+  private final AtomicInteger hits = new AtomicInteger();
+  private final AtomicInteger misses = new AtomicInteger();
+  private final AtomicLong indexingNanos = new AtomicLong();
+
+  private PersistentJarIndex(Path file, ByteBuffer data, int count, long loadNanos) {
+    this.file = file;
+    this.data = data;
+    this.count = count;
+    this.loadNanos = loadNanos;
+  }
+
+  /**
+   * Reads the index stored in the given directory, starting from an empty index when there is none or when it is not readable.
+   */
+  public static PersistentJarIndex load(File workDir) {
+    long start = System.nanoTime();
+    Path file = workDir.toPath().resolve(FILE_NAME);
+    ByteBuffer data = ByteBuffer.allocate(0);
+    int count = 0;
+    if (Files.isRegularFile(file)) {
+      try {
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file));
+        count = validCount(content);
+        data = content;
+      } catch (IOException e) {
+        LOG.debug("Unable to read the index of the classpath jars '{}': {}", file, e.getMessage());
+      }
+    }
+    return new PersistentJarIndex(file, data, count, System.nanoTime() - start);
+  }
+
+  private static int validCount(ByteBuffer data) throws IOException {
+    if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC || data.getInt(Integer.BYTES) != VERSION) {
+      throw new IOException("Unsupported format");
+    }
+    int count = data.getInt(2 * Integer.BYTES);
+    if (count < 0 || count > (data.limit() - HEADER_SIZE) / INDEX_ENTRY_SIZE) {
+      throw new IOException("Invalid number of entries");
+    }
+    return count;
+  }
+
+  @Override
+  public Optional<Set<String>> packages(File jar, Function<File, Optional<Set<String>>> scanner) {
+    String path = canonicalPath(jar);
+    long size = jar.length();
+    long lastModified = jar.lastModified();
+    long key = key(path, size, lastModified);
+    Entry entry = find(key);
+    if (entry != null && entry.matches(path, size, lastModified)) {
+      hits.incrementAndGet();
+      remember(key, entry);
+      return Optional.of(entry.packages());
+    }
+    long start = System.nanoTime();
+    Optional<Set<String>> packages = scanner.apply(jar);
+    indexingNanos.addAndGet(System.nanoTime() - start);
+    misses.incrementAndGet();
+    packages.ifPresent(p -> remember(key, new Entry(path, size, lastModified, p)));
+    return packages;
+  }
+
+  private static String canonicalPath(File jar) {
+    try {
+      return jar.getCanonicalPath();
+    } catch (IOException e) {
+      return jar.getAbsolutePath();
+    }
+  }
+
+  private void remember(long key, Entry entry) {
+    if (usedEntries.size() < MAX_ENTRIES) {
+      usedEntries.put(key, entry);
+    }
+  }
+
+  @CheckForNull
+  private Entry find(long key) {
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int position = HEADER_SIZE + middle * INDEX_ENTRY_SIZE;
+      int comparison = Long.compare(data.getLong(position), key);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return decode(data.getInt(position + Long.BYTES));
+      }
+    }
+    return null;
+  }
+
+  @CheckForNull
+  private Entry decode(int offset) {
+    try {
+      int[] position = {offset};
+      String path = readString(position);
+      long size = data.getLong(position[0]);
+      long lastModified = data.getLong(position[0] + Long.BYTES);
+      position[0] += 2 * Long.BYTES;
+      int packageCount = data.getInt(position[0]);
+      position[0] += Integer.BYTES;
+      Set<String> packages = new HashSet<>(packageCount * 2);
+      for (int i = 0; i < packageCount; i++) {
+        packages.add(readString(position));
+      }
+      return new Entry(path, size, lastModified, Collections.unmodifiableSet(packages));
+    } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+      // corrupted entry, the jar will be scanned again
+      return null;
+    }
+  }
+
+  private String readString(int[] position) {
+    int length = data.getInt(position[0]);
+    byte[] bytes = new byte[length];
+    data.get(position[0] + Integer.BYTES, bytes);
+    position[0] += Integer.BYTES + length;
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes the entries used by this analysis, followed by the other entries of the previous index, and reports how long it took to
+   * get the packages of the jars.
+   */
+  public void save() {
+    if (hits.get() + misses.get() == 0) {
+      return;
+    }
+    LOG.debug("Packages of {} classpath jars read from the index in {} ms, {} jars indexed in {} ms.",
+      hits.get(), TimeUnit.NANOSECONDS.toMillis(loadNanos), misses.get(), TimeUnit.NANOSECONDS.toMillis(indexingNanos.get()));
+    if (misses.get() == 0) {
+      // every jar was already indexed, only their order in the file would change
+      return;
+    }
+    Path temporaryFile = null;
+    try {
+      Files.createDirectories(file.getParent());
+      // a unique temporary file, as the analyses of other modules can save the same index concurrently
+      temporaryFile = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+      Files.write(temporaryFile, serialize(entriesToSave()));
+      Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      LOG.debug("Unable to write the index of the classpath jars '{}': {}", file, e.getMessage());
+      deleteIfExists(temporaryFile);
+    }
+  }
+
+  private static void deleteIfExists(@Nullable Path temporaryFile) {
+    if (temporaryFile == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(temporaryFile);
+    } catch (IOException ignored) {
+      // nothing more can be done
+    }
+  }
+
+  private Map<Long, Entry> entriesToSave() {
+    Map<Long, Entry> entries = new LinkedHashMap<>();
+    usedEntries.entrySet().stream()
+      .limit(MAX_ENTRIES)
+      .forEach(used -> entries.put(used.getKey(), used.getValue()));
+    for (int i = 0; i < count && entries.size() < MAX_ENTRIES; i++) {
+      int position = HEADER_SIZE + i * INDEX_ENTRY_SIZE;
+      long key = data.getLong(position);
+      if (!entries.containsKey(key)) {
+        Entry entry = decode(data.getInt(position + Long.BYTES));
+        if (entry != null) {
+          entries.put(key, entry);
+        }
+      }
+    }
+    return entries;
+  }
+
+  static byte[] serialize(Map<Long, Entry> entries) throws IOException {
+    List<Map.Entry<Long, Entry>> sorted = new ArrayList<>(entries.entrySet());
+    sorted.sort(Map.Entry.comparingByKey());
+    ByteArrayOutputStream encodedEntries = new ByteArrayOutputStream();
+    DataOutputStream entriesOut = new DataOutputStream(encodedEntries);
+    int[] offsets = new int[sorted.size()];
+    int entriesStart = HEADER_SIZE + sorted.size() * INDEX_ENTRY_SIZE;
+    for (int i = 0; i < sorted.size(); i++) {
+      offsets[i] = entriesStart + entriesOut.size();
+      Entry entry = sorted.get(i).getValue();
+      writeString(entriesOut, entry.path());
+      entriesOut.writeLong(entry.size());
+      entriesOut.writeLong(entry.lastModified());
+      entriesOut.writeInt(entry.packages().size());
+      for (String packageName : entry.packages()) {
+        writeString(entriesOut, packageName);
+      }
+    }
+    ByteArrayOutputStream result = new ByteArrayOutputStream(entriesStart + encodedEntries.size());
+    DataOutputStream out = new DataOutputStream(result);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(sorted.size());
+    for (int i = 0; i < sorted.size(); i++) {
+      out.writeLong(sorted.get(i).getKey());
+      out.writeInt(offsets[i]);
+    }
+    encodedEntries.writeTo(out);
+    return result.toByteArray();
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  static long key(String path, long size, long lastModified) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(path.getBytes(StandardCharsets.UTF_8));
+      digest.update(ByteBuffer.allocate(2 * Long.BYTES).putLong(size).putLong(lastModified).array());
+      return ByteBuffer.wrap(digest.digest()).getLong();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  int hits() {
+    return hits.get();
+  }
+
+  int misses() {
+    return misses.get();
+  }
+
+  record Entry(String path, long size, long lastModified, Set<String> packages) {
+    boolean matches(String otherPath, long otherSize, long otherLastModified) {
+      return path.equals(otherPath) && size == otherSize && lastModified == otherLastModified;
+    }
+  }
+
+}
@@ -17,10 +17,14 @@
 package org.sonar.java.matcher;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonarsource.analyzer.commons.collections.SetUtils;
@@ -47,16 +51,29 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
   @Nullable
   private final Predicate<List<Type>> parametersPredicate;
 
+  /**
+   * Names accepted by the name predicate, null when it can accept any name.
+   */
+  @Nullable
+  private final Set<String> names;
+
+  /**
+   * Numbers of parameters accepted by the parameters predicate, null when it can accept any number of parameters.
+   */
+  @Nullable
+  private final Set<Integer> parametersCounts;
+
   public MethodMatchersBuilder() {
-    this.typePredicate = null;
-    this.namePredicate = null;
-    this.parametersPredicate = null;
+    this(null, null, null, Collections.emptySet(), Collections.emptySet());
   }
 
-  private MethodMatchersBuilder(@Nullable Predicate<Type> typePredicate, @Nullable Predicate<String> namePredicate, @Nullable Predicate<List<Type>> parametersPredicate) {
+  private MethodMatchersBuilder(@Nullable Predicate<Type> typePredicate, @Nullable Predicate<String> namePredicate, @Nullable Predicate<List<Type>> parametersPredicate,
+    @Nullable Set<String> names, @Nullable Set<Integer> parametersCounts) {
     this.typePredicate = typePredicate;
     this.namePredicate = namePredicate;
     this.parametersPredicate = parametersPredicate;
+    this.names = names;
+    this.parametersCounts = parametersCounts;
   }
 
   private static <T> Predicate<T> substituteAny(Predicate<T> predicate, String... elements) {
@@ -108,15 +125,17 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
 
   @Override
   public NameBuilder ofType(Predicate<Type> typePredicate) {
-    return new MethodMatchersBuilder(or(this.typePredicate, typePredicate), namePredicate, parametersPredicate);
+    return new MethodMatchersBuilder(or(this.typePredicate, typePredicate), namePredicate, parametersPredicate, names, parametersCounts);
   }
 
   @Override
   public ParametersBuilder names(String... names) {
-    return name(substituteAnyAndCreateEfficientPredicate(
+    Predicate<String> predicate = substituteAnyAndCreateEfficientPredicate(
       names,
       name -> name::equals,
-      nameList -> nameList::contains));
+      nameList -> new HashSet<>(nameList)::contains);
+    List<String> literalNames = names.length == 1 && ANY.equals(names[0]) ? null : Arrays.asList(names);
+    return new MethodMatchersBuilder(typePredicate, or(this.namePredicate, predicate), parametersPredicate, union(this.names, literalNames), parametersCounts);
   }
 
   @Override
@@ -131,7 +150,7 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
 
   @Override
   public ParametersBuilder name(Predicate<String> namePredicate) {
-    return new MethodMatchersBuilder(typePredicate, or(this.namePredicate, namePredicate), parametersPredicate);
+    return new MethodMatchersBuilder(typePredicate, or(this.namePredicate, namePredicate), parametersPredicate, null, parametersCounts);
   }
 
   @Override
@@ -142,7 +161,9 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
   }
 
   private ParametersBuilder addParametersMatcher(List<Predicate<Type>> parametersType) {
-    return addParametersMatcher((List<Type> actualTypes) -> exactMatchesParameters(parametersType, actualTypes));
+    Predicate<List<Type>> predicate = (List<Type> actualTypes) -> exactMatchesParameters(parametersType, actualTypes);
+    return new MethodMatchersBuilder(typePredicate, namePredicate, or(this.parametersPredicate, predicate),
+      names, union(parametersCounts, Collections.singletonList(parametersType.size())));
   }
 
   @Override
@@ -160,7 +181,7 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
 
   @Override
   public ParametersBuilder addParametersMatcher(Predicate<List<Type>> parametersPredicate) {
-    return new MethodMatchersBuilder(typePredicate, namePredicate, or(this.parametersPredicate, parametersPredicate));
+    return new MethodMatchersBuilder(typePredicate, namePredicate, or(this.parametersPredicate, parametersPredicate), names, null);
   }
 
   private static boolean exactMatchesParameters(List<Predicate<Type>> expectedTypes, List<Type> actualTypes) {
@@ -178,30 +199,30 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
 
   @Override
   public boolean matches(NewClassTree newClassTree) {
-    return matches(newClassTree.methodSymbol(), null);
+    return matches(newClassTree.methodSymbol(), () -> null);
   }
 
   @Override
   public boolean matches(MethodInvocationTree mit) {
     IdentifierTree id = getIdentifier(mit);
-    return matches(id.symbol(), getCallSiteType(mit));
+    return matches(id.symbol(), () -> getCallSiteType(mit));
   }
 
   @Override
   public boolean matches(MethodTree methodTree) {
     Symbol.MethodSymbol symbol = methodTree.symbol();
     Symbol.TypeSymbol enclosingClass = symbol.enclosingClass();
-    return enclosingClass != null && matches(symbol, enclosingClass.type());
+    return enclosingClass != null && matches(symbol, enclosingClass::type);
   }
 
   @Override
   public boolean matches(MethodReferenceTree methodReferenceTree) {
-    return matches(methodReferenceTree.method().symbol(), getCallSiteType(methodReferenceTree));
+    return matches(methodReferenceTree.method().symbol(), () -> getCallSiteType(methodReferenceTree));
   }
 
   @Override
   public boolean matches(Symbol symbol) {
-    return matches(symbol, null);
+    return matches(symbol, () -> null);
   }
 
   @Override
@@ -212,12 +233,39 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
     return this;
   }
 
-  private boolean matches(Symbol symbol, @Nullable Type callSiteType) {
-    return symbol.isMethodSymbol() && isSearchedMethod((Symbol.MethodSymbol) symbol, callSiteType);
+  /**
+   * The type of the call site is only resolved when the name and the parameters of the method match.
+   */
+  private boolean matches(Symbol symbol, Supplier<Type> callSiteType) {
+    if (!symbol.isMethodSymbol()) {
+      return false;
+    }
+    Symbol.MethodSymbol methodSymbol = (Symbol.MethodSymbol) symbol;
+    return matchesNameAndParameters(methodSymbol) && matchesType(searchedType(methodSymbol, callSiteType.get()));
+  }
+
+  boolean matchesNameAndParameters(Symbol.MethodSymbol symbol) {
+    return namePredicate.test(symbol.name()) && parametersPredicate.test(symbol.parameterTypes());
   }
 
+  boolean matchesType(@Nullable Type type) {
+    return type != null && typePredicate.test(type);
+  }
+
+  /**
+   * @return the type of the call site, or the type of the owner of the method when unknown
+   */
   @CheckForNull
-  private static Type getCallSiteType(MethodReferenceTree referenceTree) {
+  static Type searchedType(Symbol.MethodSymbol symbol, @Nullable Type callSiteType) {
+    if (callSiteType != null) {
+      return callSiteType;
+    }
+    Symbol owner = symbol.owner();
+    return owner != null ? owner.type() : null;
+  }
+
+  @CheckForNull
+  static Type getCallSiteType(MethodReferenceTree referenceTree) {
     Tree expression = referenceTree.expression();
     if (expression instanceof ExpressionTree expressionTree) {
       return expressionTree.symbolType();
@@ -226,7 +274,7 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
   }
 
   @CheckForNull
-  private static Type getCallSiteType(MethodInvocationTree mit) {
+  static Type getCallSiteType(MethodInvocationTree mit) {
     ExpressionTree methodSelect = mit.methodSelect();
     // methodSelect can only be Tree.Kind.IDENTIFIER or Tree.Kind.MEMBER_SELECT
     if (methodSelect.is(Tree.Kind.IDENTIFIER)) {
@@ -237,20 +285,6 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
     }
   }
 
-  private boolean isSearchedMethod(Symbol.MethodSymbol symbol, @Nullable Type callSiteType) {
-    Type type = callSiteType;
-    if (type == null) {
-      Symbol owner = symbol.owner();
-      if (owner != null) {
-        type = owner.type();
-      }
-    }
-    return type != null &&
-      namePredicate.test(symbol.name()) &&
-      parametersPredicate.test(symbol.parameterTypes()) &&
-      typePredicate.test(type);
-  }
-
   private static IdentifierTree getIdentifier(MethodInvocationTree mit) {
     // methodSelect can only be Tree.Kind.IDENTIFIER or Tree.Kind.MEMBER_SELECT
     if (mit.methodSelect().is(Tree.Kind.IDENTIFIER)) {
@@ -263,4 +297,30 @@ public class MethodMatchersBuilder implements MethodMatchers.TypeBuilder, Method
     return accumulator != null ? accumulator.or(next) : next;
   }
 
+  @CheckForNull
+  private static <T> Set<T> union(@Nullable Set<T> accumulator, @Nullable Collection<T> next) {
+    if (accumulator == null || next == null) {
+      return null;
+    }
+    Set<T> union = new HashSet<>(accumulator);
+    union.addAll(next);
+    return Collections.unmodifiableSet(union);
+  }
+
+  /**
+   * @return the names of the methods which can be matched, null when any name can be matched
+   */
+  @CheckForNull
+  Set<String> names() {
+    return names;
+  }
+
+  /**
+   * @return the numbers of parameters of the methods which can be matched, null when any number of parameters can be matched
+   */
+  @CheckForNull
+  Set<Integer> parametersCounts() {
+    return parametersCounts;
+  }
+
 }
@@ -17,45 +17,172 @@
 package org.sonar.java.matcher;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.sonar.java.model.ExpressionUtils;
 import org.sonar.plugins.java.api.semantic.MethodMatchers;
 import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.semantic.Type;
 import org.sonar.plugins.java.api.tree.MethodInvocationTree;
 import org.sonar.plugins.java.api.tree.MethodReferenceTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.NewClassTree;
 
+/**
+ * Matchers built with {@link MethodMatchersBuilder} are indexed by the names and numbers of parameters they can match,
+ * so that only the ones which can match the name and the number of parameters of a method are evaluated, the symbol and
+ * the type of the call site being resolved once for all of them. Other matchers are evaluated one after the other.
+ */
 public class MethodMatchersList implements MethodMatchers {
 
-  private List<? extends MethodMatchers> matchers;
+  private static final MethodMatchersBuilder[] NO_MATCHERS = new MethodMatchersBuilder[0];
+
+  private final List<MethodMatchers> matchers = new ArrayList<>();
+  private final Map<String, NameIndex> matchersByName = new HashMap<>();
+  private final MethodMatchers[] otherMatchers;
 
   public MethodMatchersList(List<? extends MethodMatchers> matchers) {
-    this.matchers = new ArrayList<>(matchers);
+    List<MethodMatchers> others = new ArrayList<>();
+    Map<String, NameIndexBuilder> builders = new HashMap<>();
+    for (MethodMatchers matcher : matchers) {
+      index(matcher, builders, others);
+    }
+    builders.forEach((name, builder) -> matchersByName.put(name, builder.build()));
+    this.otherMatchers = others.toArray(new MethodMatchers[0]);
+  }
+
+  private void index(MethodMatchers matcher, Map<String, NameIndexBuilder> builders, List<MethodMatchers> others) {
+    if (matcher instanceof MethodMatchersList list) {
+      list.matchers.forEach(child -> index(child, builders, others));
+      return;
+    }
+    matchers.add(matcher);
+    Set<String> names = matcher instanceof MethodMatchersBuilder builder ? builder.names() : null;
+    if (names == null) {
+      others.add(matcher);
+      return;
+    }
+    MethodMatchersBuilder builder = (MethodMatchersBuilder) matcher;
+    for (String name : names) {
+      builders.computeIfAbsent(name, n -> new NameIndexBuilder()).add(builder, builder.parametersCounts());
+    }
   }
 
   @Override
   public boolean matches(NewClassTree newClassTree) {
-    return matchers.stream().anyMatch(matcher -> matcher.matches(newClassTree));
+    return anyMatch(otherMatchers, matcher -> matcher.matches(newClassTree))
+      || matchesIndexed(newClassTree.methodSymbol(), () -> null);
   }
 
   @Override
   public boolean matches(MethodInvocationTree mit) {
-    return matchers.stream().anyMatch(matcher -> matcher.matches(mit));
+    return anyMatch(otherMatchers, matcher -> matcher.matches(mit))
+      || matchesIndexed(ExpressionUtils.methodName(mit).symbol(), () -> MethodMatchersBuilder.getCallSiteType(mit));
   }
 
   @Override
   public boolean matches(MethodTree methodTree) {
-    return matchers.stream().anyMatch(matcher -> matcher.matches(methodTree));
+    if (anyMatch(otherMatchers, matcher -> matcher.matches(methodTree))) {
+      return true;
+    }
+    Symbol.MethodSymbol symbol = methodTree.symbol();
+    Symbol.TypeSymbol enclosingClass = symbol.enclosingClass();
+    return enclosingClass != null && matchesIndexed(symbol, enclosingClass::type);
   }
 
   @Override
   public boolean matches(MethodReferenceTree methodReferenceTree) {
-    return matchers.stream().anyMatch(matcher -> matcher.matches(methodReferenceTree));
+    return anyMatch(otherMatchers, matcher -> matcher.matches(methodReferenceTree))
+      || matchesIndexed(methodReferenceTree.method().symbol(), () -> MethodMatchersBuilder.getCallSiteType(methodReferenceTree));
   }
 
   @Override
   public boolean matches(Symbol symbol) {
-    return matchers.stream().anyMatch(matcher -> matcher.matches(symbol));
+    return anyMatch(otherMatchers, matcher -> matcher.matches(symbol))
+      || matchesIndexed(symbol, () -> null);
+  }
+
+  private static boolean anyMatch(MethodMatchers[] matchers, Predicate<MethodMatchers> matches) {
+    for (MethodMatchers matcher : matchers) {
+      if (matches.test(matcher)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean matchesIndexed(Symbol symbol, Supplier<Type> callSiteType) {
+    if (!symbol.isMethodSymbol()) {
+      return false;
+    }
+    NameIndex nameIndex = matchersByName.get(symbol.name());
+    if (nameIndex == null) {
+      return false;
+    }
+    Symbol.MethodSymbol methodSymbol = (Symbol.MethodSymbol) symbol;
+    Type type = null;
+    for (MethodMatchersBuilder matcher : nameIndex.candidates(methodSymbol.parameterTypes().size())) {
+      if (matcher.matchesNameAndParameters(methodSymbol)) {
+        if (type == null) {
+          type = MethodMatchersBuilder.searchedType(methodSymbol, callSiteType.get());
+          if (type == null) {
+            return false;
+          }
+        }
+        if (matcher.matchesType(type)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static final class NameIndex {
+
+    private final MethodMatchersBuilder[] anyParametersCount;
+    /**
+     * Matchers of each number of parameters, including the ones accepting any number of parameters.
+     */
+    private final MethodMatchersBuilder[][] byParametersCount;
+
+    private NameIndex(MethodMatchersBuilder[] anyParametersCount, MethodMatchersBuilder[][] byParametersCount) {
+      this.anyParametersCount = anyParametersCount;
+      this.byParametersCount = byParametersCount;
+    }
+
+    MethodMatchersBuilder[] candidates(int parametersCount) {
+      return parametersCount < byParametersCount.length ? byParametersCount[parametersCount] : anyParametersCount;
+    }
+  }
+
+  private static class NameIndexBuilder {
+
+    private final List<MethodMatchersBuilder> anyParametersCount = new ArrayList<>();
+    private final Map<Integer, List<MethodMatchersBuilder>> byParametersCount = new HashMap<>();
+
+    void add(MethodMatchersBuilder matcher, @Nullable Set<Integer> parametersCounts) {
+      if (parametersCounts == null) {
+        anyParametersCount.add(matcher);
+      } else {
+        parametersCounts.forEach(count -> byParametersCount.computeIfAbsent(count, c -> new ArrayList<>()).add(matcher));
+      }
+    }
+
+    NameIndex build() {
+      int size = byParametersCount.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+      MethodMatchersBuilder[][] candidates = new MethodMatchersBuilder[size][];
+      for (int i = 0; i < size; i++) {
+        List<MethodMatchersBuilder> matchers = new ArrayList<>(anyParametersCount);
+        matchers.addAll(byParametersCount.getOrDefault(i, List.of()));
+        candidates[i] = matchers.toArray(NO_MATCHERS);
+      }
+      return new NameIndex(anyParametersCount.toArray(NO_MATCHERS), candidates);
+    }
   }
 
 }
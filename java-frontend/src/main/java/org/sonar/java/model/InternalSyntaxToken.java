@@ -18,6 +18,7 @@ package org.sonar.java.model;
 
 import java.util.List;
 import org.sonar.java.model.location.InternalPosition;
+import org.sonar.plugins.java.api.location.Position;
 import org.sonar.plugins.java.api.location.Range;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia;
@@ -27,29 +28,31 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
 
   private final List<SyntaxTrivia> trivias;
-  private final Range range;
   private final String value;
-  private final boolean isEOF;
+  private final int line;
+  /**
+   * Holds {@code -1 - columnOffset} for the EOF token, to keep the token within 40 bytes with compressed oops.
+   */
+  private final int encodedColumnOffset;
 
   protected InternalSyntaxToken(InternalSyntaxToken internalSyntaxToken) {
     this.value = internalSyntaxToken.value;
-    this.range = internalSyntaxToken.range;
+    this.line = internalSyntaxToken.line;
+    this.encodedColumnOffset = internalSyntaxToken.encodedColumnOffset;
     this.trivias = internalSyntaxToken.trivias;
-    this.isEOF = internalSyntaxToken.isEOF;
   }
 
   public InternalSyntaxToken(int line, int columnOffset, String value, List<SyntaxTrivia> trivias, boolean isEOF) {
     this.value = value;
+    this.line = line;
+    this.encodedColumnOffset = isEOF ? (-1 - columnOffset) : columnOffset;
     this.trivias = trivias;
-    this.isEOF = isEOF;
-    range = value.startsWith("\"\"\"")
-      ? Range.at(InternalPosition.atOffset(line, columnOffset), value)
-      : Range.at(InternalPosition.atOffset(line, columnOffset), value.length());
   }
 
   @Override
   public Range range() {
-    return range;
+    Position start = InternalPosition.atOffset(line, column());
+    return value.startsWith("\"\"\"") ? Range.at(start, value) : Range.at(start, value.length());
   }
 
   @Override
@@ -79,17 +82,17 @@ public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
 
   @Override
   public int getLine() {
-    return range.start().line();
+    return line;
   }
 
   @Override
   public int line() {
-    return range.start().line();
+    return line;
   }
 
   @Override
   public int column() {
-    return range.start().columnOffset();
+    return encodedColumnOffset < 0 ? (-1 - encodedColumnOffset) : encodedColumnOffset;
   }
 
   @Override
@@ -103,7 +106,7 @@ public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
   }
 
   public boolean isEOF() {
-    return isEOF;
+    return encodedColumnOffset < 0;
   }
 
   @Override
@@ -380,6 +380,10 @@ public class JParser {
 
   private TokenManager tokenManager;
   private LineColumnConverter lineColumnConverter;
+  /**
+   * Texts of the tokens of the file, so that the tokens of the same keyword, operator or identifier share their text.
+   */
+  private final Map<String, String> tokenTexts = new HashMap<>();
 
   private JSema sema;
 
@@ -488,7 +492,7 @@ public class JParser {
       value = "";
     } else {
       isEOF = false;
-      value = t.toString(tokenManager.getSource());
+      value = tokenTexts.computeIfAbsent(t.toString(tokenManager.getSource()), text -> text);
     }
     LineColumnConverter.Pos pos = lineColumnConverter.toPos(t.originalStart);
     return new InternalSyntaxToken(pos.line(), pos.columnOffset(), value, collectComments(tokenIndex), isEOF);
@@ -508,7 +512,10 @@ public class JParser {
     while (commentIndex > 0 && tokenManager.get(commentIndex - 1).isComment()) {
       commentIndex--;
     }
-    List<SyntaxTrivia> comments = new ArrayList<>();
+    if (commentIndex == tokenIndex) {
+      return Collections.emptyList();
+    }
+    List<SyntaxTrivia> comments = new ArrayList<>(tokenIndex - commentIndex);
     for (int i = commentIndex; i < tokenIndex; i++) {
       Token t = tokenManager.get(i);
       LineColumnConverter.Pos pos = lineColumnConverter.toPos(t.originalStart);
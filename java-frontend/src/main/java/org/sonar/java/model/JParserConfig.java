@@ -33,6 +33,7 @@ import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ClasspathEnvironment;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.FileASTRequestor;
 import org.slf4j.Logger;
@@ -59,11 +60,14 @@ public abstract class JParserConfig {
   final JavaVersion javaVersion;
   final List<File> classpath;
   final boolean shouldIgnoreUnnamedModuleForSplitPackage;
+  final ClasspathEnvironment classpathEnvironment;
 
-  private JParserConfig(JavaVersion javaVersion, List<File> classpath, boolean shouldIgnoreUnnamedModuleForSplitPackage) {
+  private JParserConfig(JavaVersion javaVersion, List<File> classpath, boolean shouldIgnoreUnnamedModuleForSplitPackage,
+    ClasspathEnvironment classpathEnvironment) {
     this.javaVersion = javaVersion;
     this.classpath = classpath;
     this.shouldIgnoreUnnamedModuleForSplitPackage = shouldIgnoreUnnamedModuleForSplitPackage;
+    this.classpathEnvironment = classpathEnvironment;
   }
 
   public abstract void parse(Iterable<? extends InputFile> inputFiles, BooleanSupplier isCanceled,
@@ -84,10 +88,19 @@ public abstract class JParserConfig {
     }
 
     public JParserConfig create(JavaVersion javaVersion, List<File> classpath, boolean shouldIgnoreUnnamedModuleForSplitPackage) {
+      return create(javaVersion, classpath, shouldIgnoreUnnamedModuleForSplitPackage, new ClasspathEnvironment());
+    }
+
+    /**
+     * @param classpathEnvironment shared by the configurations created during the same analysis, so that the jars of their classpath
+     *                             are indexed only once
+     */
+    public JParserConfig create(JavaVersion javaVersion, List<File> classpath, boolean shouldIgnoreUnnamedModuleForSplitPackage,
+      ClasspathEnvironment classpathEnvironment) {
       if (shouldIgnoreUnnamedModuleForSplitPackage) {
         LOG.info("The Java analyzer will ignore the unnamed module for split packages.");
       }
-      return supplier.apply(javaVersion, classpath, shouldIgnoreUnnamedModuleForSplitPackage);
+      return supplier.apply(javaVersion, classpath, shouldIgnoreUnnamedModuleForSplitPackage, classpathEnvironment);
     }
   }
 
@@ -114,7 +127,7 @@ public abstract class JParserConfig {
   }
 
   public ASTParser astParser() {
-    ASTParser astParser = ASTParser.newParser(AST.getJLSLatest());
+    ASTParser astParser = classpathEnvironment.newParser(AST.getJLSLatest());
     Map<String, String> options = new HashMap<>(JavaCore.getOptions());
     JavaCore.setComplianceOptions(javaVersion.effectiveJavaVersionAsString(), options);
     options.put(JavaCore.COMPILER_PB_MAX_PER_UNIT, MAXIMUM_ECJ_WARNINGS);
@@ -147,7 +160,12 @@ public abstract class JParserConfig {
   static class Batch extends JParserConfig {
 
     Batch(JavaVersion javaVersion, List<File> classpath, boolean shouldIgnoreUnnamedModuleForSplitPackage) {
-      super(javaVersion, classpath, shouldIgnoreUnnamedModuleForSplitPackage);
+      this(javaVersion, classpath, shouldIgnoreUnnamedModuleForSplitPackage, new ClasspathEnvironment());
+    }
+
+    Batch(JavaVersion javaVersion, List<File> classpath, boolean shouldIgnoreUnnamedModuleForSplitPackage,
+      ClasspathEnvironment classpathEnvironment) {
+      super(javaVersion, classpath, shouldIgnoreUnnamedModuleForSplitPackage, classpathEnvironment);
     }
 
     @Override
@@ -170,7 +188,8 @@ public abstract class JParserConfig {
       ProgressMonitor monitor = new ProgressMonitor(isCanceled, analysisProgress);
       PerformanceMeasure.Duration batchPerformance = PerformanceMeasure.start("ParseAsBatch");
       try {
-        astParser().createASTs(sourceFilePaths.toArray(new String[0]), encodings.toArray(new String[0]), new String[0], new FileASTRequestor() {
+        ASTParser astParser = astParser();
+        astParser.createASTs(sourceFilePaths.toArray(new String[0]), encodings.toArray(new String[0]), new String[0], new FileASTRequestor() {
           @Override
           public void acceptAST(String sourceFilePath, CompilationUnit ast) {
             PerformanceMeasure.Duration convertDuration = PerformanceMeasure.start("Convert");
@@ -195,6 +214,9 @@ public abstract class JParserConfig {
           String message = String.format("%d/%d files were not analyzed by the batch mode", notYetAnalyzedFiles.size(), sourceFilePaths.size());
           throw new AnalysisException(message);
         }
+        // the fewer types the files of a batch share, the more of them are looked up in the jars
+        LOG.debug("Batch of {} files looked up {} types in the jars of the classpath.", sourceFilePaths.size(),
+          ClasspathEnvironment.jarLookups(astParser));
       } catch (OperationCanceledException e) {
         throw e;
       } catch (RuntimeException e) {
@@ -224,8 +246,9 @@ public abstract class JParserConfig {
 
   private static class FileByFile extends JParserConfig {
 
-    private FileByFile(JavaVersion javaVersion, List<File> classpath, boolean shouldIgnoreUnnamedModuleForSplitPackage) {
-      super(javaVersion, classpath, shouldIgnoreUnnamedModuleForSplitPackage);
+    private FileByFile(JavaVersion javaVersion, List<File> classpath, boolean shouldIgnoreUnnamedModuleForSplitPackage,
+      ClasspathEnvironment classpathEnvironment) {
+      super(javaVersion, classpath, shouldIgnoreUnnamedModuleForSplitPackage, classpathEnvironment);
     }
 
     @Override
@@ -282,7 +305,7 @@ public abstract class JParserConfig {
   }
   @FunctionalInterface
   public interface ParserConfigConstructor {
-    JParserConfig apply(JavaVersion version, List<File> files, Boolean shouldIgnoreUnnamedModuleForSplitPackage);
+    JParserConfig apply(JavaVersion version, List<File> files, Boolean shouldIgnoreUnnamedModuleForSplitPackage, ClasspathEnvironment classpathEnvironment);
   }
 
 }
@@ -37,9 +37,15 @@ import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.semantic.Type;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
 import org.sonar.plugins.java.api.tree.Tree;
+import org.sonarsource.performance.measure.PerformanceMeasure;
 
 public final class JSema implements Sema {
 
+  /**
+   * Maximum number of answers kept by {@link #isSubtype(ITypeBinding, ITypeBinding)}, further answers being computed on each call.
+   */
+  static final int MAX_SUBTYPE_ANSWERS = 10_000;
+
   private final AST ast;
   final Set<JProblem> undefinedTypes = new HashSet<>();
   final Map<IBinding, Tree> declarations = new HashMap<>();
@@ -50,6 +56,10 @@ public final class JSema implements Sema {
   private final Map<Symbol.TypeSymbol, JInitializerBlockSymbol> staticInitializerBlockSymbols = new HashMap<>();
   private final Map<IAnnotationBinding, JSymbolMetadata.JAnnotationInstance> annotations = new HashMap<>();
   private final Map<String, Type> nameToTypeCache = new HashMap<>();
+  private final Map<ITypeBinding, Map<ITypeBinding, Boolean>> subtypes = new HashMap<>();
+  private int subtypeAnswers;
+  private int subtypeHits;
+  private int subtypeMisses;
 
   JSema(AST ast) {
     this.ast = ast;
@@ -123,6 +133,36 @@ public final class JSema implements Sema {
     });
   }
 
+  /**
+   * Memoized {@link JType#isSubtype(ITypeBinding, ITypeBinding)}, as checks and method matchers ask the same questions
+   * about the same types many times in a file.
+   */
+  boolean isSubtype(ITypeBinding left, ITypeBinding right) {
+    Map<ITypeBinding, Boolean> supertypes = subtypes.get(left);
+    Boolean answer = supertypes != null ? supertypes.get(right) : null;
+    if (answer != null) {
+      subtypeHits++;
+      return answer;
+    }
+    subtypeMisses++;
+    PerformanceMeasure.Duration duration = PerformanceMeasure.start("SubtypeCheck");
+    boolean isSubtype = JType.isSubtype(left, right);
+    duration.stop();
+    if (subtypeAnswers < MAX_SUBTYPE_ANSWERS) {
+      subtypes.computeIfAbsent(left, k -> new HashMap<>()).put(right, isSubtype);
+      subtypeAnswers++;
+    }
+    return isSubtype;
+  }
+
+  int subtypeHits() {
+    return subtypeHits;
+  }
+
+  int subtypeMisses() {
+    return subtypeMisses;
+  }
+
   @Nullable
   ITypeBinding resolveType(String name) {
     int dimensions = 0;
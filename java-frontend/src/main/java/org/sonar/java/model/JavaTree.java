@@ -71,14 +71,18 @@ public abstract class JavaTree implements Tree {
 
   public List<SyntaxToken> allTokens() {
     List<SyntaxToken> list = new ArrayList<>();
+    collectTokens(list);
+    return list;
+  }
+
+  private void collectTokens(List<SyntaxToken> tokens) {
     if (this instanceof SyntaxToken st) {
-      list.add(st);
+      tokens.add(st);
     } else {
-      for (Tree tree : children) {
-        list.addAll(((JavaTree) tree).allTokens());
+      for (Tree tree : getChildren()) {
+        ((JavaTree) tree).collectTokens(tokens);
       }
     }
-    return list;
   }
 
   @Override
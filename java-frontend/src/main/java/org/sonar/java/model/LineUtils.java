@@ -42,11 +42,14 @@ public final class LineUtils {
   }
 
   public static int startLine(SyntaxToken token) {
-    return Position.startOf(token).line();
+    return token.line();
   }
 
+  /**
+   * Only text blocks span several lines: the range of the other tokens is not computed.
+   */
   public static int endLine(SyntaxToken token) {
-    return Position.endOf(token).line();
+    return token.text().startsWith("\"\"\"") ? Position.endOf(token).line() : token.line();
   }
 
   public static int startLine(SyntaxTrivia trivia) {
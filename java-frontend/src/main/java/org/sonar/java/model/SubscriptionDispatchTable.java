@@ -0,0 +1,77 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.sonar.java.ast.visitors.SubscriptionVisitor;
+import org.sonar.plugins.java.api.tree.Tree.Kind;
+
+/**
+ * Subscriptions of a list of visitors, compiled into arrays indexed by {@link Kind#ordinal()} so that dispatching a node
+ * neither looks up a map nor allocates.
+ */
+final class SubscriptionDispatchTable {
+
+  private static final Kind[] KINDS = Kind.values();
+  private static final SubscriptionVisitor[] NO_VISITORS = new SubscriptionVisitor[0];
+
+  private final SubscriptionVisitor[][] visitorsByKind = new SubscriptionVisitor[KINDS.length][];
+  private final boolean tokenInterest;
+  private final boolean nodeInterest;
+
+  /**
+   * @param subscriptions visitors subscribed to each kind, in their order of registration
+   */
+  SubscriptionDispatchTable(Map<Kind, List<SubscriptionVisitor>> subscriptions) {
+    BitSet subscribedKinds = new BitSet(KINDS.length);
+    for (int i = 0; i < KINDS.length; i++) {
+      List<SubscriptionVisitor> subscribed = subscriptions.getOrDefault(KINDS[i], Collections.emptyList());
+      visitorsByKind[i] = subscribed.isEmpty() ? NO_VISITORS : subscribed.toArray(NO_VISITORS);
+      if (!subscribed.isEmpty()) {
+        subscribedKinds.set(i);
+      }
+    }
+    // trivia are dispatched when visiting their token
+    if (subscribedKinds.get(Kind.TRIVIA.ordinal())) {
+      subscribedKinds.set(Kind.TOKEN.ordinal());
+    }
+    tokenInterest = subscribedKinds.get(Kind.TOKEN.ordinal());
+    nodeInterest = !subscribedKinds.isEmpty();
+  }
+
+  SubscriptionVisitor[] visitors(Kind kind) {
+    return visitorsByKind[kind.ordinal()];
+  }
+
+  /**
+   * @return true when some visitor subscribed to tokens or trivia
+   */
+  boolean hasTokenInterest() {
+    return tokenInterest;
+  }
+
+  /**
+   * @return true when some visitor subscribed to at least one kind
+   */
+  boolean hasNodeInterest() {
+    return nodeInterest;
+  }
+
+}
@@ -20,11 +20,17 @@ import com.sonar.sslr.api.RecognitionException;
 import java.io.File;
 import java.io.InterruptedIOException;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.StreamSupport;
@@ -39,7 +45,9 @@ import org.sonar.java.CheckFailureException;
 import org.sonar.java.ExceptionHandler;
 import org.sonar.java.IllegalRuleParameterException;
 import org.sonar.java.SonarComponents;
+import org.sonar.java.annotations.ThreadSafeVisitor;
 import org.sonar.java.annotations.VisibleForTesting;
+import org.sonar.java.ast.visitors.PlatformSubscriptionVisitor;
 import org.sonar.java.ast.visitors.SonarSymbolTableVisitor;
 import org.sonar.java.ast.visitors.SubscriptionVisitor;
 import org.sonar.java.caching.CacheContextImpl;
@@ -58,6 +66,7 @@ import org.sonar.plugins.java.api.internal.EndOfAnalysis;
 import org.sonar.plugins.java.api.semantic.Sema;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.Tree.Kind;
 import org.sonarsource.performance.measure.PerformanceMeasure;
@@ -76,6 +85,17 @@ public class VisitorsBridge {
   protected boolean inAndroidContext = false;
   private int fullyScannedFileCount = 0;
   private int skippedFileCount = 0;
+  private long subtypeHits = 0;
+  private long subtypeMisses = 0;
+  private long ruleTimeBudgetNanos = -1L;
+  private int stoppedRuleCount = 0;
+  @Nullable
+  private ExecutorService syntaxVisitorsExecutor;
+  /**
+   * Runner whose thread-safe visitors are walking the current file on a thread of their own, null when there is none.
+   */
+  @Nullable
+  private PlatformVisitorsRunner concurrentPlatformRunner;
   @VisibleForTesting
   CacheContext cacheContext;
 
@@ -113,18 +133,27 @@ public class VisitorsBridge {
 
   private List<JavaFileScanner> filterVisitors(Iterable<? extends JavaCheck> visitors, Predicate<Object> predicate) {
     List<JavaFileScanner> scanners = new ArrayList<>();
+    final PlatformVisitorsRunner platformRunner = new PlatformVisitorsRunner();
     final IssuableSubscriptionVisitorsRunner runner = new IssuableSubscriptionVisitorsRunner();
 
+    if (sonarComponents != null) {
+      platformRunner.walk.add(new SonarSymbolTableVisitor(sonarComponents));
+    }
     StreamSupport.stream(visitors.spliterator(), false)
       .filter(predicate)
       .forEach(visitor -> {
         if (visitor instanceof IssuableSubscriptionVisitor issuableSubscriptionVisitor) {
           runner.add(issuableSubscriptionVisitor);
+        } else if (visitor instanceof PlatformSubscriptionVisitor platformSubscriptionVisitor) {
+          platformRunner.walk.add(platformSubscriptionVisitor);
         } else if (visitor instanceof JavaFileScanner javaFileScanner) {
           scanners.add(javaFileScanner);
         }
       });
 
+    if (!platformRunner.walk.visitors.isEmpty()) {
+      scanners.add(0, platformRunner);
+    }
     if (!runner.subscriptionVisitors.isEmpty()) {
       scanners.add(runner);
     }
@@ -175,7 +204,18 @@ public class VisitorsBridge {
    * @return True if all scanners successfully scan the file without contents. False otherwise.
    */
   public boolean scanWithoutParsing(InputFile inputFile) {
-    if (sonarComponents != null && sonarComponents.fileCanBeSkipped(inputFile)) {
+    return sonarComponents != null && scanWithoutParsing(inputFile, sonarComponents.fileCanBeSkipped(inputFile));
+  }
+
+  /**
+   * Same as {@link #scanWithoutParsing(InputFile)}, for a file which has already been looked up in the cache.
+   *
+   * @param inputFile        The file to scan
+   * @param fileCanBeSkipped The result of {@link SonarComponents#fileCanBeSkipped(InputFile)} for this file
+   * @return True if all scanners successfully scan the file without contents. False otherwise.
+   */
+  public boolean scanWithoutParsing(InputFile inputFile, boolean fileCanBeSkipped) {
+    if (sonarComponents != null && fileCanBeSkipped) {
       PerformanceMeasure.Duration duration = PerformanceMeasure.start("ScanWithoutParsing");
       boolean allScansSucceeded = true;
 
@@ -237,29 +277,63 @@ public class VisitorsBridge {
     JavaTree.CompilationUnitTreeImpl tree = new JavaTree.CompilationUnitTreeImpl(null, new ArrayList<>(), new ArrayList<>(), null, null);
     compilationUnitDuration.stop();
 
-    PerformanceMeasure.Duration symbolTableDuration = PerformanceMeasure.start("SymbolTable");
     boolean fileParsed = parsedTree != null;
     if (fileParsed && parsedTree.is(Tree.Kind.COMPILATION_UNIT)) {
       tree = (JavaTree.CompilationUnitTreeImpl) parsedTree;
-      createSonarSymbolTable(tree);
     }
-    symbolTableDuration.stop();
 
     JavaFileScannerContext javaFileScannerContext = createScannerContext(tree, tree.sema, sonarComponents, fileParsed);
     var scanners = getScanners(fileCanBeSkipped);
 
     PerformanceMeasure.Duration scannersDuration = PerformanceMeasure.start("Scanners");
-    for (JavaFileScanner scanner : scanners) {
-      PerformanceMeasure.Duration scannerDuration = PerformanceMeasure.start(scanner);
-      try {
-        runScanner(javaFileScannerContext, scanner);
-      } catch (CheckFailureException e) {
-        interruptIfFailFast(e);
-      } finally {
-        scannerDuration.stop();
+    long budgetNanos = ruleTimeBudgetNanos();
+    try {
+      for (JavaFileScanner scanner : scanners) {
+        PerformanceMeasure.Duration scannerDuration = PerformanceMeasure.start(scanner);
+        long start = budgetNanos > 0L ? System.nanoTime() : 0L;
+        try {
+          runScanner(javaFileScannerContext, scanner);
+        } catch (CheckFailureException e) {
+          interruptIfFailFast(e);
+        } finally {
+          scannerDuration.stop();
+        }
+        if (budgetNanos > 0L && System.nanoTime() - start > budgetNanos && !ruleKey(scanner).isEmpty()) {
+          // only subscription visitors can be stopped between two nodes, other rules run to the end of the file
+          LOG.warn("Rule {} exceeded its time budget of {} ms on file '{}'.", ruleKey(scanner), TimeUnit.NANOSECONDS.toMillis(budgetNanos), currentFile);
+        }
+      }
+    } finally {
+      if (concurrentPlatformRunner != null) {
+        PlatformVisitorsRunner platformRunner = concurrentPlatformRunner;
+        concurrentPlatformRunner = null;
+        platformRunner.leaveConcurrentWalk(javaFileScannerContext);
       }
     }
     scannersDuration.stop();
+    if (tree.sema != null) {
+      subtypeHits += tree.sema.subtypeHits();
+      subtypeMisses += tree.sema.subtypeMisses();
+    }
+  }
+
+  /**
+   * @return the time a rule can spend on a file, in nanoseconds, or 0 when the rules are never stopped
+   */
+  private long ruleTimeBudgetNanos() {
+    if (ruleTimeBudgetNanos < 0L) {
+      ruleTimeBudgetNanos = sonarComponents == null ? 0L : TimeUnit.MILLISECONDS.toNanos(sonarComponents.getRuleTimeBudgetPerFileInMillis());
+    }
+    return ruleTimeBudgetNanos;
+  }
+
+  private void ruleStopped(SubscriptionVisitor visitor, long budgetNanos) {
+    stoppedRuleCount++;
+    // the calls of this measure count the stopped rules in the performance report, next to the durations of the rules
+    PerformanceMeasure.start("RuleStoppedByTimeBudget").stop();
+    String ruleKey = ruleKey(visitor);
+    LOG.warn("Rule {} exceeded its time budget of {} ms on file '{}', it is stopped for the rest of the file.",
+      ruleKey.isEmpty() ? visitor.getClass().getName() : ruleKey, TimeUnit.NANOSECONDS.toMillis(budgetNanos), currentFile);
   }
 
   private void interruptIfFailFast(CheckFailureException e) {
@@ -275,26 +349,34 @@ public class VisitorsBridge {
   private void runScanner(Runnable action, JavaFileScanner scanner) throws CheckFailureException {
     try {
       action.run();
-    } catch (IllegalRuleParameterException e) {
+    } catch (RuntimeException e) {
+      throw checkFailure(e, scanner);
+    }
+  }
+
+  /**
+   * @return the failure to report for the given exception thrown by a scanner, unless the analysis has to be interrupted
+   */
+  private CheckFailureException checkFailure(RuntimeException e, JavaFileScanner scanner) {
+    if (e instanceof IllegalRuleParameterException) {
       // bad configuration of a rule parameter, we want to fail analysis fast.
       throw new AnalysisException("Bad configuration of rule parameter", e);
-    } catch (Exception e) {
-      Throwable rootCause = ThrowableUtils.getRootCause(e);
-      if (rootCause instanceof InterruptedIOException
-        || rootCause instanceof InterruptedException
-        || rootCause instanceof CancellationException
-        || analysisCancelled()) {
-        throw e;
-      }
+    }
+    Throwable rootCause = ThrowableUtils.getRootCause(e);
+    if (rootCause instanceof InterruptedIOException
+      || rootCause instanceof InterruptedException
+      || rootCause instanceof CancellationException
+      || analysisCancelled()) {
+      throw e;
+    }
 
-      String message = String.format(
-        "Unable to run check %s - %s on file '%s', To help improve the SonarSource Java Analyzer, please report this problem to SonarSource: see https://community.sonarsource.com/",
-        scanner.getClass(), ruleKey(scanner), currentFile);
+    String message = String.format(
+      "Unable to run check %s - %s on file '%s', To help improve the SonarSource Java Analyzer, please report this problem to SonarSource: see https://community.sonarsource.com/",
+      scanner.getClass(), ruleKey(scanner), currentFile);
 
-      LOG.error(message, e);
+    LOG.error(message, e);
 
-      throw new CheckFailureException(message, e);
-    }
+    return new CheckFailureException(message, e);
   }
 
   private boolean analysisCancelled() {
@@ -340,16 +422,6 @@ public class VisitorsBridge {
     return new DefaultModuleScannerContext(sonarComponents, javaVersion, inAndroidContext, cacheContext);
   }
 
-  private void createSonarSymbolTable(CompilationUnitTree tree) {
-    if (sonarComponents != null
-      && !sonarComponents.isSonarLintContext()
-      // don't provide semantic data (symbol highlighting) to SQ for generated files (jsp)
-      && !(currentFile instanceof GeneratedFile)) {
-      SonarSymbolTableVisitor symVisitor = new SonarSymbolTableVisitor(sonarComponents.symbolizableFor(currentFile));
-      symVisitor.visitCompilationUnit(tree);
-    }
-  }
-
   private List<JavaFileScanner> getScanners(boolean supportedScannersCanBeSkippedForThisFile) {
     return supportedScannersCanBeSkippedForThisFile ? scannersThatCannotBeSkipped : allScanners;
   }
@@ -373,6 +445,18 @@ public class VisitorsBridge {
     } else if (fullyScannedFileCount > 0) {
       LOG.info("Did not optimize analysis for any files, performed a full analysis for all {} files.", fullyScannedFileCount);
     }
+    if (subtypeHits + subtypeMisses > 0) {
+      LOG.debug("Subtype checks: {} answered from the semantic models, {} computed.", subtypeHits, subtypeMisses);
+    }
+    if (stoppedRuleCount > 0) {
+      LOG.warn("Rules were stopped {} times on a file after exceeding their time budget of {} ms.",
+        stoppedRuleCount, TimeUnit.NANOSECONDS.toMillis(ruleTimeBudgetNanos));
+    }
+
+    if (syntaxVisitorsExecutor != null) {
+      syntaxVisitorsExecutor.shutdownNow();
+      syntaxVisitorsExecutor = null;
+    }
 
     var moduleContext = createScannerContext(sonarComponents, javaVersion, inAndroidContext, cacheContext);
 
@@ -383,18 +467,16 @@ public class VisitorsBridge {
   }
 
   private class IssuableSubscriptionVisitorsRunner implements JavaFileScanner, EndOfAnalysis {
-    private EnumMap<Tree.Kind, List<SubscriptionVisitor>> checks;
-    private List<SubscriptionVisitor> subscriptionVisitors;
+    private final SubscriptionWalk walk;
+    private final List<SubscriptionVisitor> subscriptionVisitors;
 
     IssuableSubscriptionVisitorsRunner() {
-      checks = new EnumMap<>(Tree.Kind.class);
-      this.subscriptionVisitors = new ArrayList<>();
+      this.walk = new SubscriptionWalk(false);
+      this.subscriptionVisitors = walk.visitors;
     }
 
     private void add(SubscriptionVisitor subscriptionVisitor) {
-      this.subscriptionVisitors.add(subscriptionVisitor);
-      subscriptionVisitor.nodesToVisit()
-        .forEach(k -> checks.computeIfAbsent(k, key -> new ArrayList<>()).add(subscriptionVisitor));
+      walk.add(subscriptionVisitor);
     }
 
     @Override
@@ -423,10 +505,11 @@ public class VisitorsBridge {
     @Override
     public void scanFile(JavaFileScannerContext javaFileScannerContext) {
       PerformanceMeasure.Duration issuableSubscriptionVisitorsDuration = PerformanceMeasure.start("IssuableSubscriptionVisitors");
+      // visitors are measured only when the performance measure is active, sparing the cost of a duration per callback
+      boolean measured = !(issuableSubscriptionVisitorsDuration instanceof PerformanceMeasure.IgnoredDuration);
       try {
-        forEach(subscriptionVisitors, s -> s.setContext(javaFileScannerContext));
-        visit(javaFileScannerContext.getTree());
-        forEach(subscriptionVisitors, s -> s.leaveFile(javaFileScannerContext));
+        walk.budgetNanos = ruleTimeBudgetNanos();
+        walk.scanFile(javaFileScannerContext, measured);
       } catch (CheckFailureException e) {
         interruptIfFailFast(e);
       } finally {
@@ -441,44 +524,348 @@ public class VisitorsBridge {
         .map(EndOfAnalysis.class::cast)
         .forEach(check -> check.endOfAnalysis(cachedContext));
     }
+  }
+
+  /**
+   * Runs the {@link PlatformSubscriptionVisitor}s, which compute the measures, lines, highlighting and symbols of a file, in a single walk.
+   * As when each of them scanned the file on its own, a failing visitor does not prevent the others from saving their data.
+   * <p>
+   * When concurrent syntax visitors are enabled, the visitors annotated with {@link ThreadSafeVisitor} walk the file in a second
+   * walk, on a thread of its own, while the other visitors and the rules run on the analysis thread. They still enter and leave the
+   * file on the analysis thread, the latter once all the scanners have run, so their data is saved from the analysis thread. These
+   * visitors raise no issue: the issues of the rules are reported as without them.
+   */
+  private class PlatformVisitorsRunner implements JavaFileScanner {
+    private final SubscriptionWalk walk = new SubscriptionWalk(true);
+    @Nullable
+    private SubscriptionWalk concurrentWalk;
+    @Nullable
+    private Future<Void> concurrentVisit;
+    private boolean walksSplit = false;
+
+    @Override
+    public void scanFile(JavaFileScannerContext javaFileScannerContext) {
+      PerformanceMeasure.Duration platformVisitorsDuration = PerformanceMeasure.start("PlatformVisitors");
+      boolean measured = !(platformVisitorsDuration instanceof PerformanceMeasure.IgnoredDuration);
+      try {
+        if (concurrentWalk() != null) {
+          startConcurrentWalk(javaFileScannerContext);
+        }
+        walk.scanFile(javaFileScannerContext, measured);
+      } catch (CheckFailureException e) {
+        interruptIfFailFast(e);
+      } finally {
+        platformVisitorsDuration.stop();
+      }
+    }
+
+    /**
+     * Moves the thread-safe visitors to a walk of their own, the first time a file is scanned with concurrent syntax visitors enabled.
+     */
+    @Nullable
+    private SubscriptionWalk concurrentWalk() {
+      if (!walksSplit) {
+        walksSplit = true;
+        if (sonarComponents != null && sonarComponents.isConcurrentSyntaxVisitorsEnabled()) {
+          List<SubscriptionVisitor> threadSafeVisitors = walk.visitors.stream()
+            .filter(visitor -> AnnotationUtils.getAnnotation(visitor.getClass(), ThreadSafeVisitor.class) != null)
+            .toList();
+          if (!threadSafeVisitors.isEmpty()) {
+            concurrentWalk = new SubscriptionWalk(true);
+            threadSafeVisitors.forEach(concurrentWalk::add);
+            walk.remove(threadSafeVisitors);
+          }
+        }
+      }
+      return concurrentWalk;
+    }
+
+    private void startConcurrentWalk(JavaFileScannerContext javaFileScannerContext) throws CheckFailureException {
+      SubscriptionWalk threadSafeWalk = concurrentWalk;
+      // the performance measure is bound to the analysis thread: the concurrent walk is not measured
+      threadSafeWalk.enterFile(javaFileScannerContext, false);
+      if (currentFile != null) {
+        // the metadata of the file, lazily computed, are used to locate the data of the visitors
+        currentFile.lines();
+      }
+      Tree tree = javaFileScannerContext.getTree();
+      concurrentVisit = syntaxVisitorsExecutor().submit(() -> {
+        threadSafeWalk.walk(tree);
+        return null;
+      });
+      concurrentPlatformRunner = this;
+    }
+
+    private void leaveConcurrentWalk(JavaFileScannerContext javaFileScannerContext) {
+      PerformanceMeasure.Duration platformVisitorsDuration = PerformanceMeasure.start("PlatformVisitors");
+      try {
+        concurrentVisit.get();
+        concurrentWalk.leaveFile(javaFileScannerContext);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new AnalysisException("Analysis cancelled", e);
+      } catch (ExecutionException e) {
+        // rethrown on the analysis thread, as if the visitors had walked the file on it
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+          throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+          throw error;
+        }
+        throw new AnalysisException("Unable to run the syntax visitors on file " + currentFile, cause);
+      } catch (CheckFailureException e) {
+        interruptIfFailFast(e);
+      } finally {
+        concurrentVisit = null;
+        platformVisitorsDuration.stop();
+      }
+    }
+  }
+
+  private synchronized ExecutorService syntaxVisitorsExecutor() {
+    if (syntaxVisitorsExecutor == null) {
+      syntaxVisitorsExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Java syntax visitors");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return syntaxVisitorsExecutor;
+  }
+
+  /**
+   * Walk of a syntax tree, dispatching each node to the subscription visitors interested in its kind.
+   */
+  private final class SubscriptionWalk {
+    private static final int VISIT_NODE = 0;
+    private static final int LEAVE_NODE = 1;
+    private static final int VISIT_TOKEN = 2;
+    private static final int VISIT_TRIVIA = 3;
+
+    private final Map<Tree.Kind, List<SubscriptionVisitor>> checks = new EnumMap<>(Tree.Kind.class);
+    private final List<SubscriptionVisitor> visitors = new ArrayList<>();
+    @Nullable
+    private SubscriptionDispatchTable dispatchTable;
+    private boolean measured;
+    /**
+     * Time each visitor can spend on a file, 0 when the visitors are never stopped.
+     */
+    private long budgetNanos;
+    private final Map<SubscriptionVisitor, Long> spentNanos = new IdentityHashMap<>();
+    /**
+     * When true, a failing visitor is not called anymore on the current file, while the walk goes on for the other visitors.
+     * Otherwise, the failure stops the walk.
+     */
+    private final boolean isolatingFailures;
+    private final Map<SubscriptionVisitor, CheckFailureException> failures = new IdentityHashMap<>();
+
+    private SubscriptionWalk(boolean isolatingFailures) {
+      this.isolatingFailures = isolatingFailures;
+    }
+
+    private void add(SubscriptionVisitor subscriptionVisitor) {
+      this.visitors.add(subscriptionVisitor);
+      subscriptionVisitor.nodesToVisit()
+        .forEach(k -> checks.computeIfAbsent(k, key -> new ArrayList<>()).add(subscriptionVisitor));
+      dispatchTable = null;
+    }
+
+    private SubscriptionDispatchTable dispatchTable() {
+      if (dispatchTable == null) {
+        dispatchTable = new SubscriptionDispatchTable(checks);
+      }
+      return dispatchTable;
+    }
+
+    private void remove(List<SubscriptionVisitor> removedVisitors) {
+      visitors.removeAll(removedVisitors);
+      checks.values().forEach(subscribed -> subscribed.removeAll(removedVisitors));
+      checks.values().removeIf(List::isEmpty);
+      dispatchTable = null;
+    }
 
-    private void visitChildren(Tree tree) throws CheckFailureException {
+    private void scanFile(JavaFileScannerContext javaFileScannerContext, boolean measured) throws CheckFailureException {
+      enterFile(javaFileScannerContext, measured);
+      walk(javaFileScannerContext.getTree());
+      leaveFile(javaFileScannerContext);
+    }
+
+    private void enterFile(JavaFileScannerContext javaFileScannerContext, boolean measured) throws CheckFailureException {
+      this.measured = measured;
+      spentNanos.clear();
+      failures.clear();
+      forEach(visitors, s -> s.setContext(javaFileScannerContext));
+    }
+
+    private void walk(Tree tree) throws CheckFailureException {
+      SubscriptionDispatchTable table = dispatchTable();
+      if (table.hasTokenInterest()) {
+        visit(table, tree);
+      } else if (table.hasNodeInterest()) {
+        visitNodes(tree);
+      }
+    }
+
+    private void visit(SubscriptionDispatchTable table, Tree tree) throws CheckFailureException {
+      Kind kind = tree.kind();
+      if (kind == Tree.Kind.TOKEN) {
+        visitToken(table, (SyntaxToken) tree);
+        return;
+      }
+      SubscriptionVisitor[] subscribed = table.visitors(kind);
+      dispatch(subscribed, VISIT_NODE, tree);
       JavaTree javaTree = (JavaTree) tree;
       if (!javaTree.isLeaf()) {
         for (Tree next : javaTree.getChildren()) {
           if (next != null) {
-            visit(next);
+            visit(table, next);
           }
         }
       }
+      dispatch(subscribed, LEAVE_NODE, tree);
     }
 
-    private void visit(Tree tree) throws CheckFailureException {
-      Kind kind = tree.kind();
-      List<SubscriptionVisitor> subscribed = checks.getOrDefault(kind, Collections.emptyList());
-      Consumer<SubscriptionVisitor> callback;
-      boolean isToken = (kind == Tree.Kind.TOKEN);
-      if (isToken) {
-        callback = s -> s.visitToken((SyntaxToken) tree);
-      } else {
-        callback = s -> s.visitNode(tree);
+    /**
+     * Walk through the subscriptions by kind, for visitors which did not subscribe to tokens nor trivia: tokens are not
+     * visited, and this walk is faster than through the dispatch table in that case.
+     */
+    private void visitNodes(Tree tree) throws CheckFailureException {
+      List<SubscriptionVisitor> subscribed = checks.getOrDefault(tree.kind(), Collections.emptyList());
+      dispatch(subscribed, VISIT_NODE, tree);
+      JavaTree javaTree = (JavaTree) tree;
+      if (!javaTree.isLeaf()) {
+        for (Tree next : javaTree.getChildren()) {
+          if (next != null && next.kind() != Tree.Kind.TOKEN) {
+            visitNodes(next);
+          }
+        }
       }
-      forEach(subscribed, callback);
-      if (isToken) {
-        forEach(checks.getOrDefault(Tree.Kind.TRIVIA, Collections.emptyList()), s -> ((SyntaxToken) tree).trivias().forEach(s::visitTrivia));
-      } else {
-        visitChildren(tree);
+      dispatch(subscribed, LEAVE_NODE, tree);
+    }
+
+    private void visitToken(SubscriptionDispatchTable table, SyntaxToken token) throws CheckFailureException {
+      dispatch(table.visitors(Tree.Kind.TOKEN), VISIT_TOKEN, token);
+      dispatch(table.visitors(Tree.Kind.TRIVIA), VISIT_TRIVIA, token);
+    }
+
+    private void dispatch(SubscriptionVisitor[] subscribed, int callback, Tree tree) throws CheckFailureException {
+      for (SubscriptionVisitor visitor : subscribed) {
+        dispatchMeasured(visitor, callback, tree);
       }
-      if (!isToken) {
-        forEach(subscribed, s -> s.leaveNode(tree));
+    }
+
+    private void dispatch(List<SubscriptionVisitor> subscribed, int callback, Tree tree) throws CheckFailureException {
+      for (int i = 0; i < subscribed.size(); i++) {
+        dispatchMeasured(subscribed.get(i), callback, tree);
       }
     }
 
-    private final void forEach(Collection<SubscriptionVisitor> visitors, Consumer<SubscriptionVisitor> callback) throws CheckFailureException {
+    /**
+     * Visitors stopped by their budget still leave the file, so that they reset the state they keep for the file.
+     */
+    private void leaveFile(JavaFileScannerContext javaFileScannerContext) throws CheckFailureException {
       for (SubscriptionVisitor visitor : visitors) {
-        PerformanceMeasure.Duration visitorDuration = PerformanceMeasure.start(visitor);
-        runScanner(() -> callback.accept(visitor), visitor);
-        visitorDuration.stop();
+        if (!isFailed(visitor)) {
+          call(visitor, s -> s.leaveFile(javaFileScannerContext), !isStopped(visitor));
+        }
+      }
+      for (CheckFailureException failure : failures.values()) {
+        interruptIfFailFast(failure);
+      }
+    }
+
+    private void dispatchMeasured(SubscriptionVisitor visitor, int callback, Tree tree) throws CheckFailureException {
+      if (isSkipped(visitor)) {
+        return;
+      }
+      PerformanceMeasure.Duration visitorDuration = measured ? PerformanceMeasure.start(visitor) : null;
+      long start = budgetNanos > 0L ? System.nanoTime() : 0L;
+      try {
+        dispatch(visitor, callback, tree);
+      } catch (RuntimeException e) {
+        fail(visitor, e);
+      } finally {
+        if (visitorDuration != null) {
+          visitorDuration.stop();
+        }
+      }
+      if (budgetNanos > 0L) {
+        spend(visitor, System.nanoTime() - start);
+      }
+    }
+
+    private boolean isSkipped(SubscriptionVisitor visitor) {
+      return isStopped(visitor) || isFailed(visitor);
+    }
+
+    private boolean isStopped(SubscriptionVisitor visitor) {
+      return budgetNanos > 0L && spentNanos.getOrDefault(visitor, 0L) > budgetNanos;
+    }
+
+    private boolean isFailed(SubscriptionVisitor visitor) {
+      return !failures.isEmpty() && failures.containsKey(visitor);
+    }
+
+    private void fail(SubscriptionVisitor visitor, RuntimeException e) throws CheckFailureException {
+      CheckFailureException failure = checkFailure(e, visitor);
+      if (!isolatingFailures) {
+        throw failure;
+      }
+      failures.put(visitor, failure);
+    }
+
+    /**
+     * A visitor exceeding its budget is not called anymore on the current file, except for {@code leaveFile}.
+     */
+    private void spend(SubscriptionVisitor visitor, long nanos) {
+      long spent = spentNanos.merge(visitor, nanos, Long::sum);
+      if (spent > budgetNanos) {
+        ruleStopped(visitor, budgetNanos);
+      }
+    }
+
+    private void dispatch(SubscriptionVisitor visitor, int callback, Tree tree) {
+      switch (callback) {
+        case VISIT_NODE:
+          visitor.visitNode(tree);
+          break;
+        case LEAVE_NODE:
+          visitor.leaveNode(tree);
+          break;
+        case VISIT_TOKEN:
+          visitor.visitToken((SyntaxToken) tree);
+          break;
+        default:
+          for (SyntaxTrivia trivia : ((SyntaxToken) tree).trivias()) {
+            visitor.visitTrivia(trivia);
+          }
+          break;
+      }
+    }
+
+    private void forEach(List<SubscriptionVisitor> visitors, Consumer<SubscriptionVisitor> callback) throws CheckFailureException {
+      for (SubscriptionVisitor visitor : visitors) {
+        if (!isSkipped(visitor)) {
+          call(visitor, callback, true);
+        }
+      }
+    }
+
+    private void call(SubscriptionVisitor visitor, Consumer<SubscriptionVisitor> callback, boolean spending) throws CheckFailureException {
+      PerformanceMeasure.Duration visitorDuration = measured ? PerformanceMeasure.start(visitor) : null;
+      long start = budgetNanos > 0L ? System.nanoTime() : 0L;
+      try {
+        callback.accept(visitor);
+      } catch (RuntimeException e) {
+        fail(visitor, e);
+      } finally {
+        if (visitorDuration != null) {
+          visitorDuration.stop();
+        }
+      }
+      if (spending && budgetNanos > 0L) {
+        spend(visitor, System.nanoTime() - start);
       }
     }
   }
@@ -0,0 +1,161 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.eclipse.jdt.core.dom;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.jdt.core.JavaCore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClasspathEnvironmentTest {
+
+  private static final String PROJECT_JAR = "src/test/files/other/project.jar";
+  private static final String SOURCE = "package foo.bar;\n"
+    + "import org.foo.A;\n"
+    + "class B {\n"
+    + "  int m(A a) { return a.foo(true); }\n"
+    + "}";
+
+  @TempDir
+  Path temp;
+
+  @Test
+  void should_resolve_types_of_the_classpath_like_ast_parser() {
+    ClasspathEnvironment environment = new ClasspathEnvironment();
+    CompilationUnit expected = createAST(ASTParser.newParser(AST.getJLSLatest()), PROJECT_JAR);
+    CompilationUnit actual = createAST(environment.newParser(AST.getJLSLatest()), PROJECT_JAR);
+
+    assertThat(returnType(actual)).isEqualTo(returnType(expected)).isEqualTo("int");
+    assertThat(actual.getProblems()).hasSameSizeAs(expected.getProblems());
+  }
+
+  @Test
+  void should_index_each_jar_once() {
+    ClasspathEnvironment environment = new ClasspathEnvironment();
+    createAST(environment.newParser(AST.getJLSLatest()), PROJECT_JAR);
+    createAST(environment.newParser(AST.getJLSLatest()), PROJECT_JAR);
+    createAST(environment.newParser(AST.getJLSLatest()), PROJECT_JAR, "src/test/files/other/lib");
+
+    assertThat(environment.indexedJars()).isEqualTo(1);
+  }
+
+  @Test
+  void should_look_up_packages_of_jars_before_scanning_them() {
+    List<File> lookedUpJars = new ArrayList<>();
+    ClasspathEnvironment environment = new ClasspathEnvironment((jar, scanner) -> {
+      lookedUpJars.add(jar);
+      return scanner.apply(jar);
+    });
+    createAST(environment.newParser(AST.getJLSLatest()), PROJECT_JAR);
+    createAST(environment.newParser(AST.getJLSLatest()), PROJECT_JAR);
+
+    assertThat(lookedUpJars).extracting(File::getName).containsExactly("project.jar");
+  }
+
+  @Test
+  void should_count_types_looked_up_in_jars() {
+    ASTParser parser = new ClasspathEnvironment().newParser(AST.getJLSLatest());
+    assertThat(ClasspathEnvironment.jarLookups(parser)).isZero();
+
+    createAST(parser, PROJECT_JAR);
+    assertThat(ClasspathEnvironment.jarLookups(parser)).isPositive();
+    assertThat(ClasspathEnvironment.jarLookups(ASTParser.newParser(AST.getJLSLatest()))).isZero();
+  }
+
+  @Test
+  void should_release_jars_when_environment_is_cleaned() throws IOException {
+    Path jar = temp.resolve("project.jar");
+    Files.copy(Path.of(PROJECT_JAR), jar);
+    ClasspathEnvironment environment = new ClasspathEnvironment();
+
+    CompilationUnit first = createAST(environment.newParser(AST.getJLSLatest()), jar.toString());
+    ASTUtils.getEnvironmentCleaner(first.getAST()).run();
+    // the index survives the cleaning of the first environment
+    CompilationUnit second = createAST(environment.newParser(AST.getJLSLatest()), jar.toString());
+    assertThat(returnType(second)).isEqualTo("int");
+    ASTUtils.getEnvironmentCleaner(second.getAST()).run();
+
+    Files.delete(jar);
+    assertThat(jar).doesNotExist();
+  }
+
+  @Test
+  void should_create_asts_of_source_files() throws IOException {
+    Path source = temp.resolve("B.java");
+    Files.writeString(source, SOURCE, StandardCharsets.UTF_8);
+    ASTParser parser = configure(new ClasspathEnvironment().newParser(AST.getJLSLatest()), PROJECT_JAR);
+    List<CompilationUnit> units = new ArrayList<>();
+
+    parser.createASTs(new String[] {source.toString()}, new String[] {"UTF-8"}, new String[0], new FileASTRequestor() {
+      @Override
+      public void acceptAST(String sourceFilePath, CompilationUnit ast) {
+        units.add(ast);
+      }
+    }, null);
+
+    assertThat(units).hasSize(1);
+    assertThat(returnType(units.get(0))).isEqualTo("int");
+  }
+
+  @Test
+  void should_behave_like_ast_parser_without_bindings() {
+    ASTParser parser = new ClasspathEnvironment().newParser(AST.getJLSLatest());
+    parser.setSource(SOURCE.toCharArray());
+
+    CompilationUnit unit = (CompilationUnit) parser.createAST(null);
+
+    assertThat(unit.types()).hasSize(1);
+    assertThat(((TypeDeclaration) unit.types().get(0)).getMethods()[0].resolveBinding()).isNull();
+  }
+
+  private static CompilationUnit createAST(ASTParser parser, String... classpath) {
+    configure(parser, classpath);
+    parser.setUnitName("B.java");
+    parser.setSource(SOURCE.toCharArray());
+    return (CompilationUnit) parser.createAST(null);
+  }
+
+  private static ASTParser configure(ASTParser parser, String... classpath) {
+    Map<String, String> options = new HashMap<>(JavaCore.getOptions());
+    JavaCore.setComplianceOptions("17", options);
+    parser.setCompilerOptions(options);
+    String[] entries = new String[classpath.length];
+    for (int i = 0; i < classpath.length; i++) {
+      entries[i] = new File(classpath[i]).getAbsolutePath();
+    }
+    parser.setEnvironment(entries, new String[0], new String[0], true);
+    parser.setResolveBindings(true);
+    parser.setBindingsRecovery(true);
+    return parser;
+  }
+
+  private static String returnType(CompilationUnit unit) {
+    TypeDeclaration type = (TypeDeclaration) unit.types().get(0);
+    return type.getMethods()[0].resolveBinding().getReturnType().getQualifiedName();
+  }
+
+}
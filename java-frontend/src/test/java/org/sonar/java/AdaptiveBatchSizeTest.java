@@ -0,0 +1,135 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.event.Level;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveBatchSizeTest {
+
+  @RegisterExtension
+  public LogTesterJUnit5 logTester = new LogTesterJUnit5().setLevel(Level.DEBUG);
+
+  private final FakeHeapMonitor heap = new FakeHeapMonitor();
+
+  @Test
+  void batch_size_grows_up_to_the_maximum_when_the_heap_is_comfortable() {
+    AdaptiveBatchSize adaptiveBatchSize = new AdaptiveBatchSize(100_000L, 200_000L, heap);
+    heap.usedAfterGc = 100L;
+
+    assertThat(scanBatch(adaptiveBatchSize)).isEqualTo(150_000L);
+    assertThat(scanBatch(adaptiveBatchSize)).isEqualTo(200_000L);
+    assertThat(scanBatch(adaptiveBatchSize)).isEqualTo(200_000L);
+    assertThat(logTester.logs(Level.DEBUG))
+      .containsExactly(
+        "Batch size increased from 100 KB to 150 KB: heap usage after GC 10%, GC time 0% of the last batch.",
+        "Batch size increased from 150 KB to 200 KB: heap usage after GC 10%, GC time 0% of the last batch.");
+  }
+
+  @Test
+  void batch_size_shrinks_down_to_the_minimum_when_the_heap_is_almost_full() {
+    AdaptiveBatchSize adaptiveBatchSize = new AdaptiveBatchSize(30_000L, 500_000L, heap);
+    heap.usedAfterGc = 800L;
+
+    assertThat(scanBatch(adaptiveBatchSize)).isEqualTo(15_000L);
+    assertThat(scanBatch(adaptiveBatchSize)).isEqualTo(AdaptiveBatchSize.MIN_BATCH_SIZE_IN_BYTES);
+    assertThat(scanBatch(adaptiveBatchSize)).isEqualTo(AdaptiveBatchSize.MIN_BATCH_SIZE_IN_BYTES);
+    assertThat(logTester.logs(Level.DEBUG))
+      .containsExactly(
+        "Batch size decreased from 30 KB to 15 KB: heap usage after GC 80%, GC time 0% of the last batch.",
+        "Batch size decreased from 15 KB to 10 KB: heap usage after GC 80%, GC time 0% of the last batch.");
+
+    adaptiveBatchSize.logSummary();
+    assertThat(logTester.logs(Level.INFO)).containsExactly("Adaptive batch size ranged from 10 KB to 30 KB.");
+  }
+
+  @Test
+  void batch_size_shrinks_when_the_batch_is_spent_in_garbage_collection() {
+    AdaptiveBatchSize adaptiveBatchSize = new AdaptiveBatchSize(100_000L, 500_000L, heap);
+    heap.usedAfterGc = 100L;
+    heap.gcTimePerBatchInMillis = 1_000_000L;
+
+    assertThat(scanBatch(adaptiveBatchSize)).isEqualTo(50_000L);
+    assertThat(logTester.logs(Level.DEBUG))
+      .containsExactly("Batch size decreased from 100 KB to 50 KB: heap usage after GC 10%, GC time 100% of the last batch.");
+  }
+
+  @Test
+  void batch_size_is_kept_when_the_heap_is_moderately_used() {
+    AdaptiveBatchSize adaptiveBatchSize = new AdaptiveBatchSize(100_000L, 500_000L, heap);
+    heap.usedAfterGc = 600L;
+
+    assertThat(scanBatch(adaptiveBatchSize)).isEqualTo(100_000L);
+    assertThat(logTester.logs(Level.DEBUG)).isEmpty();
+  }
+
+  @Test
+  void batch_size_has_a_minimum() {
+    AdaptiveBatchSize adaptiveBatchSize = new AdaptiveBatchSize(0L, 0L, heap);
+    assertThat(adaptiveBatchSize.batchSizeInBytes()).isEqualTo(AdaptiveBatchSize.MIN_BATCH_SIZE_IN_BYTES);
+
+    heap.usedAfterGc = 100L;
+    assertThat(scanBatch(adaptiveBatchSize)).isEqualTo(AdaptiveBatchSize.MIN_BATCH_SIZE_IN_BYTES);
+  }
+
+  @Test
+  void batch_size_is_adapted_to_the_heap_of_the_running_jvm() {
+    AdaptiveBatchSize adaptiveBatchSize = AdaptiveBatchSize.create(100_000L, 500_000L);
+    adaptiveBatchSize.startBatch();
+    assertThat(adaptiveBatchSize.endBatch()).isBetween(AdaptiveBatchSize.MIN_BATCH_SIZE_IN_BYTES, 500_000L);
+  }
+
+  @Test
+  void heap_used_after_gc_is_read_from_the_most_recent_collection() {
+    AdaptiveBatchSize.ManagementHeapMonitor monitor = new AdaptiveBatchSize.ManagementHeapMonitor();
+    System.gc();
+    assertThat(monitor.usedAfterGc()).isPositive().isLessThanOrEqualTo(monitor.max());
+    assertThat(monitor.gcTimeInMillis()).isNotNegative();
+  }
+
+  private long scanBatch(AdaptiveBatchSize adaptiveBatchSize) {
+    adaptiveBatchSize.startBatch();
+    heap.gcTimeInMillis += heap.gcTimePerBatchInMillis;
+    return adaptiveBatchSize.endBatch();
+  }
+
+  private static class FakeHeapMonitor implements AdaptiveBatchSize.HeapMonitor {
+    long usedAfterGc = 0L;
+    long gcTimeInMillis = 0L;
+    long gcTimePerBatchInMillis = 0L;
+
+    @Override
+    public long usedAfterGc() {
+      return usedAfterGc;
+    }
+
+    @Override
+    public long max() {
+      return 1_000L;
+    }
+
+    @Override
+    public long gcTimeInMillis() {
+      return gcTimeInMillis;
+    }
+  }
+
+}
@@ -57,6 +57,7 @@ import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.api.utils.Version;
 import org.sonar.java.classpath.ClasspathForMain;
 import org.sonar.java.classpath.ClasspathForTest;
+import org.sonar.java.classpath.PersistentJarIndex;
 import org.sonar.java.exceptions.ApiMismatchException;
 import org.sonar.java.filters.SonarJavaIssueFilter;
 import org.sonar.java.model.JavaVersionImpl;
@@ -67,6 +68,7 @@ import org.sonar.plugins.java.api.JavaVersion;
 import org.sonar.plugins.java.api.ModuleScannerContext;
 import org.sonar.plugins.java.api.internal.EndOfAnalysis;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonarsource.performance.measure.PerformanceMeasure;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -102,6 +104,7 @@ class JavaFrontendTest {
   private FileLinesContext fileLinesContext;
   private ClasspathForMain javaClasspath;
   private ClasspathForTest javaTestClasspath;
+  private List<File> mainClasspath = Collections.emptyList();
   private TestIssueFilter mainCodeIssueScannerAndFilter = new TestIssueFilter();
   private TestIssueFilter testCodeIssueScannerAndFilter = new TestIssueFilter();
 
@@ -493,6 +496,85 @@ class JavaFrontendTest {
     assertThat(mainCodeIssueScannerAndFilter.endOfAnalysisInvocationCount).isEqualTo(1);
   }
 
+  @Test
+  void test_batches_scanned_in_parallel() throws IOException {
+    MapSettings settings = new MapSettings();
+    settings.setProperty(SonarComponents.SONAR_BATCH_SIZE_KEY, 0L);
+    settings.setProperty(SonarComponents.SONAR_BATCH_MODE_THREADS_KEY, 2);
+    scan(settings, SONARQUBE_RUNTIME, "class A {}", "class B { A a; }", "class C {}");
+    assertThat(sensorContext.allAnalysisErrors()).isEmpty();
+    assertThat(mainCodeIssueScannerAndFilter.scanFileInvocationCount).isEqualTo(3);
+    assertThat(mainCodeIssueScannerAndFilter.endOfAnalysisInvocationCount).isEqualTo(1);
+    assertThat(logTester.logs(Level.INFO))
+      .contains("Using ECJ batch to parse 3 Main java source files with batch size 0 KB on 2 threads.")
+      .anyMatch(log -> log.startsWith("Parallel batch mode analyzed 3 batches in "));
+    assertThat(logTester.logs(Level.INFO).stream().filter("Starting batch processing."::equals)).hasSize(1);
+    assertThat(logTester.logs(Level.INFO).stream().filter("100% analyzed"::equals)).hasSize(1);
+    assertThat(logTester.logs(Level.INFO).stream().filter("Batch processing: Done."::equals)).hasSize(1);
+  }
+
+  @Test
+  void files_of_parallel_batches_are_scanned_in_the_order_of_the_batches() throws IOException {
+    String[] sources = {"class A {}", "class B { A a; }", "class C {}", "class D { C c; }", "class E {}", "class F {}"};
+    MapSettings settings = new MapSettings();
+    settings.setProperty(SonarComponents.SONAR_BATCH_SIZE_KEY, 0L);
+    List<InputFile> inputFiles = scan(settings, SONARQUBE_RUNTIME, sources);
+    List<String> sequentialOrder = List.copyOf(mainCodeIssueScannerAndFilter.scannedFiles);
+
+    mainCodeIssueScannerAndFilter = new TestIssueFilter();
+    settings.setProperty(SonarComponents.SONAR_BATCH_MODE_THREADS_KEY, 3);
+    scan(settings, SONARQUBE_RUNTIME, inputFiles);
+    assertThat(mainCodeIssueScannerAndFilter.scannedFiles).hasSize(6).isEqualTo(sequentialOrder);
+  }
+
+  @Test
+  void batch_size_is_divided_between_the_threads_and_not_adapted() throws IOException {
+    MapSettings settings = new MapSettings();
+    settings.setProperty(SonarComponents.SONAR_BATCH_SIZE_KEY, 1000L);
+    settings.setProperty(SonarComponents.SONAR_BATCH_MODE_THREADS_KEY, 4);
+    settings.setProperty(SonarComponents.SONAR_ADAPTIVE_BATCH_SIZE_KEY, true);
+    scan(settings, SONARQUBE_RUNTIME, "class A {}", "class B extends A {}");
+    assertThat(logTester.logs(Level.INFO))
+      .contains("Using ECJ batch to parse 2 Main java source files with batch size 250 KB on 4 threads.")
+      .noneMatch(log -> log.startsWith("Adaptive batch size"));
+    assertThat(logTester.logs(Level.WARN))
+      .contains("The adaptive batch size is not supported with several threads, the batch size is fixed.");
+  }
+
+  @Test
+  void durations_measured_by_parallel_workers_are_recorded() throws IOException {
+    File performanceFile = new File(temp.getRoot(), "performance.measure.json");
+    MapSettings settings = new MapSettings();
+    settings.setProperty(SonarComponents.SONAR_BATCH_SIZE_KEY, 0L);
+    settings.setProperty(SonarComponents.SONAR_BATCH_MODE_THREADS_KEY, 2);
+    PerformanceMeasure.Duration sensorDuration = PerformanceMeasure.reportBuilder()
+      .activate(true)
+      .toFile(performanceFile.getAbsolutePath())
+      .start("JavaSensor");
+    try {
+      scan(settings, SONARQUBE_RUNTIME, "class A {}", "class B { A a; }", "class C {}");
+    } finally {
+      sensorDuration.stop();
+    }
+    assertThat(Files.asCharSource(performanceFile, StandardCharsets.UTF_8).read())
+      .contains("\"ParallelBatches\"", "\"ParallelWorkers\"", "\"ParseAsBatch\"", "\"WaitForScan\"", "\"Main\"");
+  }
+
+  @Test
+  void exceptions_outside_rules_in_parallel_batch_mode_should_interrupt_analysis_if_fail_fast() {
+    MapSettings settings = new MapSettings();
+    settings.setProperty(SonarComponents.SONAR_BATCH_SIZE_KEY, 0L);
+    settings.setProperty(SonarComponents.SONAR_BATCH_MODE_THREADS_KEY, 2);
+    settings.setProperty("sonar.internal.analysis.failFast", "true");
+    InputFile brokenFile = mock(InputFile.class);
+    when(brokenFile.charset()).thenThrow(new NullPointerException());
+    List<InputFile> inputFiles = List.of(brokenFile, brokenFile);
+    assertThatThrownBy(() -> scan(settings, SONARQUBE_RUNTIME, inputFiles))
+      .isInstanceOf(AnalysisException.class)
+      .hasMessage("Batch Mode failed, analysis of Java Files stopped.")
+      .hasCauseInstanceOf(NullPointerException.class);
+  }
+
   @Test
   void should_handle_analysis_cancellation() throws IOException {
     mainCodeIssueScannerAndFilter.isCancelled = true;
@@ -654,7 +736,30 @@ class JavaFrontendTest {
     String allLogs = String.join("\n", logTester.logs());
     assertThat(allLogs)
       .doesNotContain("Unresolved imports/types")
-      .containsOnlyOnce("Using ECJ batch to parse 2 Main java source files with batch size 1 KB.");
+      .containsOnlyOnce("Using ECJ batch to parse 2 Main java source files with batch size 1 KB.")
+      .containsPattern("Batch of 2 files looked up \\d+ types in the jars of the classpath.");
+  }
+
+  @Test
+  void test_scan_as_batch_adapts_the_batch_size_when_enabled() throws IOException {
+    MapSettings settings = new MapSettings()
+      .setProperty(SonarComponents.SONAR_ADAPTIVE_BATCH_SIZE_KEY, true);
+    logTester.setLevel(Level.DEBUG);
+    scan(settings, SONARQUBE_RUNTIME, "class A {}", "class B extends A {}");
+    String allLogs = String.join("\n", logTester.logs());
+    assertThat(allLogs)
+      .containsPattern("Using ECJ batch to parse 2 Main java source files with an initial batch size of \\d+ KB, adapted to the heap usage after each batch.")
+      .containsPattern("Adaptive batch size ranged from \\d+ KB to \\d+ KB.");
+  }
+
+  @Test
+  void test_scan_as_batch_keeps_the_computed_batch_size_by_default() throws IOException {
+    logTester.setLevel(Level.DEBUG);
+    scan(new MapSettings(), SONARQUBE_RUNTIME, "class A {}", "class B extends A {}");
+    String allLogs = String.join("\n", logTester.logs());
+    assertThat(allLogs)
+      .containsPattern("Using ECJ batch to parse 2 Main java source files with batch size \\d+ KB.")
+      .doesNotContain("Adaptive batch size");
   }
 
   @Test
@@ -790,6 +895,24 @@ class JavaFrontendTest {
     assertThat(logTester.logs()).contains("The Java analyzer will ignore the unnamed module for split packages.");
   }
 
+  @Test
+  void packages_of_classpath_jars_should_be_indexed_in_work_dir() throws IOException {
+    File workDir = temp.newFolder("work");
+    File jar = new File(temp.newFolder("libs"), "project.jar");
+    Files.copy(new File("src/test/files/other/project.jar"), jar);
+    mainClasspath = List.of(jar);
+    sensorContext = SensorContextTester.create(temp.getRoot().getAbsoluteFile());
+    sensorContext.fileSystem().setWorkDir(workDir.toPath());
+
+    scan(SONARQUBE_RUNTIME, "import org.foo.A; class A1 { A a; }");
+    assertThat(new File(workDir, PersistentJarIndex.FILE_NAME)).exists();
+    assertThat(logTester.logs(Level.DEBUG)).anyMatch(log -> log.matches("Packages of 0 classpath jars read from the index in \\d+ ms, 1 jars indexed in \\d+ ms\\."));
+
+    logTester.clear();
+    scan(SONARQUBE_RUNTIME, "import org.foo.A; class A2 { A a; }");
+    assertThat(logTester.logs(Level.DEBUG)).anyMatch(log -> log.matches("Packages of 1 classpath jars read from the index in \\d+ ms, 0 jars indexed in \\d+ ms\\."));
+  }
+
   private List<InputFile> scan(SonarRuntime sonarRuntime, String... codeList) throws IOException {
     return scan(new MapSettings(), sonarRuntime, codeList);
   }
@@ -821,6 +944,7 @@ class JavaFrontendTest {
     when(fileLinesContextFactory.createFor(any(InputFile.class))).thenReturn(fileLinesContext);
 
     javaClasspath = mock(ClasspathForMain.class);
+    when(javaClasspath.getElements()).thenReturn(mainClasspath);
     javaTestClasspath = mock(ClasspathForTest.class);
     sonarComponents = new SonarComponents(fileLinesContextFactory, sensorContext.fileSystem(), javaClasspath, javaTestClasspath,
       mock(CheckFactory.class), mock(ActiveRules.class));
@@ -861,6 +985,7 @@ class JavaFrontendTest {
   private class TestIssueFilter implements JavaFileScanner, SonarJavaIssueFilter, EndOfAnalysis {
     CompilationUnitTree lastScannedTree = null;
     int scanFileInvocationCount = 0;
+    List<String> scannedFiles = new ArrayList<>();
     int endOfAnalysisInvocationCount = 0;
     JavaFileScannerContext scannerContext;
     boolean isCancelled = false;
@@ -870,6 +995,7 @@ class JavaFrontendTest {
     public void scanFile(JavaFileScannerContext scannerContext) {
       this.scannerContext = scannerContext;
       scanFileInvocationCount++;
+      scannedFiles.add(scannerContext.getInputFile().filename());
       lastScannedTree = scannerContext.getTree();
       if (isCancelled) {
         sensorContext.setCancelled(true);
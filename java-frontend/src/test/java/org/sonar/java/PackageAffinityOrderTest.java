@@ -0,0 +1,99 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PackageAffinityOrderTest {
+
+  @Test
+  void files_of_a_package_follow_each_other() {
+    InputFile a1 = inputFile("a/A1.java", "package a; class A1 {}");
+    InputFile b1 = inputFile("b/B1.java", "package b; class B1 {}");
+    InputFile a2 = inputFile("a/A2.java", "package a; class A2 {}");
+    InputFile noPackage = inputFile("C.java", "class C {}");
+
+    assertThat(PackageAffinityOrder.order(List.of(a1, b1, a2, noPackage))).containsExactly(a1, a2, b1, noPackage);
+  }
+
+  @Test
+  void imported_packages_follow_the_importing_package() {
+    InputFile a = inputFile("a/A.java", """
+      /*
+       * License header
+       */
+      package a;
+
+      // the most imported package comes first
+      import c.C1;
+      import c.C2;
+      import static b.B.method;
+      import java.util.List;
+
+      public class A {
+        import d.D;
+      }
+      """);
+    InputFile d = inputFile("d/D.java", "package d;\nclass D {}");
+    InputFile b = inputFile("b/B.java", "package b;\nimport d.*;\nclass B {}");
+    InputFile c1 = inputFile("c/C1.java", "package c;\nimport static a.A.*;\nclass C1 {}");
+    InputFile c2 = inputFile("c/C2.java", "package c;\nclass C2 {}");
+
+    assertThat(PackageAffinityOrder.order(List.of(a, d, b, c1, c2))).containsExactly(a, c1, c2, b, d);
+  }
+
+  @Test
+  void annotations_of_the_package_declaration_are_skipped() {
+    InputFile a = inputFile("a/A.java", "package a; class A {}");
+    InputFile b = inputFile("b/B.java", "package b; class B {}");
+    InputFile aInfo = inputFile("a/package-info.java", """
+      @Deprecated
+      @SuppressWarnings(value = {
+        "unchecked",
+        "rawtypes"
+      })
+      @javax.annotation.ParametersAreNonnullByDefault package a;
+      """);
+    InputFile bInfo = inputFile("b/package-info.java", "@Deprecated @SuppressWarnings(\"all\")\npackage b;");
+    InputFile annotatedClass = inputFile("C.java", "@Deprecated\nclass C {}");
+
+    assertThat(PackageAffinityOrder.order(List.of(a, annotatedClass, bInfo, aInfo, b))).containsExactly(a, aInfo, annotatedClass, bInfo, b);
+  }
+
+  @Test
+  void unreadable_files_are_ordered_with_the_default_package() {
+    InputFile a = inputFile("a/A.java", "package a; class A {}");
+    InputFile missing = new TestInputFileBuilder("", "Missing.java").setCharset(UTF_8).build();
+    InputFile noPackage = inputFile("C.java", "class C {}");
+
+    assertThat(PackageAffinityOrder.order(List.of(missing, a, noPackage))).containsExactly(missing, noPackage, a);
+  }
+
+  private static InputFile inputFile(String path, String contents) {
+    return new TestInputFileBuilder("", path)
+      .setCharset(UTF_8)
+      .setContents(contents)
+      .build();
+  }
+
+}
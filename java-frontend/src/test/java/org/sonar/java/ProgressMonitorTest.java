@@ -63,6 +63,21 @@ class ProgressMonitorTest {
     assertThat(logTester.logs()).isEmpty();
   }
 
+  @Test
+  void unreported_progress_is_not_logged() {
+    AnalysisProgress analysisProgress = AnalysisProgress.unreported(10);
+    analysisProgress.startBatch(10);
+    ProgressMonitor report = new ProgressMonitor(() -> true, logger, TimeUnit.MILLISECONDS.toMillis(10), analysisProgress);
+
+    report.beginTask("taskName", 10);
+    report.worked(10);
+    assertThat(report.isCanceled()).isTrue();
+    report.done();
+
+    assertThat(analysisProgress.isReported()).isFalse();
+    assertThat(logTester.logs()).isEmpty();
+  }
+
   @Timeout(3)
   @Test
   void test_simple_report_progress() throws Exception {
@@ -744,6 +744,80 @@ class SonarComponentsTest {
     assertThat(sonarComponents.getBatchModeSizeInKB()).isEqualTo(-1L);
   }
 
+  @Test
+  void batch_mode_threads() {
+    MapSettings settings = new MapSettings();
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(SensorContextTester.create(new File("")).setSettings(settings));
+
+    // default value: batches are processed sequentially
+    assertThat(sonarComponents.getBatchModeThreads()).isEqualTo(1);
+
+    settings.setProperty("sonar.java.experimental.batchModeThreads", "8");
+    assertThat(sonarComponents.getBatchModeThreads()).isEqualTo(8);
+
+    settings.setProperty("sonar.java.experimental.batchModeThreads", "0");
+    assertThat(sonarComponents.getBatchModeThreads()).isEqualTo(1);
+  }
+
+  @Test
+  void adaptive_batch_size() {
+    MapSettings settings = new MapSettings();
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(SensorContextTester.create(new File("")).setSettings(settings));
+
+    // default value: all the batches have the same size
+    assertThat(sonarComponents.isAdaptiveBatchSizeEnabled()).isFalse();
+
+    settings.setProperty("sonar.java.experimental.adaptiveBatchSize", "true");
+    assertThat(sonarComponents.isAdaptiveBatchSizeEnabled()).isTrue();
+  }
+
+  @Test
+  void concurrent_syntax_visitors() {
+    MapSettings settings = new MapSettings();
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(SensorContextTester.create(new File("")).setSettings(settings));
+
+    // default value: all the visitors run on the analysis thread
+    assertThat(sonarComponents.isConcurrentSyntaxVisitorsEnabled()).isFalse();
+
+    settings.setProperty("sonar.java.experimental.concurrentSyntaxVisitors", "true");
+    assertThat(sonarComponents.isConcurrentSyntaxVisitorsEnabled()).isTrue();
+  }
+
+  @Test
+  void rule_time_budget_per_file() {
+    MapSettings settings = new MapSettings();
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(SensorContextTester.create(new File("")).setSettings(settings));
+
+    // default value: rules are never stopped
+    assertThat(sonarComponents.getRuleTimeBudgetPerFileInMillis()).isZero();
+
+    settings.setProperty("sonar.java.experimental.ruleTimeBudgetPerFileInMs", "30000");
+    assertThat(sonarComponents.getRuleTimeBudgetPerFileInMillis()).isEqualTo(30_000L);
+
+    settings.setProperty("sonar.java.experimental.ruleTimeBudgetPerFileInMs", "-1");
+    assertThat(sonarComponents.getRuleTimeBudgetPerFileInMillis()).isZero();
+  }
+
+  @Test
+  void scan_without_parsing_threads() {
+    MapSettings settings = new MapSettings();
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(SensorContextTester.create(new File("")).setSettings(settings));
+
+    // default value: unchanged files are looked up on the analysis thread
+    assertThat(sonarComponents.getScanWithoutParsingThreads()).isEqualTo(1);
+
+    settings.setProperty("sonar.java.experimental.scanWithoutParsingThreads", "4");
+    assertThat(sonarComponents.getScanWithoutParsingThreads()).isEqualTo(4);
+
+    settings.setProperty("sonar.java.experimental.scanWithoutParsingThreads", "-1");
+    assertThat(sonarComponents.getScanWithoutParsingThreads()).isEqualTo(1);
+  }
+
   @ParameterizedTest
   @CsvSource({
     "50, 2",
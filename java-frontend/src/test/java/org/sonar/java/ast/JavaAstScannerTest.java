@@ -60,6 +60,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -409,6 +410,51 @@ class JavaAstScannerTest {
     assertThat(actual.get(true)).containsExactly(successful, successful);
   }
 
+  @Test
+  void scanWithoutParsing_looks_up_the_files_concurrently_and_keeps_their_order() {
+    List<InputFile> files = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      files.add(mock(InputFile.class));
+    }
+    InputFile changed = files.get(7);
+    InputFile failing = files.get(31);
+
+    SonarComponents sonarComponents = mock(SonarComponents.class);
+    doReturn(4).when(sonarComponents).getScanWithoutParsingThreads();
+    doReturn(true).when(sonarComponents).fileCanBeSkipped(any());
+    doReturn(false).when(sonarComponents).fileCanBeSkipped(changed);
+
+    VisitorsBridge visitorsBridge = mock(VisitorsBridge.class);
+    when(visitorsBridge.scanWithoutParsing(any(), anyBoolean())).thenAnswer(invocation -> invocation.getArgument(1));
+    doReturn(false).when(visitorsBridge).scanWithoutParsing(failing, true);
+
+    JavaAstScanner javaAstScanner = new JavaAstScanner(sonarComponents);
+    javaAstScanner.setVisitorBridge(visitorsBridge);
+
+    Map<Boolean, List<InputFile>> actual = javaAstScanner.scanWithoutParsing(files);
+    List<InputFile> expectedScanned = new ArrayList<>(files);
+    expectedScanned.remove(failing);
+    expectedScanned.remove(changed);
+    assertThat(actual.get(true)).containsExactlyElementsOf(expectedScanned);
+    assertThat(actual.get(false)).containsExactly(changed, failing);
+    verify(visitorsBridge, never()).scanWithoutParsing(any());
+  }
+
+  @Test
+  void scanWithoutParsing_rethrows_the_failures_of_the_concurrent_lookup() {
+    SonarComponents sonarComponents = mock(SonarComponents.class);
+    doReturn(2).when(sonarComponents).getScanWithoutParsingThreads();
+    AnalysisException boom = new AnalysisException("boom");
+    when(sonarComponents.fileCanBeSkipped(any())).thenThrow(boom);
+
+    JavaAstScanner javaAstScanner = new JavaAstScanner(sonarComponents);
+    javaAstScanner.setVisitorBridge(mock(VisitorsBridge.class));
+
+    List<InputFile> files = List.of(mock(InputFile.class), mock(InputFile.class));
+    AnalysisException exception = assertThrows(AnalysisException.class, () -> javaAstScanner.scanWithoutParsing(files));
+    assertThat(exception).isSameAs(boom);
+  }
+
   private void scanSingleFile(InputFile file, boolean failOnException) {
     scanFilesWithVisitors(Collections.singletonList(file), Collections.emptyList(), -1, failOnException, false);
   }
@@ -0,0 +1,102 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.ast.visitors;
+
+import java.io.File;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.sonar.java.metrics.MetricsComputer;
+import org.sonar.java.model.JParserTestUtils;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileMetricsVisitorTest {
+
+  @Test
+  void metrics_of_a_file() {
+    CompilationUnitTree cut = JParserTestUtils.parse("""
+      // header
+      class A {
+        int a, b; // NOSONAR
+        /* comment */
+        void foo(int p) {
+          for (int i = 0, j = 0; i < p; i++) {
+            if (a > 0 && b > 0) {
+              a = p > 1 ? 1 : 2;
+            }
+          }
+          Runnable r = () -> { return; };
+        }
+      }
+      """);
+    FileMetricsVisitor visitor = new FileMetricsVisitor();
+    visitor.analyze(cut);
+
+    assertThat(visitor.linesOfCode()).isEqualTo(11);
+    assertThat(visitor.commentLines()).isEqualTo(1);
+    assertThat(visitor.noSonarLines()).containsExactly(3);
+    // method, for, if, &&, ?:, lambda
+    assertThat(visitor.complexity()).isEqualTo(6);
+    // for, if, expression statement, return and local variable: fields, parameters and for initializers are not statements
+    assertThat(visitor.statements()).isEqualTo(5);
+  }
+
+  @Test
+  void metrics_are_cleared_between_files() {
+    FileMetricsVisitor visitor = new FileMetricsVisitor();
+    visitor.analyze(JParserTestUtils.parse("class A { void foo() { if (true) { foo(); } } } // NOSONAR"));
+    assertThat(visitor.noSonarLines()).containsExactly(1);
+
+    visitor.analyze(JParserTestUtils.parse("class B { }"));
+    assertThat(visitor.linesOfCode()).isEqualTo(1);
+    assertThat(visitor.commentLines()).isZero();
+    assertThat(visitor.noSonarLines()).isEmpty();
+    assertThat(visitor.complexity()).isZero();
+    assertThat(visitor.statements()).isZero();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "metrics/Classes.java",
+    "metrics/Comments.java",
+    "metrics/Complexity.java",
+    "metrics/ExecutableLines.java",
+    "metrics/Java15SwitchExpression.java",
+    "metrics/LinesOfCode.java",
+    "metrics/Methods.java",
+    "metrics/NoSonar.java",
+    "metrics/Statements.java",
+    "metrics/TextBlock.java",
+    "highlighter/Records.java",
+    "highlighter/SwitchPatternExpression.java"
+  })
+  void same_metrics_as_the_metrics_computer(String fileName) {
+    CompilationUnitTree cut = JParserTestUtils.parse(new File("src/test/files", fileName));
+    FileMetricsVisitor visitor = new FileMetricsVisitor();
+    visitor.analyze(cut);
+
+    MetricsComputer metricsComputer = new MetricsComputer();
+    assertThat(visitor.linesOfCode()).isEqualTo(metricsComputer.getLinesOfCode(cut));
+    assertThat(visitor.commentLines()).isEqualTo(metricsComputer.getNumberOfCommentedLines(cut));
+    assertThat(visitor.noSonarLines()).isEqualTo(metricsComputer.getNoSonarLines(cut));
+    assertThat(visitor.complexity()).isEqualTo(metricsComputer.getComplexityNodes(cut).size());
+    assertThat(visitor.statements()).isEqualTo(metricsComputer.getNumberOfStatements(cut));
+  }
+
+}
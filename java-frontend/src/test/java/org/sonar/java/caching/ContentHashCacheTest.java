@@ -30,6 +30,7 @@ import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.cache.ReadCache;
 import org.sonar.api.batch.sensor.cache.WriteCache;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.api.config.internal.MapSettings;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.TestUtils;
 import org.sonar.java.testing.ThreadLocalLogTester;
@@ -39,6 +40,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ContentHashCacheTest {
@@ -149,6 +151,7 @@ class ContentHashCacheTest {
     sensorContext.setPreviousCache(readCache);
     sensorContext.setNextCache(writeCache);
     when(inputFile1.contents()).thenThrow(new IOException());
+    when(inputFile1.inputStream()).thenThrow(new IOException());
     ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(sensorContext));
     Assertions.assertFalse(contentHashCache.hasSameHashCached(inputFile1));
 
@@ -156,6 +159,36 @@ class ContentHashCacheTest {
       contains("Failed to compute content hash for file " + inputFile1.key());
   }
 
+  @Test
+  void hasSameHashCached_uses_md5_hash_of_previous_analysis_when_algorithm_changed() throws IOException, NoSuchAlgorithmException {
+    logTester.setLevel(Level.TRACE);
+    SensorContextTester sensorContext = getSonarComponentsTester();
+    sensorContext.setSettings(new MapSettings().setProperty(ContentHashAlgorithm.CONTENT_HASH_ALGORITHM_KEY, "XXH64"));
+    ReadCache readCache = sensorContext.previousCache();
+    when(readCache.read("java:contentHash:XXH64:" + inputFile.key())).thenThrow(new IllegalArgumentException());
+    WriteCache writeCache = sensorContext.nextCache();
+    ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(sensorContext));
+
+    Assertions.assertTrue(contentHashCache.hasSameHashCached(inputFile));
+
+    verify(writeCache).write("java:contentHash:XXH64:" + inputFile.key(), ContentHashAlgorithm.XXH64.newHasher().hash(inputFile));
+    assertThat(logTester.logs(Level.TRACE)).contains("Comparing with the MD5 hash cached for the file " + inputFile.key());
+  }
+
+  @Test
+  void hasSameHashCached_with_xxh64() throws IOException, NoSuchAlgorithmException {
+    SensorContextTester sensorContext = getSensorContextTesterWithEmptyCache(true);
+    sensorContext.setSettings(new MapSettings().setProperty(ContentHashAlgorithm.CONTENT_HASH_ALGORITHM_KEY, "XXH64"));
+    ReadCache readCache = sensorContext.previousCache();
+    String cacheKey = "java:contentHash:XXH64:" + inputFile.key();
+    when(readCache.read(cacheKey)).thenReturn(new ByteArrayInputStream(ContentHashAlgorithm.XXH64.newHasher().hash(inputFile)));
+    ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(sensorContext));
+
+    Assertions.assertTrue(contentHashCache.hasSameHashCached(inputFile));
+
+    verify(sensorContext.nextCache()).copyFromPrevious(cacheKey);
+  }
+
   @Test
   void contains_returns_true_when_file_is_in_cache() throws IOException, NoSuchAlgorithmException {
     ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(getSonarComponentsTester()));
@@ -209,6 +242,7 @@ class ContentHashCacheTest {
     InputFile inputFile1 = mock(InputFile.class);
     when(inputFile1.key()).thenReturn("key");
     when(inputFile1.contents()).thenThrow(new IOException());
+    when(inputFile1.inputStream()).thenThrow(new IOException());
     ContentHashCache contentHashCache = new ContentHashCache(mockSonarComponents(sensorContext));
     Assertions.assertFalse(contentHashCache.writeToCache(inputFile1));
 
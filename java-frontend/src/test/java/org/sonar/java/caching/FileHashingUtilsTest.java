@@ -0,0 +1,77 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.config.internal.MapSettings;
+import org.sonar.java.TestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileHashingUtilsTest {
+
+  private final File file = new File("src/test/files/api/JavaFileScannerContext.java");
+
+  @Test
+  void md5_hash_is_the_one_of_the_utf8_content() throws Exception {
+    InputFile inputFile = TestUtils.inputFile(file);
+    byte[] expected = MessageDigest.getInstance("MD5").digest(inputFile.contents().getBytes(StandardCharsets.UTF_8));
+
+    assertThat(FileHashingUtils.inputFileContentHash(inputFile)).isEqualTo(expected);
+    assertThat(FileHashingUtils.inputFileContentHash(file.getPath())).isEqualTo(expected);
+  }
+
+  @Test
+  void hash_of_a_file_in_another_charset_is_the_one_of_its_utf8_content() throws Exception {
+    InputFile inputFile = new TestInputFileBuilder("", "Cafe.java")
+      .setCharset(StandardCharsets.ISO_8859_1)
+      .setContents("class Caf\u00e9 {}")
+      .build();
+    byte[] expected = MessageDigest.getInstance("MD5").digest("class Caf\u00e9 {}".getBytes(StandardCharsets.UTF_8));
+
+    assertThat(FileHashingUtils.inputFileContentHash(inputFile)).isEqualTo(expected);
+  }
+
+  @Test
+  void hashers_can_be_reused() throws Exception {
+    InputFile inputFile = TestUtils.inputFile(file);
+    for (ContentHashAlgorithm algorithm : ContentHashAlgorithm.values()) {
+      ContentHasher hasher = algorithm.newHasher();
+      byte[] first = hasher.hash(inputFile);
+      assertThat(hasher.hash(inputFile)).isEqualTo(first);
+      assertThat(hasher.hash(file.toPath())).isEqualTo(first);
+    }
+    assertThat(ContentHashAlgorithm.XXH64.newHasher().hash(inputFile)).hasSize(Long.BYTES);
+  }
+
+  @Test
+  void algorithm_from_configuration() {
+    MapSettings settings = new MapSettings();
+    assertThat(ContentHashAlgorithm.fromConfiguration(settings.asConfig())).isEqualTo(ContentHashAlgorithm.MD5);
+    settings.setProperty(ContentHashAlgorithm.CONTENT_HASH_ALGORITHM_KEY, "xxh64");
+    assertThat(ContentHashAlgorithm.fromConfiguration(settings.asConfig())).isEqualTo(ContentHashAlgorithm.XXH64);
+    settings.setProperty(ContentHashAlgorithm.CONTENT_HASH_ALGORITHM_KEY, "SHA-1");
+    assertThat(ContentHashAlgorithm.fromConfiguration(settings.asConfig())).isEqualTo(ContentHashAlgorithm.MD5);
+    assertThat(ContentHashAlgorithm.XXH64.cacheKeyPrefix()).isEqualTo("java:contentHash:XXH64:");
+  }
+
+}
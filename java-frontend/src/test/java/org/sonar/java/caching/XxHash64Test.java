@@ -0,0 +1,59 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XxHash64Test {
+
+  @Test
+  void reference_values() {
+    assertThat(hash("")).isEqualTo(0xEF46DB3751D8E999L);
+    assertThat(hash("a")).isEqualTo(0xD24EC4F1A98C6E5BL);
+    assertThat(hash("abc")).isEqualTo(0x44BC2CF5AD770999L);
+    assertThat(hash("Nobody inspects the spammish repetition")).isEqualTo(0xFBCEA83C8A378BF1L);
+  }
+
+  @Test
+  void same_hash_whatever_the_chunks() {
+    byte[] bytes = new byte[1000];
+    new Random(42).nextBytes(bytes);
+    XxHash64 xxHash64 = new XxHash64();
+    xxHash64.update(bytes, 0, bytes.length);
+    long expected = xxHash64.digest();
+
+    for (int chunkSize : new int[] {1, 3, 7, 31, 32, 33, 100, 999}) {
+      xxHash64.reset();
+      for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+        xxHash64.update(bytes, offset, Math.min(chunkSize, bytes.length - offset));
+      }
+      assertThat(xxHash64.digest()).as("chunks of %d bytes", chunkSize).isEqualTo(expected);
+    }
+  }
+
+  private static long hash(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    XxHash64 xxHash64 = new XxHash64();
+    xxHash64.update(bytes, 0, bytes.length);
+    return xxHash64.digest();
+  }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.cfg;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.model.JParserTestUtils;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.tree.AssignmentExpressionTree;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.IdentifierTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DataFlowTest {
+
+  private static CFG buildCFG(String methodCode) {
+    CompilationUnitTree cut = JParserTestUtils.parse("class A { int field; " + methodCode + " }");
+    MethodTree tree = ((MethodTree) ((ClassTree) cut.types().get(0)).members().get(1));
+    return (CFG) tree.cfg();
+  }
+
+  /**
+   * Variables assigned in a block, on which definite (intersection) and possible (union) assignment are computed.
+   */
+  private static DataFlow.Transfer assignments(DataFlow.SymbolIndex symbols) {
+    return (block, facts) -> {
+      for (Tree element : block.elements()) {
+        if (element.is(Tree.Kind.ASSIGNMENT) && ((AssignmentExpressionTree) element).variable().is(Tree.Kind.IDENTIFIER)) {
+          facts.set(symbols.index(((IdentifierTree) ((AssignmentExpressionTree) element).variable()).symbol()));
+        }
+      }
+    };
+  }
+
+  private static CFG.Block blockCalling(CFG cfg, String methodName) {
+    return cfg.blocks().stream()
+      .filter(block -> block.elements().stream().anyMatch(element -> element.is(Tree.Kind.IDENTIFIER) && methodName.equals(((IdentifierTree) element).name())))
+      .findFirst()
+      .orElseThrow();
+  }
+
+  @Test
+  void forward_analyses() {
+    CFG cfg = buildCFG("void foo(boolean b) { int x; int y; if (b) { x = 1; y = 1; } else { x = 2; } bar(x); } void bar(int i) {}");
+    DataFlow.SymbolIndex symbols = new DataFlow.SymbolIndex();
+    CFG.Block bar = blockCalling(cfg, "bar");
+
+    DataFlow.Result definitelyAssigned = DataFlow.analyze(cfg, DataFlow.Direction.FORWARD, DataFlow.Meet.INTERSECTION, assignments(symbols));
+    assertThat(symbols.asSet(definitelyAssigned.in(bar))).extracting(Symbol::name).containsExactly("x");
+    assertThat(symbols.asSet(definitelyAssigned.in(cfg.entryBlock()))).isEmpty();
+    assertThat(symbols.asSet(definitelyAssigned.out(cfg.exitBlock()))).extracting(Symbol::name).containsExactly("x");
+
+    DataFlow.Result possiblyAssigned = DataFlow.analyze(cfg, DataFlow.Direction.FORWARD, DataFlow.Meet.UNION, assignments(symbols));
+    assertThat(symbols.asSet(possiblyAssigned.in(bar))).extracting(Symbol::name).containsExactlyInAnyOrder("x", "y");
+  }
+
+  @Test
+  void nothing_holds_at_the_entry_of_a_forward_intersection() {
+    // the entry block is the condition of the loop, its predecessor is the body assigning the field
+    CFG cfg = buildCFG("void foo(boolean b) { while (b) { field = 1; } }");
+    DataFlow.SymbolIndex symbols = new DataFlow.SymbolIndex();
+    DataFlow.Result definitelyAssigned = DataFlow.analyze(cfg, DataFlow.Direction.FORWARD, DataFlow.Meet.INTERSECTION, assignments(symbols));
+    assertThat(cfg.entryBlock().predecessors()).isNotEmpty();
+    assertThat(symbols.asSet(definitelyAssigned.in(cfg.entryBlock()))).isEmpty();
+    assertThat(symbols.asSet(definitelyAssigned.out(cfg.exitBlock()))).isEmpty();
+
+    DataFlow.Result possiblyAssigned = DataFlow.analyze(cfg, DataFlow.Direction.FORWARD, DataFlow.Meet.UNION, assignments(symbols));
+    assertThat(symbols.asSet(possiblyAssigned.in(cfg.entryBlock()))).extracting(Symbol::name).containsExactly("field");
+  }
+
+  @Test
+  void backward_gen_kill_analysis() {
+    CFG cfg = buildCFG("void foo(int a) { int i = a; while (a > 0) { a--; } bar(i); } void bar(int i) {}");
+    LiveVariables liveVariables = LiveVariables.analyze(cfg);
+    assertThat(liveVariables.getIn(cfg.entryBlock())).extracting(Symbol::name).containsExactly("a");
+    assertThat(liveVariables.getIn(blockCalling(cfg, "bar"))).extracting(Symbol::name).containsExactly("i");
+    assertThat(liveVariables.getOut(cfg.exitBlock())).isEmpty();
+  }
+
+  @Test
+  void symbol_sets() {
+    CFG cfg = buildCFG("void foo(int a, int b) { }");
+    DataFlow.SymbolIndex symbols = new DataFlow.SymbolIndex();
+    Symbol a = cfg.methodSymbol().declaration().parameters().get(0).symbol();
+    Symbol b = cfg.methodSymbol().declaration().parameters().get(1).symbol();
+    assertThat(symbols.index(a)).isZero();
+    assertThat(symbols.index(b)).isEqualTo(1);
+    assertThat(symbols.index(a)).isZero();
+
+    BitSet bits = new BitSet();
+    bits.set(1);
+    Set<Symbol> set = symbols.asSet(bits);
+    assertThat(set)
+      .containsExactly(b)
+      .doesNotContain(a)
+      .isNotEqualTo(Set.of(a))
+      .isEqualTo(Set.of(b));
+    assertThat(set.contains("b")).isFalse();
+    assertThat(symbols.asSet(new BitSet())).isEmpty();
+
+    Iterator<Symbol> iterator = set.iterator();
+    iterator.next();
+    assertThatThrownBy(iterator::next).isInstanceOf(NoSuchElementException.class);
+    assertThatThrownBy(() -> set.add(a)).isInstanceOf(UnsupportedOperationException.class);
+  }
+}
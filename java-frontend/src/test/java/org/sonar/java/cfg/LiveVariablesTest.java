@@ -43,6 +43,16 @@ class LiveVariablesTest {
     assertThat(liveVariables.getOut(cfg.reversedBlocks().get(3)).iterator().next().name()).isEqualTo("i");
   }
 
+  @Test
+  void live_variables_are_computed_once_per_cfg() {
+    CFG cfg = buildCFG("void foo(int a) { foo(field1); }");
+    LiveVariables liveVariables = LiveVariables.analyze(cfg);
+    assertThat(LiveVariables.analyze(cfg)).isSameAs(liveVariables);
+    LiveVariables liveVariablesWithFields = LiveVariables.analyzeWithFields(cfg);
+    assertThat(liveVariablesWithFields).isNotSameAs(liveVariables);
+    assertThat(LiveVariables.analyzeWithFields(cfg)).isSameAs(liveVariablesWithFields);
+  }
+
   @Test
   void test_try_finally_liveness() {
     CFG cfg = buildCFG("""
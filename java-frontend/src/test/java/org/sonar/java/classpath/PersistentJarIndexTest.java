@@ -0,0 +1,159 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.classpath;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.event.Level;
+import org.sonar.java.testing.ThreadLocalLogTester;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersistentJarIndexTest {
+
+  @RegisterExtension
+  public ThreadLocalLogTester logTester = new ThreadLocalLogTester().setLevel(Level.DEBUG);
+
+  @TempDir
+  Path workDir;
+
+  private final List<File> scannedJars = new ArrayList<>();
+  private final Function<File, Optional<Set<String>>> scanner = jar -> {
+    scannedJars.add(jar);
+    return Optional.of(Set.of("", "org", "org/foo"));
+  };
+
+  @Test
+  void should_read_packages_of_unchanged_jars_from_previous_analysis() throws IOException {
+    File jar = jar("project.jar");
+    PersistentJarIndex first = PersistentJarIndex.load(workDir.toFile());
+    assertThat(first.packages(jar, scanner)).contains(Set.of("", "org", "org/foo"));
+    first.save();
+    // the temporary file written before being moved is not left behind
+    assertThat(workDir.toFile().list()).containsExactlyInAnyOrder(PersistentJarIndex.FILE_NAME, "project.jar");
+    assertThat(logTester.logs(Level.INFO)).isEmpty();
+    assertThat(logTester.logs(Level.DEBUG)).singleElement().asString()
+      .matches("Packages of 0 classpath jars read from the index in \\d+ ms, 1 jars indexed in \\d+ ms\\.");
+
+    PersistentJarIndex second = PersistentJarIndex.load(workDir.toFile());
+    assertThat(second.packages(jar, scanner)).contains(Set.of("", "org", "org/foo"));
+    second.save();
+
+    assertThat(scannedJars).containsExactly(jar);
+    assertThat(second.hits()).isEqualTo(1);
+    assertThat(second.misses()).isZero();
+  }
+
+  @Test
+  void should_identify_jars_by_their_canonical_path() throws IOException {
+    File jar = jar("project.jar");
+    Files.createDirectories(workDir.resolve("lib"));
+    PersistentJarIndex first = PersistentJarIndex.load(workDir.toFile());
+    first.packages(jar, scanner);
+    first.save();
+
+    PersistentJarIndex second = PersistentJarIndex.load(workDir.toFile());
+    assertThat(second.packages(new File(workDir.toFile(), "lib/../project.jar"), scanner)).isPresent();
+
+    assertThat(scannedJars).containsExactly(jar);
+    assertThat(second.hits()).isEqualTo(1);
+  }
+
+  @Test
+  void should_scan_modified_jars_again() throws IOException {
+    File jar = jar("project.jar");
+    PersistentJarIndex first = PersistentJarIndex.load(workDir.toFile());
+    first.packages(jar, scanner);
+    first.save();
+
+    assertThat(jar.setLastModified(jar.lastModified() - 10_000)).isTrue();
+    PersistentJarIndex second = PersistentJarIndex.load(workDir.toFile());
+    second.packages(jar, scanner);
+
+    assertThat(scannedJars).containsExactly(jar, jar);
+    assertThat(second.misses()).isEqualTo(1);
+  }
+
+  @Test
+  void should_keep_entries_of_jars_not_used_by_the_last_analysis() throws IOException {
+    File jar1 = jar("lib1.jar");
+    File jar2 = jar("lib2.jar");
+    PersistentJarIndex first = PersistentJarIndex.load(workDir.toFile());
+    first.packages(jar1, scanner);
+    first.save();
+    PersistentJarIndex second = PersistentJarIndex.load(workDir.toFile());
+    second.packages(jar2, scanner);
+    second.save();
+
+    PersistentJarIndex third = PersistentJarIndex.load(workDir.toFile());
+    third.packages(jar1, scanner);
+    third.packages(jar2, scanner);
+
+    assertThat(scannedJars).containsExactly(jar1, jar2);
+    assertThat(third.hits()).isEqualTo(2);
+  }
+
+  @Test
+  void should_not_cache_unreadable_jars() throws IOException {
+    File jar = jar("corrupted.jar");
+    PersistentJarIndex first = PersistentJarIndex.load(workDir.toFile());
+    assertThat(first.packages(jar, j -> Optional.empty())).isEmpty();
+    first.save();
+
+    PersistentJarIndex second = PersistentJarIndex.load(workDir.toFile());
+    assertThat(second.packages(jar, scanner)).isPresent();
+    assertThat(second.misses()).isEqualTo(1);
+  }
+
+  @Test
+  void should_ignore_invalid_index() throws IOException {
+    Files.write(workDir.resolve(PersistentJarIndex.FILE_NAME), new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13});
+    File jar = jar("project.jar");
+
+    PersistentJarIndex index = PersistentJarIndex.load(workDir.toFile());
+    index.packages(jar, scanner);
+
+    assertThat(scannedJars).containsExactly(jar);
+    assertThat(logTester.logs(Level.DEBUG)).anyMatch(log -> log.startsWith("Unable to read the index of the classpath jars"));
+  }
+
+  @Test
+  void should_not_write_index_without_new_jars() {
+    PersistentJarIndex index = PersistentJarIndex.load(workDir.toFile());
+    index.save();
+
+    assertThat(workDir.resolve(PersistentJarIndex.FILE_NAME)).doesNotExist();
+    assertThat(logTester.logs(Level.DEBUG)).noneMatch(log -> log.startsWith("Packages of "));
+  }
+
+  private File jar(String name) throws IOException {
+    Path jar = workDir.resolve(name);
+    Files.copy(Path.of("src/test/files/other/project.jar"), jar);
+    return jar.toFile();
+  }
+
+}
@@ -41,7 +41,7 @@ class ClassesLayoutTest {
   @Test
   void token() {
     assertAll(
-      () -> assertThat(instanceSize(InternalSyntaxToken.class, X86_64)).isEqualTo(72),
+      () -> assertThat(instanceSize(InternalSyntaxToken.class, X86_64)).isEqualTo(64),
       () -> assertThat(instanceSize(InternalSyntaxToken.class, X86_64_COOPS)).isEqualTo(40)
     );
   }
@@ -56,6 +56,20 @@ class InternalSyntaxTokenTest {
       .isEqualTo(Range.at(10,8,13, 4));
   }
 
+  @Test
+  void eof() {
+    InternalSyntaxToken eof = new InternalSyntaxToken(3, 0, "", Collections.emptyList(), true);
+    assertThat(eof.isEOF()).isTrue();
+    assertThat(eof.line()).isEqualTo(3);
+    assertThat(eof.column()).isZero();
+    assertThat(eof.range()).isEqualTo(Range.at(3, 1, 3, 1));
+
+    eof = new InternalSyntaxToken(5, 7, "", Collections.emptyList(), true);
+    assertThat(eof.isEOF()).isTrue();
+    assertThat(eof.column()).isEqualTo(7);
+    assertThat(token(5, 8, "").isEOF()).isFalse();
+  }
+
   private static InternalSyntaxToken token(int line, int column, String value) {
     int columnOffset = column - 1;
     return new InternalSyntaxToken(line, columnOffset, value, Collections.emptyList(), false);
@@ -64,6 +64,44 @@ class JSemaTest {
       .hasSize(1);
   }
 
+  @Test
+  void isSubtype_should_be_memoized() {
+    ITypeBinding string = Objects.requireNonNull(sema.resolveType("java.lang.String"));
+    ITypeBinding charSequence = Objects.requireNonNull(sema.resolveType("java.lang.CharSequence"));
+    ITypeBinding number = Objects.requireNonNull(sema.resolveType("java.lang.Number"));
+
+    assertThat(sema.isSubtype(string, charSequence)).isTrue();
+    assertThat(sema.isSubtype(string, number)).isFalse();
+    assertThat(sema.isSubtype(string, charSequence)).isTrue();
+    assertThat(sema.isSubtype(string, number)).isFalse();
+    assertThat(sema.isSubtype(charSequence, string)).isFalse();
+
+    assertThat(sema.subtypeHits()).isEqualTo(2);
+    assertThat(sema.subtypeMisses()).isEqualTo(3);
+  }
+
+  @Test
+  void isSubtype_should_keep_a_bounded_number_of_answers() {
+    ITypeBinding[] strings = new ITypeBinding[101];
+    ITypeBinding[] objects = new ITypeBinding[101];
+    for (int i = 0; i < strings.length; i++) {
+      strings[i] = sema.resolveType("java.lang.String" + "[]".repeat(i));
+      objects[i] = sema.resolveType("java.lang.Object" + "[]".repeat(i));
+    }
+    for (ITypeBinding left : strings) {
+      for (ITypeBinding right : objects) {
+        sema.isSubtype(left, right);
+      }
+    }
+    assertThat(strings.length * objects.length).isGreaterThan(JSema.MAX_SUBTYPE_ANSWERS);
+    assertThat(sema.subtypeMisses()).isEqualTo(strings.length * objects.length);
+
+    assertThat(sema.isSubtype(strings[0], objects[0])).isTrue();
+    assertThat(sema.subtypeHits()).isEqualTo(1);
+    assertThat(sema.isSubtype(strings[100], objects[100])).isTrue();
+    assertThat(sema.subtypeHits()).isEqualTo(1);
+  }
+
   private JSema sema;
 
   @BeforeEach
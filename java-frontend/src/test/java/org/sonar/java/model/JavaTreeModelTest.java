@@ -20,6 +20,7 @@ import java.util.List;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.sonar.java.ast.parser.TypeParameterListTreeImpl;
+import org.sonar.plugins.java.api.location.Range;
 import org.sonar.plugins.java.api.tree.AnnotationTree;
 import org.sonar.plugins.java.api.tree.Arguments;
 import org.sonar.plugins.java.api.tree.ArrayAccessExpressionTree;
@@ -70,6 +71,8 @@ import org.sonar.plugins.java.api.tree.StaticInitializerTree;
 import org.sonar.plugins.java.api.tree.SwitchExpressionTree;
 import org.sonar.plugins.java.api.tree.SwitchStatementTree;
 import org.sonar.plugins.java.api.tree.SynchronizedStatementTree;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.ThrowStatementTree;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TryStatementTree;
@@ -96,6 +99,28 @@ class JavaTreeModelTest {
     assertThat(tree.allTokens()).hasSize(16);
   }
 
+  @Test
+  void tokens_should_share_their_text_and_empty_trivias() {
+    JavaTree tree = (JavaTree) JParserTestUtils.parse("class A { int a; int b; /* c */ int c; }");
+    List<SyntaxToken> ints = tree.allTokens().stream().filter(token -> "int".equals(token.text())).toList();
+    assertThat(ints).hasSize(3);
+    assertThat(ints.get(1).text()).isSameAs(ints.get(0).text());
+    assertThat(ints.get(2).text()).isSameAs(ints.get(0).text());
+    assertThat(ints.get(1).trivias()).isEmpty();
+    assertThat(ints.get(1).trivias()).isSameAs(ints.get(0).trivias());
+    assertThat(ints.get(2).trivias()).extracting(SyntaxTrivia::comment).containsExactly("/* c */");
+    assertThat(ints.get(2).range()).isEqualTo(Range.at(1, 33, 1, 36));
+  }
+
+  @Test
+  void tokens_should_compute_their_range() {
+    JavaTree tree = (JavaTree) JParserTestUtils.parse("class A { String s = \"\"\"\n  a\n  b\"\"\"; }");
+    SyntaxToken textBlock = tree.allTokens().stream().filter(token -> token.text().startsWith("\"\"\"")).findFirst().orElseThrow();
+    assertThat(textBlock.range()).isEqualTo(Range.at(1, 22, 3, 7));
+    assertThat(textBlock.line()).isEqualTo(1);
+    assertThat(textBlock.column()).isEqualTo(21);
+  }
+
   @Test
   void line_of_tree() {
     CompilationUnitTree empty = compilationUnit("");
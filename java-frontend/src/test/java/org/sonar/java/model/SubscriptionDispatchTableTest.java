@@ -0,0 +1,82 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.ast.visitors.SubscriptionVisitor;
+import org.sonar.plugins.java.api.tree.Tree.Kind;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubscriptionDispatchTableTest {
+
+  @Test
+  void visitors_by_kind_keep_registration_order() {
+    SubscriptionVisitor first = new KindsVisitor(Kind.METHOD, Kind.CLASS);
+    SubscriptionVisitor second = new KindsVisitor(Kind.CLASS);
+    SubscriptionDispatchTable table = table(first, second);
+
+    assertThat(table.visitors(Kind.CLASS)).containsExactly(first, second);
+    assertThat(table.visitors(Kind.METHOD)).containsExactly(first);
+    assertThat(table.visitors(Kind.IDENTIFIER)).isEmpty();
+    assertThat(table.hasNodeInterest()).isTrue();
+    assertThat(table.hasTokenInterest()).isFalse();
+  }
+
+  @Test
+  void trivia_are_an_interest_in_tokens() {
+    SubscriptionDispatchTable table = table(new KindsVisitor(Kind.TRIVIA));
+
+    assertThat(table.hasTokenInterest()).isTrue();
+    assertThat(table.visitors(Kind.TOKEN)).isEmpty();
+  }
+
+  @Test
+  void no_interest_without_subscriptions() {
+    SubscriptionDispatchTable table = table(new KindsVisitor());
+
+    assertThat(table.hasNodeInterest()).isFalse();
+    assertThat(table.hasTokenInterest()).isFalse();
+    assertThat(table.visitors(Kind.CLASS)).isEmpty();
+  }
+
+  private static SubscriptionDispatchTable table(SubscriptionVisitor... visitors) {
+    Map<Kind, List<SubscriptionVisitor>> subscriptions = new EnumMap<>(Kind.class);
+    for (SubscriptionVisitor visitor : visitors) {
+      visitor.nodesToVisit().forEach(kind -> subscriptions.computeIfAbsent(kind, k -> new ArrayList<>()).add(visitor));
+    }
+    return new SubscriptionDispatchTable(subscriptions);
+  }
+
+  private static class KindsVisitor extends SubscriptionVisitor {
+    private final List<Kind> kinds;
+
+    KindsVisitor(Kind... kinds) {
+      this.kinds = List.of(kinds);
+    }
+
+    @Override
+    public List<Kind> nodesToVisit() {
+      return kinds;
+    }
+  }
+
+}
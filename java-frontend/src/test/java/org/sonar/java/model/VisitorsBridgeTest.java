@@ -17,6 +17,8 @@
 package org.sonar.java.model;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -27,6 +29,7 @@ import org.assertj.core.api.Fail;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 import org.slf4j.event.Level;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
@@ -36,6 +39,8 @@ import org.sonar.java.AnalysisException;
 import org.sonar.java.CheckFailureException;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.TestUtils;
+import org.sonar.java.annotations.ThreadSafeVisitor;
+import org.sonar.java.ast.visitors.PlatformSubscriptionVisitor;
 import org.sonar.java.ast.visitors.SubscriptionVisitor;
 import org.sonar.java.checks.EndOfAnalysisVisitor;
 import org.sonar.java.checks.VisitorThatCanBeSkipped;
@@ -51,11 +56,14 @@ import org.sonar.plugins.java.api.JavaVersionAwareVisitor;
 import org.sonar.plugins.java.api.ModuleScannerContext;
 import org.sonar.plugins.java.api.caching.CacheContext;
 import org.sonar.plugins.java.api.internal.EndOfAnalysis;
+import org.sonar.plugins.java.api.semantic.Type;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.Tree.Kind;
+import org.sonarsource.performance.measure.PerformanceMeasure;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -73,6 +81,9 @@ class VisitorsBridgeTest {
   @RegisterExtension
   public ThreadLocalLogTester logTester = new ThreadLocalLogTester().setLevel(Level.DEBUG);
 
+  @TempDir
+  Path temp;
+
   private SonarComponents sonarComponents = null;
 
   private static final File FILE = new File("src/test/files/model/SimpleClass.java");
@@ -190,6 +201,122 @@ class VisitorsBridgeTest {
         "IV1_ThrowingNPEVisitingClass - IV1");
   }
 
+  @Test
+  void platform_visitors_save_their_data_when_another_platform_visitor_fails() {
+    List<String> events = new ArrayList<>();
+    visitorsBridge(Arrays.asList(
+      new PV1_ThrowingNPEVisitingClass(events),
+      new PV2_RecordingPlatformVisitor(events)),
+      false)
+      .visitFile(COMPILATION_UNIT_TREE, false);
+
+    assertThat(events).containsExactly("PV1 setContext", "PV2 setContext", "PV1 visitNode", "PV2 visitNode", "PV2 leaveNode", "PV2 leaveFile");
+    assertThat(logTester.logs(Level.ERROR).stream().map(VisitorsBridgeTest::ruleKeyFromErrorLog))
+      .containsExactly("PV1_ThrowingNPEVisitingClass - PV1");
+  }
+
+  @Test
+  void platform_visitor_failure_is_rethrown_once_the_others_saved_their_data_when_hidden_property_set_to_true() {
+    List<String> events = new ArrayList<>();
+    VisitorsBridge visitorsBridge = visitorsBridge(Arrays.asList(
+      new PV1_ThrowingNPEVisitingClass(events),
+      new PV2_RecordingPlatformVisitor(events)),
+      true);
+
+    assertThatThrownBy(() -> visitorsBridge.visitFile(COMPILATION_UNIT_TREE, false))
+      .isInstanceOf(AnalysisException.class)
+      .hasMessage("Failing check")
+      .hasRootCause(NPE);
+    assertThat(events).endsWith("PV2 leaveFile");
+  }
+
+  @Test
+  void thread_safe_platform_visitors_walk_the_files_on_a_thread_of_their_own_when_enabled() {
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    VisitorsBridge visitorsBridge = concurrentSyntaxVisitorsBridge(true, events);
+    visitorsBridge.visitFile(COMPILATION_UNIT_TREE, false);
+    visitorsBridge.visitFile(COMPILATION_UNIT_TREE, false);
+    visitorsBridge.endOfAnalysis();
+
+    assertThat(events).filteredOn(event -> event.startsWith("visitNode"))
+      .containsExactly("visitNode on Java syntax visitors", "visitNode on Java syntax visitors");
+    // the file is entered and left on the analysis thread, once the rules have run
+    assertThat(events).filteredOn(event -> !event.startsWith("visitNode"))
+      .containsExactly(
+        "setContext on the analysis thread", "rule leaveFile", "leaveFile on the analysis thread",
+        "setContext on the analysis thread", "rule leaveFile", "leaveFile on the analysis thread");
+  }
+
+  @Test
+  void thread_safe_platform_visitors_walk_the_files_on_the_analysis_thread_by_default() {
+    List<String> events = new ArrayList<>();
+    VisitorsBridge visitorsBridge = concurrentSyntaxVisitorsBridge(false, events);
+    visitorsBridge.visitFile(COMPILATION_UNIT_TREE, false);
+    visitorsBridge.endOfAnalysis();
+
+    assertThat(events).containsExactly(
+      "setContext on the analysis thread", "visitNode on the analysis thread", "leaveFile on the analysis thread", "rule leaveFile");
+  }
+
+  private VisitorsBridge concurrentSyntaxVisitorsBridge(boolean concurrentSyntaxVisitors, List<String> events) {
+    SensorContextTester sensorContextTester = SensorContextTester.create(new File(""));
+    sensorContextTester.setSettings(new MapSettings().setProperty(SonarComponents.SONAR_CONCURRENT_SYNTAX_VISITORS_KEY, concurrentSyntaxVisitors));
+    sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(sensorContextTester);
+    VisitorsBridge visitorsBridge = new VisitorsBridge(
+      List.of(new ThreadRecordingPlatformVisitor(events), new LeaveFileRecordingRule(events)), new ArrayList<>(), sonarComponents);
+    visitorsBridge.setCurrentFile(INPUT_FILE);
+    return visitorsBridge;
+  }
+
+  @Test
+  void symbol_table_is_not_created_for_files_which_are_not_parsed() {
+    SonarComponents spiedSonarComponents = spy(new SonarComponents(null, null, null, null, null, null));
+    spiedSonarComponents.setSensorContext(SensorContextTester.create(new File("")));
+    VisitorsBridge visitorsBridge = new VisitorsBridge(Collections.emptyList(), new ArrayList<>(), spiedSonarComponents);
+    visitorsBridge.setCurrentFile(INPUT_FILE);
+
+    visitorsBridge.visitFile(null, false);
+    verify(spiedSonarComponents, never()).symbolizableFor(any());
+
+    visitorsBridge.visitFile(COMPILATION_UNIT_TREE, false);
+    verify(spiedSonarComponents).symbolizableFor(INPUT_FILE);
+  }
+
+  @Test
+  void rules_exceeding_their_time_budget_are_stopped_for_the_rest_of_the_file_but_leave_it() throws IOException {
+    SensorContextTester sensorContextTester = SensorContextTester.create(new File(""));
+    sensorContextTester.setSettings(new MapSettings().setProperty(SonarComponents.SONAR_RULE_TIME_BUDGET_KEY, 50));
+    sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(sensorContextTester);
+    List<String> events = new ArrayList<>();
+    SlowVisitor slowVisitor = new SlowVisitor(events);
+    VisitorsBridge visitorsBridge = new VisitorsBridge(
+      List.of(slowVisitor, new IssueOnKindVisitor(Tree.Kind.METHOD, new ArrayList<>())), new ArrayList<>(), sonarComponents);
+    visitorsBridge.setCurrentFile(INPUT_FILE);
+    CompilationUnitTree tree = JParserTestUtils.parse("class A { void f() {} void g() {} void h() {} }");
+    Path performanceFile = temp.resolve("performance.measure.json");
+    PerformanceMeasure.Duration sensorDuration = PerformanceMeasure.reportBuilder()
+      .activate(true)
+      .toFile(performanceFile.toString())
+      .start("JavaSensor");
+
+    visitorsBridge.visitFile(tree, false);
+    visitorsBridge.visitFile(tree, false);
+    visitorsBridge.endOfAnalysis();
+    sensorDuration.stop();
+
+    // the stopped rule still leaves the file, and does not keep the methods of the first file for the second one
+    assertThat(events).containsExactly("setContext", "visit f", "leaveFile [f]", "setContext", "visit f", "leaveFile [f]");
+    assertThat(logTester.logs(Level.WARN))
+      .containsExactly(
+        "Rule Slow exceeded its time budget of 50 ms on file '" + INPUT_FILE + "', it is stopped for the rest of the file.",
+        "Rule Slow exceeded its time budget of 50 ms on file '" + INPUT_FILE + "', it is stopped for the rest of the file.",
+        "Rules were stopped 2 times on a file after exceeding their time budget of 50 ms.");
+    assertThat(Files.readString(performanceFile))
+      .containsPattern("\"name\": \"RuleStoppedByTimeBudget\",\\s*+\"calls\": 2,");
+  }
+
   @Test
   void no_log_when_filter_execute_fine() {
     VisitorsBridge visitorsBridge = visitorsBridge(Arrays.asList(), true);
@@ -411,6 +538,24 @@ class VisitorsBridgeTest {
       .containsExactly("Optimized analysis for 1 of 1 files.");
   }
 
+  @Test
+  void endOfAnalysis_logs_subtype_checks_of_semantic_models() {
+    JavaFileScanner scanner = context -> {
+      Type type = ((JavaTree.CompilationUnitTreeImpl) context.getTree()).sema.getClassType("java.lang.String");
+      type.isSubtypeOf("java.lang.CharSequence");
+      type.isSubtypeOf("java.lang.CharSequence");
+      type.isSubtypeOf("java.lang.Number");
+    };
+    VisitorsBridge visitorsBridge = new VisitorsBridge(List.of(scanner), Collections.emptyList(), null);
+
+    visitorsBridge.visitFile(JParserTestUtils.parse("class A { }"), false);
+    visitorsBridge.visitFile(JParserTestUtils.parse("class B { }"), false);
+    visitorsBridge.endOfAnalysis();
+
+    assertThat(logTester.logs(Level.DEBUG))
+      .contains("Subtype checks: 2 answered from the semantic models, 4 computed.");
+  }
+
   @Nested
   class ScanWithoutParsing {
 
@@ -605,6 +750,112 @@ class VisitorsBridgeTest {
     }
   }
 
+  @org.sonar.check.Rule(key = "PV1")
+  private static class PV1_ThrowingNPEVisitingClass extends PV2_RecordingPlatformVisitor {
+    PV1_ThrowingNPEVisitingClass(List<String> events) {
+      super(events);
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      super.visitNode(tree);
+      throw NPE;
+    }
+  }
+
+  @org.sonar.check.Rule(key = "PV2")
+  private static class PV2_RecordingPlatformVisitor extends PlatformSubscriptionVisitor {
+    private final List<String> events;
+
+    PV2_RecordingPlatformVisitor(List<String> events) {
+      this.events = events;
+    }
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return Collections.singletonList(Tree.Kind.CLASS);
+    }
+
+    @Override
+    public void setContext(JavaFileScannerContext context) {
+      super.setContext(context);
+      record("setContext");
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      record("visitNode");
+    }
+
+    @Override
+    public void leaveNode(Tree tree) {
+      record("leaveNode");
+    }
+
+    @Override
+    public void leaveFile(JavaFileScannerContext context) {
+      record("leaveFile");
+    }
+
+    private void record(String event) {
+      events.add(getClass().getSimpleName().substring(0, 3) + " " + event);
+    }
+  }
+
+  @ThreadSafeVisitor
+  private static class ThreadRecordingPlatformVisitor extends PlatformSubscriptionVisitor {
+    private final Thread analysisThread = Thread.currentThread();
+    private final List<String> events;
+
+    ThreadRecordingPlatformVisitor(List<String> events) {
+      this.events = events;
+    }
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return Collections.singletonList(Tree.Kind.CLASS);
+    }
+
+    @Override
+    public void setContext(JavaFileScannerContext context) {
+      super.setContext(context);
+      record("setContext");
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      record("visitNode");
+    }
+
+    @Override
+    public void leaveFile(JavaFileScannerContext context) {
+      record("leaveFile");
+    }
+
+    private void record(String event) {
+      Thread thread = Thread.currentThread();
+      events.add(event + " on " + (thread == analysisThread ? "the analysis thread" : thread.getName()));
+    }
+  }
+
+  private static class LeaveFileRecordingRule extends IssuableSubscriptionVisitor {
+    private final List<String> events;
+
+    LeaveFileRecordingRule(List<String> events) {
+      this.events = events;
+    }
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return Collections.singletonList(Tree.Kind.METHOD);
+    }
+
+    @Override
+    public void leaveFile(JavaFileScannerContext context) {
+      events.add("rule leaveFile");
+    }
+  }
+
   @org.sonar.check.Rule(key = "SV1")
   private static class SV1_ThrowingNPEVisitingClass extends SubscriptionVisitor {
     @Override
@@ -686,6 +937,79 @@ class VisitorsBridgeTest {
     }
   }
 
+  @org.sonar.check.Rule(key = "Slow")
+  private static class SlowVisitor extends IssuableSubscriptionVisitor {
+    private final List<String> events;
+    private final List<String> visitedMethods = new ArrayList<>();
+
+    SlowVisitor(List<String> events) {
+      this.events = events;
+    }
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return Collections.singletonList(Tree.Kind.METHOD);
+    }
+
+    @Override
+    public void setContext(JavaFileScannerContext context) {
+      events.add("setContext");
+      super.setContext(context);
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      String name = ((MethodTree) tree).simpleName().name();
+      events.add("visit " + name);
+      visitedMethods.add(name);
+      try {
+        Thread.sleep(60);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    public void leaveFile(JavaFileScannerContext context) {
+      events.add("leaveFile " + visitedMethods);
+      visitedMethods.clear();
+    }
+  }
+
+  private static class IssueOnKindVisitor extends IssuableSubscriptionVisitor {
+    private final Tree.Kind kind;
+    private final List<String> savedIssues;
+
+    IssueOnKindVisitor(Tree.Kind kind, List<String> savedIssues) {
+      this.kind = kind;
+      this.savedIssues = savedIssues;
+    }
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return Collections.singletonList(kind);
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      report("visit");
+    }
+
+    @Override
+    public void leaveNode(Tree tree) {
+      report("leave");
+    }
+
+    @Override
+    public void visitTrivia(SyntaxTrivia syntaxTrivia) {
+      report("trivia line " + syntaxTrivia.range().start().line());
+    }
+
+    private void report(String event) {
+      savedIssues.add(kind + " " + event);
+    }
+  }
+
   private static class VisitorWithIncompatibleVersion extends IssuableSubscriptionVisitor implements EndOfAnalysis, JavaVersionAwareVisitor {
     @Override
     public List<Kind> nodesToVisit() {
@@ -244,6 +244,42 @@ class MethodMatchersTest {
     assertThat(findMatchesOnSymbol(source, MethodMatchers.none())).isEmpty();
   }
 
+  @Test
+  void test_or_by_names_and_parameters_count() {
+    String source = "" +
+      /* 01 */ "class A {\n" +
+      /* 02 */ "  void f() { }\n" +
+      /* 03 */ "  void f(int x) { }\n" +
+      /* 04 */ "  void f(int x, int y) { }\n" +
+      /* 05 */ "  void g(int x) { }\n" +
+      /* 06 */ "  void h(int x, int y, int z) { }\n" +
+      /* 07 */ "  void main() {\n" +
+      /* 08 */ "    f();\n" +
+      /* 09 */ "    f(1);\n" +
+      /* 10 */ "    f(1, 2);\n" +
+      /* 11 */ "    g(1);\n" +
+      /* 12 */ "    h(1, 2, 3);\n" +
+      /* 13 */ "    unknown(1);\n" +
+      /* 14 */ "  }\n" +
+      /* 15 */ "}\n";
+
+    MethodMatchers fWithoutParameters = MethodMatchers.create().ofTypes("A").names("f").addWithoutParametersMatcher().build();
+    MethodMatchers fAndGWithOneOrTwoParameters = MethodMatchers.create().ofTypes("A").names("f", "g")
+      .addParametersMatcher("int").addParametersMatcher(ANY, ANY).build();
+    MethodMatchers anyNameWithThreeParameters = MethodMatchers.create().ofTypes("A").anyName().addParametersMatcher("int", "int", "int").build();
+    MethodMatchers customName = MethodMatchers.create().ofTypes("A").name(name -> name.startsWith("ma")).withAnyParameters().build();
+    MethodMatchers customParameters = MethodMatchers.create().ofTypes("A").names("g").addParametersMatcher(types -> types.size() == 1).build();
+
+    assertThat(findMatchesOnTree(source, MethodMatchers.or(fWithoutParameters, MethodMatchers.none()))).containsExactly(2, 8);
+    assertThat(findMatchesOnTree(source, MethodMatchers.or(fAndGWithOneOrTwoParameters))).containsExactly(3, 4, 5, 9, 10, 11);
+    assertThat(findMatchesOnTree(source, MethodMatchers.or(fWithoutParameters, anyNameWithThreeParameters))).containsExactly(2, 6, 8, 12);
+    assertThat(findMatchesOnTree(source, MethodMatchers.or(customName, customParameters))).containsExactly(5, 7, 11);
+    assertThat(findMatchesOnSymbol(source, MethodMatchers.or(
+      MethodMatchers.or(fWithoutParameters, customParameters),
+      MethodMatchers.or(anyNameWithThreeParameters))))
+      .containsExactly(2, 5, 6, 8, 11, 12);
+  }
+
   @Test
   void test_inheritance() {
     String source = "" +
@@ -16,13 +16,11 @@
  */
 package org.sonar.java.cfg;
 
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
@@ -37,73 +35,45 @@ import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.Tree.Kind;
 import org.sonar.plugins.java.api.tree.VariableTree;
 import org.sonarsource.analyzer.commons.collections.ListUtils;
-import org.sonarsource.analyzer.commons.collections.SetUtils;
 
 public class SELiveVariables {
 
   private final ControlFlowGraph cfg;
-  private final Map<ControlFlowGraph.Block, Set<Symbol>> out = new HashMap<>();
-  private final Map<ControlFlowGraph.Block, Set<Symbol>> in = new HashMap<>();
+  private final DataFlow.SymbolIndex symbols = new DataFlow.SymbolIndex();
+  private DataFlow.Result result;
 
   private SELiveVariables(ControlFlowGraph cfg) {
     this.cfg = cfg;
   }
 
-  private void analyzeControlFlowGraph(Map<ControlFlowGraph.Block, Set<Symbol>> in, Map<ControlFlowGraph.Block, Set<Symbol>> kill, Map<ControlFlowGraph.Block, Set<Symbol>> gen) {
-    Deque<ControlFlowGraph.Block> workList = new LinkedList<>();
-    workList.addAll(cfg.reversedBlocks());
-    while (!workList.isEmpty()) {
-      ControlFlowGraph.Block block = workList.removeFirst();
-
-      Set<Symbol> blockOut = out.computeIfAbsent(block, k -> new HashSet<>());
-      block.successors().stream().map(in::get).filter(Objects::nonNull).forEach(blockOut::addAll);
-      block.exceptions().stream().map(in::get).filter(Objects::nonNull).forEach(blockOut::addAll);
-      // in = gen and (out - kill)
-      Set<Symbol> newIn = new HashSet<>(gen.get(block));
-      newIn.addAll(SetUtils.difference(blockOut, kill.get(block)));
-
-      if (newIn.equals(in.get(block))) {
-        continue;
-      }
-      in.put(block, newIn);
-      block.predecessors().forEach(workList::addLast);
-    }
-  }
-
   /**
    * Returns SELiveVariables object with information concerning local variables and parameters
    */
   public static SELiveVariables analyze(ControlFlowGraph cfg) {
     SELiveVariables liveVariables = new SELiveVariables(cfg);
     // Generate kill/gen for each block in isolation
-    Map<ControlFlowGraph.Block, Set<Symbol>> kill = new HashMap<>();
-    Map<ControlFlowGraph.Block, Set<Symbol>> gen = new HashMap<>();
+    Map<ControlFlowGraph.Block, BitSet> kill = new HashMap<>();
+    Map<ControlFlowGraph.Block, BitSet> gen = new HashMap<>();
     for (ControlFlowGraph.Block block : liveVariables.cfg.reversedBlocks()) {
-      Set<Symbol> blockKill = new HashSet<>();
-      Set<Symbol> blockGen = new HashSet<>();
+      BitSet blockKill = new BitSet();
+      BitSet blockGen = new BitSet();
       liveVariables.processBlockElements(block, blockKill, blockGen);
       kill.put(block, blockKill);
       gen.put(block, blockGen);
     }
-    liveVariables.analyzeControlFlowGraph(liveVariables.in, kill, gen);
+    liveVariables.result = DataFlow.analyze(cfg, DataFlow.Direction.BACKWARD, DataFlow.Meet.UNION, DataFlow.genKill(gen, kill));
     // out of exit block are empty by definition.
-    if (!liveVariables.out.get(liveVariables.cfg.reversedBlocks().get(0)).isEmpty()) {
+    if (!liveVariables.result.out(liveVariables.cfg.reversedBlocks().get(0)).isEmpty()) {
       throw new IllegalStateException("Out of exit block should be empty");
     }
-
-    // Make things immutable.
-    for (Map.Entry<ControlFlowGraph.Block, Set<Symbol>> blockSetEntry : liveVariables.out.entrySet()) {
-      blockSetEntry.setValue(Collections.unmodifiableSet(blockSetEntry.getValue()));
-    }
-
     return liveVariables;
   }
 
   public Set<Symbol> getOut(ControlFlowGraph.Block block) {
-    return out.get(block);
+    return symbols.asSet(result.out(block));
   }
 
-  private static void processAssignment(AssignmentExpressionTree element, Set<Symbol> blockKill, Set<Symbol> blockGen, Set<Tree> assignmentLHS) {
+  private void processAssignment(AssignmentExpressionTree element, BitSet blockKill, BitSet blockGen, Set<Tree> assignmentLHS) {
     Symbol symbol = null;
     ExpressionTree lhs = element.variable();
     if (lhs.is(Kind.IDENTIFIER)) {
@@ -113,12 +83,13 @@ public class SELiveVariables {
 
     if (symbol != null && includeSymbol(symbol)) {
       assignmentLHS.add(lhs);
-      blockGen.remove(symbol);
-      blockKill.add(symbol);
+      int variable = symbols.index(symbol);
+      blockGen.clear(variable);
+      blockKill.set(variable);
     }
   }
 
-  private void processBlockElements(ControlFlowGraph.Block block, Set<Symbol> blockKill, Set<Symbol> blockGen) {
+  private void processBlockElements(ControlFlowGraph.Block block, BitSet blockKill, BitSet blockGen) {
     // process elements from bottom to top
     Set<Tree> assignmentLHS = new HashSet<>();
     for (Tree element : ListUtils.reverse(block.elements())) {
@@ -130,17 +101,18 @@ public class SELiveVariables {
           processIdentifier((IdentifierTree) element, blockGen, assignmentLHS);
           break;
         case VARIABLE:
-          blockKill.add(((VariableTree) element).symbol());
-          blockGen.remove(((VariableTree) element).symbol());
+          int variable = symbols.index(((VariableTree) element).symbol());
+          blockKill.set(variable);
+          blockGen.clear(variable);
           break;
         case LAMBDA_EXPRESSION:
-          blockGen.addAll(getUsedVariables(((LambdaExpressionTree) element).body(), cfg.methodSymbol()));
+          addUsedVariables(((LambdaExpressionTree) element).body(), blockGen);
           break;
         case METHOD_REFERENCE:
-          blockGen.addAll(getUsedVariables(((MethodReferenceTree) element).expression(), cfg.methodSymbol()));
+          addUsedVariables(((MethodReferenceTree) element).expression(), blockGen);
           break;
         case NEW_CLASS:
-          blockGen.addAll(getUsedVariables(((NewClassTree) element).classBody(), cfg.methodSymbol()));
+          addUsedVariables(((NewClassTree) element).classBody(), blockGen);
           break;
         default:
           // Ignore other kind of elements, no change of gen/kill
@@ -148,10 +120,10 @@ public class SELiveVariables {
     }
   }
 
-  private static void processIdentifier(IdentifierTree element, Set<Symbol> blockGen, Set<Tree> assignmentLHS) {
+  private void processIdentifier(IdentifierTree element, BitSet blockGen, Set<Tree> assignmentLHS) {
     Symbol symbol = element.symbol();
     if (!assignmentLHS.contains(element) && includeSymbol(symbol)) {
-      blockGen.add(symbol);
+      blockGen.set(symbols.index(symbol));
     }
   }
 
@@ -159,6 +131,12 @@ public class SELiveVariables {
     return symbol.isLocalVariable();
   }
 
+  private void addUsedVariables(@Nullable Tree syntaxNode, BitSet blockGen) {
+    for (Symbol symbol : getUsedVariables(syntaxNode, cfg.methodSymbol())) {
+      blockGen.set(symbols.index(symbol));
+    }
+  }
+
   private static Set<Symbol> getUsedVariables(@Nullable Tree syntaxNode, Symbol.MethodSymbol owner) {
     if (syntaxNode == null) {
       return Collections.emptySet();
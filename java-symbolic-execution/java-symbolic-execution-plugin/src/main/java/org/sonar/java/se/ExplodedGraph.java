@@ -115,8 +115,12 @@ public class ExplodedGraph {
 
     @Override
     public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
       if (obj instanceof Node other) {
-        return this.programPoint.equals(other.programPoint)
+        return hashcode == other.hashcode
+          && this.programPoint.equals(other.programPoint)
           && Objects.equals(this.programState, other.programState);
       }
       return false;
@@ -20,11 +20,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -102,7 +100,7 @@ public class ExplodedGraphWalker {
   /**
    * Arbitrary number to limit symbolic execution.
    */
-  private static final int MAX_STEPS = 16_000;
+  public static final int DEFAULT_MAX_STEPS = 16_000;
   public static final int MAX_NESTED_BOOLEAN_STATES = 10_000;
   // would correspond to 10 parameters annotated with @Nullable
   private static final int MAX_STARTING_STATES = 1_024;
@@ -133,8 +131,10 @@ public class ExplodedGraphWalker {
 
   private ExplodedGraph explodedGraph;
 
+  private ExplorationStrategy explorationStrategy = ExplorationStrategy.DEFAULT;
+  private int maxSteps = DEFAULT_MAX_STEPS;
   @VisibleForTesting
-  Deque<ExplodedGraph.Node> workList;
+  ExplorationStrategy.WorkList workList;
   ExplodedGraph.Node node;
   ProgramPoint programPosition;
   ProgramState programState;
@@ -205,6 +205,13 @@ public class ExplodedGraphWalker {
     this.semanticModel = (Sema) context.getSemanticModel();
   }
 
+  protected ExplodedGraphWalker(List<SECheck> seChecks, BehaviorCache behaviorCache, JavaFileScannerContext context,
+    ExplorationStrategy explorationStrategy, int maxSteps) {
+    this(seChecks, behaviorCache, context);
+    this.explorationStrategy = explorationStrategy;
+    this.maxSteps = maxSteps;
+  }
+
   public MethodBehavior visitMethod(MethodTree tree) {
     return visitMethod(tree, null);
   }
@@ -237,7 +244,7 @@ public class ExplodedGraphWalker {
     explodedGraph = new ExplodedGraph();
     methodTree = tree;
     constraintManager = new ConstraintManager();
-    workList = new LinkedList<>();
+    workList = explorationStrategy.newWorkList(cfg);
     // Linked hashSet is required to guarantee order of yields to be generated
     endOfExecutionPath = new LinkedHashSet<>();
     programState = ProgramState.EMPTY_STATE;
@@ -246,8 +253,7 @@ public class ExplodedGraphWalker {
     while (!workList.isEmpty()) {
       steps++;
       throwExceptionIfMaxStepsHasBeenReached(tree);
-      // LIFO:
-      setNode(workList.removeFirst());
+      setNode(workList.poll());
       Block block = programPosition.block;
       if (block.successors().isEmpty()) {
         endOfExecutionPath.add(node);
@@ -421,6 +427,7 @@ public class ExplodedGraphWalker {
       Collection<SymbolicValue> protectedSVs = methodBehavior == null ? Collections.emptyList() : methodBehavior.parameters();
       programState = programState.cleanupDeadSymbols(liveVariables.getOut(block), protectedSVs);
       programState = programState.cleanupConstraints(protectedSVs);
+      programState = programState.cleanupUnreachableRelations(protectedSVs);
     }
   }
 
@@ -1277,7 +1284,7 @@ public class ExplodedGraphWalker {
     }
     cachedNode.exitPath = exitPath;
     cachedNode.addParent(node, methodYield);
-    workList.addFirst(cachedNode);
+    workList.add(cachedNode);
   }
 
   private static boolean isRestartingForEachLoop(ProgramPoint programPoint) {
@@ -1295,7 +1302,7 @@ public class ExplodedGraphWalker {
 
   @VisibleForTesting
   protected int maxSteps() {
-    return MAX_STEPS;
+    return maxSteps;
   }
 
   AlwaysTrueOrFalseExpressionCollector alwaysTrueOrFalseExpressionCollector() {
@@ -1311,8 +1318,16 @@ public class ExplodedGraphWalker {
 
     @VisibleForTesting
     final List<SECheck> seChecks = new ArrayList<>();
+    private final ExplorationStrategy explorationStrategy;
+    private final int maxSteps;
 
     public ExplodedGraphWalkerFactory(List<SECheck> activeSEChecks) {
+      this(activeSEChecks, ExplorationStrategy.DEFAULT, DEFAULT_MAX_STEPS);
+    }
+
+    public ExplodedGraphWalkerFactory(List<SECheck> activeSEChecks, ExplorationStrategy explorationStrategy, int maxSteps) {
+      this.explorationStrategy = explorationStrategy;
+      this.maxSteps = maxSteps;
       List<SECheck> checks = new ArrayList<>(activeSEChecks);
 
       // This order of the mandatory SE checks is required by the ExplodedGraphWalker
@@ -1330,7 +1345,7 @@ public class ExplodedGraphWalker {
     }
 
     public ExplodedGraphWalker createWalker(BehaviorCache behaviorCache, JavaFileScannerContext context) {
-      return new ExplodedGraphWalker(seChecks, behaviorCache, context);
+      return new ExplodedGraphWalker(seChecks, behaviorCache, context, explorationStrategy, maxSteps);
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,213 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.java.api.cfg.ControlFlowGraph.Block;
+
+/**
+ * Order in which the {@link ExplodedGraphWalker} explores the nodes of the exploded graph.
+ */
+public enum ExplorationStrategy {
+
+  /**
+   * Last enqueued node first: follows each path as far as possible before backtracking.
+   */
+  DFS {
+    @Override
+    WorkList newWorkList(ControlFlowGraph cfg) {
+      return new DequeWorkList(true);
+    }
+  },
+
+  /**
+   * First enqueued node first: explores all the paths at the same pace.
+   */
+  BFS {
+    @Override
+    WorkList newWorkList(ControlFlowGraph cfg) {
+      return new DequeWorkList(false);
+    }
+  },
+
+  /**
+   * Nodes whose block comes first in the reverse post-order of the CFG first: the paths reaching a join block are all
+   * brought to it before exploring further, so that the identical states they lead to are merged as early as possible.
+   */
+  TOPOLOGICAL {
+    @Override
+    WorkList newWorkList(ControlFlowGraph cfg) {
+      return new TopologicalWorkList(reversePostOrder(cfg));
+    }
+  };
+
+  public static final ExplorationStrategy DEFAULT = DFS;
+
+  abstract WorkList newWorkList(ControlFlowGraph cfg);
+
+  public static Optional<ExplorationStrategy> fromName(String name) {
+    return Arrays.stream(values())
+      .filter(strategy -> strategy.name().equals(name.trim().toUpperCase(Locale.ROOT)))
+      .findFirst();
+  }
+
+  interface WorkList {
+
+    void add(ExplodedGraph.Node node);
+
+    /**
+     * @return the next node to explore, without removing it, or null if the work list is empty
+     */
+    ExplodedGraph.Node peek();
+
+    ExplodedGraph.Node poll();
+
+    int size();
+
+    default boolean isEmpty() {
+      return size() == 0;
+    }
+  }
+
+  private static class DequeWorkList implements WorkList {
+    private final Deque<ExplodedGraph.Node> nodes = new ArrayDeque<>();
+    private final boolean lifo;
+
+    DequeWorkList(boolean lifo) {
+      this.lifo = lifo;
+    }
+
+    @Override
+    public void add(ExplodedGraph.Node node) {
+      if (lifo) {
+        nodes.addFirst(node);
+      } else {
+        nodes.addLast(node);
+      }
+    }
+
+    @Override
+    public ExplodedGraph.Node peek() {
+      return nodes.peekFirst();
+    }
+
+    @Override
+    public ExplodedGraph.Node poll() {
+      return nodes.pollFirst();
+    }
+
+    @Override
+    public int size() {
+      return nodes.size();
+    }
+  }
+
+  private static class TopologicalWorkList implements WorkList {
+
+    private record Entry(ExplodedGraph.Node node, int rank, int index, long sequence) {
+    }
+
+    // Nodes of the same program point are explored last enqueued first, like with DFS
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::rank)
+      .thenComparingInt(Entry::index)
+      .thenComparing(Comparator.comparingLong(Entry::sequence).reversed());
+
+    private final int[] rankById;
+    private final PriorityQueue<Entry> entries = new PriorityQueue<>(ORDER);
+    private long sequence;
+
+    TopologicalWorkList(int[] rankById) {
+      this.rankById = rankById;
+    }
+
+    @Override
+    public void add(ExplodedGraph.Node node) {
+      ProgramPoint programPoint = node.programPoint;
+      entries.add(new Entry(node, rankById[programPoint.block.id()], programPoint.i, sequence++));
+    }
+
+    @Override
+    public ExplodedGraph.Node peek() {
+      Entry entry = entries.peek();
+      return entry == null ? null : entry.node;
+    }
+
+    @Override
+    public ExplodedGraph.Node poll() {
+      Entry entry = entries.poll();
+      return entry == null ? null : entry.node;
+    }
+
+    @Override
+    public int size() {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Rank of each block of the CFG, indexed by block id, in the reverse post-order of a depth-first traversal from the
+   * entry block following both normal and exceptional successors. Unreachable blocks are ranked last.
+   */
+  static int[] reversePostOrder(ControlFlowGraph cfg) {
+    int maxId = cfg.blocks().stream().mapToInt(Block::id).max().orElse(0);
+    int[] rankById = new int[maxId + 1];
+    Arrays.fill(rankById, Integer.MAX_VALUE);
+    boolean[] visited = new boolean[maxId + 1];
+    int[] postOrder = new int[maxId + 1];
+    int postOrderSize = 0;
+
+    Deque<Frame> stack = new ArrayDeque<>();
+    visited[cfg.entryBlock().id()] = true;
+    stack.push(new Frame(cfg.entryBlock()));
+    while (!stack.isEmpty()) {
+      Frame frame = stack.peek();
+      if (frame.next < frame.successors.length) {
+        Block successor = frame.successors[frame.next++];
+        if (!visited[successor.id()]) {
+          visited[successor.id()] = true;
+          stack.push(new Frame(successor));
+        }
+      } else {
+        postOrder[postOrderSize++] = stack.pop().block.id();
+      }
+    }
+    for (int i = 0; i < postOrderSize; i++) {
+      rankById[postOrder[i]] = postOrderSize - 1 - i;
+    }
+    return rankById;
+  }
+
+  private static final class Frame {
+    private final Block block;
+    private final Block[] successors;
+    private int next;
+
+    private Frame(Block block) {
+      this.block = block;
+      this.successors = Stream.concat(block.successors().stream(), block.exceptions().stream()).toArray(Block[]::new);
+    }
+  }
+
+}
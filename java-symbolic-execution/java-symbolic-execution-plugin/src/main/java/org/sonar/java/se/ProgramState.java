@@ -16,11 +16,15 @@
  */
 package org.sonar.java.se;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiConsumer;
@@ -271,7 +275,9 @@ public class ProgramState {
       return false;
     }
     ProgramState that = (ProgramState) o;
-    return Objects.equals(values, that.values) &&
+    // hash codes are cached: comparing them first spares the comparison of the maps for most of the distinct states
+    return hashCode() == that.hashCode() &&
+      Objects.equals(values, that.values) &&
       Objects.equals(constraints, that.constraints) &&
       Objects.equals(exitSymbolicValue, that.exitSymbolicValue) &&
       Objects.equals(stack, that.stack);
@@ -549,6 +555,64 @@ public class ProgramState {
     return false;
   }
 
+  /**
+   * Constraints on relations are not cleaned up with the other constraints, as they can be used to learn constraints on
+   * their operands. Once none of the operands of a relation can be reached from the values, the stack, the exit value,
+   * the protected values or another reachable relation, nothing can be learned from it anymore. Removing them lets the
+   * states which only differ by such relations be merged into the same node of the exploded graph.
+   *
+   * @return this state without the constraints on such relations, or this state when there are none
+   */
+  public ProgramState cleanupUnreachableRelations(Collection<SymbolicValue> protectedSymbolicValues) {
+    List<SymbolicValue> relations = new ArrayList<>();
+    constraints.forEach((symbolicValue, constraintsByDomain) -> {
+      if (!SymbolicValue.isDisposable(symbolicValue) && !symbolicValue.computedFrom().isEmpty()) {
+        relations.add(symbolicValue);
+      }
+    });
+    if (relations.isEmpty()) {
+      return this;
+    }
+    Set<SymbolicValue> reachable = new HashSet<>();
+    values.forEach((symbol, symbolicValue) -> addWithOperands(reachable, symbolicValue));
+    stack.forEach(valueSymbol -> addWithOperands(reachable, valueSymbol.sv));
+    if (exitSymbolicValue != null) {
+      addWithOperands(reachable, exitSymbolicValue);
+    }
+    protectedSymbolicValues.forEach(symbolicValue -> addWithOperands(reachable, symbolicValue));
+    Map<SymbolicValue, List<Set<SymbolicValue>>> relationsOperandsByOperand = new HashMap<>();
+    for (SymbolicValue relation : relations) {
+      Set<SymbolicValue> operands = addWithOperands(new HashSet<>(), relation);
+      operands.forEach(operand -> relationsOperandsByOperand.computeIfAbsent(operand, k -> new ArrayList<>()).add(operands));
+    }
+    Deque<SymbolicValue> toVisit = new ArrayDeque<>(reachable);
+    while (!toVisit.isEmpty()) {
+      List<Set<SymbolicValue>> reachedRelationsOperands = relationsOperandsByOperand.remove(toVisit.pop());
+      if (reachedRelationsOperands != null) {
+        reachedRelationsOperands.forEach(operands -> operands.stream().filter(reachable::add).forEach(toVisit::push));
+      }
+    }
+    PMap<SymbolicValue, ConstraintsByDomain> reachableConstraints = constraints;
+    for (SymbolicValue relation : relations) {
+      if (!reachable.contains(relation)) {
+        reachableConstraints = reachableConstraints.remove(relation);
+      }
+    }
+    if (reachableConstraints == constraints) {
+      return this;
+    }
+    return new ProgramState(this, reachableConstraints);
+  }
+
+  private static Set<SymbolicValue> addWithOperands(Set<SymbolicValue> symbolicValues, SymbolicValue symbolicValue) {
+    // literals are shared by all the states: reaching them says nothing about the relations they are part of
+    if (!SymbolicValue.isLiteral(symbolicValue) && symbolicValues.add(symbolicValue)) {
+      addWithOperands(symbolicValues, symbolicValue.wrappedValue());
+      symbolicValue.computedFrom().forEach(operand -> addWithOperands(symbolicValues, operand));
+    }
+    return symbolicValues;
+  }
+
   Set<LearnedConstraint> learnedConstraints(ProgramState parent) {
     Set<LearnedConstraint> result = new HashSet<>();
     constraints.forEach((sv, pmap) -> pmap.forEach((domain, c) -> {
@@ -18,20 +18,37 @@ package org.sonar.java.se;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.java.annotations.VisibleForTesting;
 import org.sonar.java.se.checks.SECheck;
 import org.sonar.java.se.xproc.BehaviorCache;
+import org.sonar.java.se.xproc.BehaviorStore;
 import org.sonar.java.se.xproc.MethodBehavior;
+import org.sonar.plugins.java.api.InputFileScannerContext;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.ModuleScannerContext;
+import org.sonar.plugins.java.api.caching.CacheContext;
+import org.sonar.plugins.java.api.caching.JavaReadCache;
+import org.sonar.plugins.java.api.internal.EndOfAnalysis;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.MethodTree;
 
-public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFileScanner {
+/**
+ * Explores the methods of a file one after the other, in the order of the tree. The behavior of a method which can not be
+ * overridden is computed once, either when the method is visited or on demand by {@link BehaviorCache#get(Symbol.MethodSymbol)}
+ * when one of its invocations is explored first.
+ * <p>
+ * The explorations are not run concurrently: the walkers share the semantic model of the file and the ECJ bindings it
+ * resolves lazily, the issues collected by the {@link SECheck}s, and the ids of the symbolic values, which decide the
+ * iteration order of the program states and thus the order of the reported flows. None of them is thread-safe.
+ */
+public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFileScanner, EndOfAnalysis {
 
   private static final Logger LOG = LoggerFactory.getLogger(SymbolicExecutionVisitor.class);
   protected JavaFileScannerContext context;
@@ -39,9 +56,19 @@ public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFil
   @VisibleForTesting
   public final BehaviorCache behaviorCache;
   private final ExplodedGraphWalker.ExplodedGraphWalkerFactory egwFactory;
+  private final ExplorationStrategy explorationStrategy;
+  private final int maxSteps;
+  private int executedMethods;
+  private int interruptedMethods;
 
   public SymbolicExecutionVisitor(List<SECheck> seChecks) {
-    egwFactory = new ExplodedGraphWalker.ExplodedGraphWalkerFactory(seChecks);
+    this(seChecks, ExplorationStrategy.DEFAULT, ExplodedGraphWalker.DEFAULT_MAX_STEPS);
+  }
+
+  public SymbolicExecutionVisitor(List<SECheck> seChecks, ExplorationStrategy explorationStrategy, int maxSteps) {
+    egwFactory = new ExplodedGraphWalker.ExplodedGraphWalkerFactory(seChecks, explorationStrategy, maxSteps);
+    this.explorationStrategy = explorationStrategy;
+    this.maxSteps = maxSteps;
     this.behaviorCache = new BehaviorCache();
   }
 
@@ -50,7 +77,58 @@ public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFil
     behaviorCache.cleanup();
     behaviorCache.setFileContext(this);
     this.context = context;
+    CacheContext cacheContext = context.getCacheContext();
+    behaviorCache.store().setPreviousAnalysis(cacheContext.isCacheEnabled() ? cacheContext.getReadCache() : null);
     scan(context.getTree());
+    if (cacheContext.isCacheEnabled()) {
+      Map<String, byte[]> behaviorsByType = BehaviorStore.toCacheData(behaviorCache.computedBehaviors());
+      behaviorsByType.forEach((typeName, data) -> writeToCache(cacheContext, BehaviorStore.cacheKey(typeName), data));
+      byte[] typeNames = String.join("\n", behaviorsByType.keySet()).getBytes(StandardCharsets.UTF_8);
+      writeToCache(cacheContext, BehaviorStore.cacheKey(context.getInputFile()), typeNames);
+    }
+  }
+
+  private static void writeToCache(CacheContext cacheContext, String cacheKey, byte[] data) {
+    try {
+      cacheContext.getWriteCache().write(cacheKey, data);
+    } catch (IllegalArgumentException e) {
+      LOG.trace("Could not store data to cache key '{}': {}", cacheKey, e.getMessage());
+    }
+  }
+
+  /**
+   * Unchanged files are not analyzed again: the behaviors of their methods written by the previous analysis are kept for the
+   * next one, and are reused when analyzing the changed files.
+   */
+  @Override
+  public boolean scanWithoutParsing(InputFileScannerContext inputFileScannerContext) {
+    CacheContext cacheContext = inputFileScannerContext.getCacheContext();
+    if (!cacheContext.isCacheEnabled()) {
+      return true;
+    }
+    String cacheKey = BehaviorStore.cacheKey(inputFileScannerContext.getInputFile());
+    JavaReadCache readCache = cacheContext.getReadCache();
+    byte[] typeNames = readCache.readBytes(cacheKey);
+    if (typeNames != null) {
+      copyFromPrevious(cacheContext, cacheKey);
+      String names = new String(typeNames, StandardCharsets.UTF_8);
+      if (!names.isEmpty()) {
+        List<String> unchangedTypes = names.lines().toList();
+        unchangedTypes.forEach(typeName -> copyFromPrevious(cacheContext, BehaviorStore.cacheKey(typeName)));
+        BehaviorStore store = behaviorCache.store();
+        store.setPreviousAnalysis(readCache);
+        store.addUnchangedTypes(unchangedTypes);
+      }
+    }
+    return true;
+  }
+
+  private static void copyFromPrevious(CacheContext cacheContext, String cacheKey) {
+    try {
+      cacheContext.getWriteCache().copyFromPrevious(cacheKey);
+    } catch (IllegalArgumentException e) {
+      LOG.trace("Could not copy data of cache key '{}': {}", cacheKey, e.getMessage());
+    }
   }
 
   @Override
@@ -66,14 +144,17 @@ public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFil
       if (methodCanNotBeOverridden(methodSymbol)) {
         MethodBehavior methodBehavior = behaviorCache.methodBehaviorForSymbol(methodSymbol);
         if (!methodBehavior.isVisited()) {
+          executedMethods++;
           walker.visitMethod(methodTree, methodBehavior);
         }
       } else {
+        executedMethods++;
         walker.visitMethod(methodTree);
       }
     } catch (ExplodedGraphWalker.MaximumStepsReachedException
       | ExplodedGraphWalker.ExplodedGraphTooBigException
       | ExplodedGraphWalker.MaximumStartingStatesException exception) {
+      interruptedMethods++;
       LOG.debug("Could not complete symbolic execution: {}", exception.getMessage());
       if (LOG.isTraceEnabled()) {
         StringWriter sw = new StringWriter();
@@ -86,6 +167,17 @@ public class SymbolicExecutionVisitor extends BaseTreeVisitor implements JavaFil
     }
   }
 
+  /**
+   * Reports how many of the executed methods have been completely explored with the configured strategy and budget.
+   */
+  @Override
+  public void endOfAnalysis(ModuleScannerContext context) {
+    if (executedMethods > 0) {
+      LOG.info("Symbolic execution ({} strategy, limit of {} steps) completed for {}/{} methods",
+        explorationStrategy, maxSteps, executedMethods - interruptedMethods, executedMethods);
+    }
+  }
+
   @VisibleForTesting
   protected ExplodedGraphWalker getWalker() {
     return egwFactory.createWalker(behaviorCache, context);
@@ -23,13 +23,40 @@ import javax.annotation.Nullable;
 import org.sonarsource.analyzer.commons.collections.PCollections;
 import org.sonarsource.analyzer.commons.collections.PMap;
 
+/**
+ * Constraints of a symbolic value, at most one by domain.
+ * <p>
+ * The constraints of the {@link ObjectConstraint} and {@link BooleanConstraint} domains, which most constraint sets are made of,
+ * are packed as their ordinal + 1 in fixed bits of an int. The constraints of the other domains are kept in a persistent map.
+ * A set only made of these two domains is then a single object, and looking them up does not allocate. Such sets are interned,
+ * so that they are compared by reference and that learning one of these constraints does not allocate either.
+ */
 public class ConstraintsByDomain {
 
+  private static final int OBJECT_SHIFT = 0;
+  private static final int BOOLEAN_SHIFT = 2;
+  private static final int PACKED_MASK = 0b11;
+  private static final ObjectConstraint[] OBJECT_CONSTRAINTS = ObjectConstraint.values();
+  private static final BooleanConstraint[] BOOLEAN_CONSTRAINTS = BooleanConstraint.values();
+
+  private final int packed;
   private final PMap<Class<? extends Constraint>, Constraint> constraintPMap;
 
-  private static final ConstraintsByDomain EMPTY = new ConstraintsByDomain(PCollections.emptyMap());
+  /**
+   * Canonical instances of the sets without constraints of other domains, indexed by their packed bits.
+   */
+  private static final ConstraintsByDomain[] PACKED_ONLY = new ConstraintsByDomain[1 << (BOOLEAN_SHIFT + 2)];
+
+  static {
+    for (int i = 0; i < PACKED_ONLY.length; i++) {
+      PACKED_ONLY[i] = new ConstraintsByDomain(i, PCollections.emptyMap());
+    }
+  }
+
+  private static final ConstraintsByDomain EMPTY = PACKED_ONLY[0];
 
-  private ConstraintsByDomain(PMap<Class<? extends Constraint>, Constraint> constraintPMap) {
+  private ConstraintsByDomain(int packed, PMap<Class<? extends Constraint>, Constraint> constraintPMap) {
+    this.packed = packed;
     this.constraintPMap = constraintPMap;
   }
 
@@ -38,44 +65,85 @@ public class ConstraintsByDomain {
   }
 
   public ConstraintsByDomain remove(Class<? extends Constraint> domain) {
-    PMap<Class<? extends Constraint>, Constraint> remove = constraintPMap.remove(domain);
-    if (remove == constraintPMap) {
-      return this;
+    int shift = shift(domain);
+    if (shift >= 0) {
+      return with(packed & ~(PACKED_MASK << shift), constraintPMap);
     }
-    return remove.isEmpty() ? EMPTY : new ConstraintsByDomain(remove);
+    return with(packed, constraintPMap.remove(domain));
   }
 
   @Nullable
   public Constraint get(Class<? extends Constraint> domain) {
+    if (domain == ObjectConstraint.class) {
+      return unpack(OBJECT_CONSTRAINTS, OBJECT_SHIFT);
+    }
+    if (domain == BooleanConstraint.class) {
+      return unpack(BOOLEAN_CONSTRAINTS, BOOLEAN_SHIFT);
+    }
     return constraintPMap.get(domain);
   }
 
   public boolean hasConstraint(Constraint constraint) {
-    return constraint.equals(constraintPMap.get(constraint.getClass()));
+    return constraint.equals(get(constraint.getClass()));
   }
 
   public void forEach(BiConsumer<Class<? extends Constraint>, Constraint> action) {
+    ObjectConstraint objectConstraint = unpack(OBJECT_CONSTRAINTS, OBJECT_SHIFT);
+    if (objectConstraint != null) {
+      action.accept(ObjectConstraint.class, objectConstraint);
+    }
+    BooleanConstraint booleanConstraint = unpack(BOOLEAN_CONSTRAINTS, BOOLEAN_SHIFT);
+    if (booleanConstraint != null) {
+      action.accept(BooleanConstraint.class, booleanConstraint);
+    }
     constraintPMap.forEach(action);
   }
 
   public boolean isEmpty() {
-    return constraintPMap.isEmpty();
+    return packed == 0 && constraintPMap.isEmpty();
   }
 
   public ConstraintsByDomain put(Constraint constraint) {
-    PMap<Class<? extends Constraint>, Constraint> newConstraints = constraintPMap.put(constraint.getClass(), constraint);
-    return newConstraints == constraintPMap ? this : new ConstraintsByDomain(newConstraints);
+    int shift = shift(constraint.getClass());
+    if (shift >= 0) {
+      int ordinal = ((Enum<?>) constraint).ordinal();
+      return with((packed & ~(PACKED_MASK << shift)) | ((ordinal + 1) << shift), constraintPMap);
+    }
+    return with(packed, constraintPMap.put(constraint.getClass(), constraint));
+  }
+
+  private ConstraintsByDomain with(int newPacked, PMap<Class<? extends Constraint>, Constraint> newConstraints) {
+    if (newPacked == packed && newConstraints == constraintPMap) {
+      return this;
+    }
+    return newConstraints.isEmpty() ? PACKED_ONLY[newPacked] : new ConstraintsByDomain(newPacked, newConstraints);
+  }
+
+  /**
+   * @return the position of the bits of the given domain, -1 when it is not packed
+   */
+  private static int shift(Class<?> domain) {
+    if (domain == ObjectConstraint.class) {
+      return OBJECT_SHIFT;
+    }
+    return domain == BooleanConstraint.class ? BOOLEAN_SHIFT : -1;
+  }
+
+  @Nullable
+  private <C extends Constraint> C unpack(C[] constraints, int shift) {
+    int bits = (packed >>> shift) & PACKED_MASK;
+    return bits == 0 ? null : constraints[bits - 1];
   }
 
   public Stream<Constraint> stream() {
     Stream.Builder<Constraint> builder = Stream.builder();
-    constraintPMap.forEach((d, constraint) -> builder.add(constraint));
+    forEach((d, constraint) -> builder.add(constraint));
     return builder.build();
   }
 
   public Stream<Class<? extends Constraint>> domains() {
     Stream.Builder<Class<? extends Constraint>> builder = Stream.builder();
-    constraintPMap.forEach((domain, constraint) -> builder.add(domain));
+    forEach((domain, constraint) -> builder.add(domain));
     return builder.build();
   }
 
@@ -88,7 +156,7 @@ public class ConstraintsByDomain {
       return false;
     }
     ConstraintsByDomain that = (ConstraintsByDomain) o;
-    return constraintPMap.equals(that.constraintPMap);
+    return packed == that.packed && constraintPMap.equals(that.constraintPMap);
   }
 
   @Override
@@ -98,6 +166,7 @@ public class ConstraintsByDomain {
 
   @Override
   public int hashCode() {
-    return constraintPMap.hashCode();
+    // the packed bits are spread, as the constraints of a program state are hashed with the ids of their symbolic values
+    return 31 * constraintPMap.hashCode() + packed * 0x9E3779B9;
   }
 }
@@ -17,14 +17,21 @@
 package org.sonar.java.se.plugin;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Set;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.sonar.api.SonarRuntime;
 import org.sonar.api.batch.rule.CheckFactory;
 import org.sonar.api.batch.rule.Checks;
 import org.sonar.api.ce.ComputeEngineSide;
+import org.sonar.api.config.Configuration;
 import org.sonar.api.scanner.ScannerSide;
 import org.sonar.api.server.ServerSide;
 import org.sonar.api.server.rule.RulesDefinition;
+import org.sonar.java.se.ExplodedGraphWalker;
+import org.sonar.java.se.ExplorationStrategy;
 import org.sonar.java.se.SymbolicExecutionVisitor;
 import org.sonar.java.se.checks.SECheck;
 import org.sonar.plugins.java.api.CheckRegistrar;
@@ -40,11 +47,22 @@ public class JavaSECheckRegistrar implements CheckRegistrar {
   static final String SONAR_WAY_PATH = RESOURCE_BASE_PATH + "/Sonar_way_profile.json";
   public static final String REPOSITORY_KEY = "java";
 
+  public static final String EXPLORATION_STRATEGY_KEY = "sonar.java.experimental.symbolicExecution.strategy";
+  public static final String MAX_STEPS_KEY = "sonar.java.experimental.symbolicExecution.maxSteps";
+
+  private static final Logger LOG = LoggerFactory.getLogger(JavaSECheckRegistrar.class);
   private static final Set<String> RULE_TEMPLATES_KEY = Set.of("S3546");
   private final SonarRuntime runtime;
+  @Nullable
+  private final Configuration configuration;
 
   public JavaSECheckRegistrar(SonarRuntime runtime) {
+    this(runtime, null);
+  }
+
+  public JavaSECheckRegistrar(SonarRuntime runtime, @Nullable Configuration configuration) {
     this.runtime = runtime;
+    this.configuration = configuration;
   }
 
   @Override
@@ -63,10 +81,46 @@ public class JavaSECheckRegistrar implements CheckRegistrar {
 
     var ruleKeys = seChecks.stream().map(checks::ruleKey).toList();
 
-    registrarContext.registerMainSharedCheck(new SymbolicExecutionVisitor(seChecks), ruleKeys);
+    registrarContext.registerMainSharedCheck(new SymbolicExecutionVisitor(seChecks, explorationStrategy(), maxSteps()), ruleKeys);
     registrarContext.registerMainChecks(checks, seChecks);
   }
 
+  ExplorationStrategy explorationStrategy() {
+    if (configuration == null) {
+      return ExplorationStrategy.DEFAULT;
+    }
+    return configuration.get(EXPLORATION_STRATEGY_KEY)
+      .map(name -> ExplorationStrategy.fromName(name).orElseGet(() -> {
+        LOG.warn("Unknown value '{}' for {}, using the {} strategy. Supported values: {}.", name, EXPLORATION_STRATEGY_KEY,
+          ExplorationStrategy.DEFAULT, Arrays.toString(ExplorationStrategy.values()));
+        return ExplorationStrategy.DEFAULT;
+      }))
+      .orElse(ExplorationStrategy.DEFAULT);
+  }
+
+  int maxSteps() {
+    if (configuration == null) {
+      return ExplodedGraphWalker.DEFAULT_MAX_STEPS;
+    }
+    return configuration.get(MAX_STEPS_KEY)
+      .map(JavaSECheckRegistrar::maxSteps)
+      .orElse(ExplodedGraphWalker.DEFAULT_MAX_STEPS);
+  }
+
+  private static int maxSteps(String value) {
+    try {
+      int steps = Integer.parseInt(value.trim());
+      if (steps > 0) {
+        return steps;
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    LOG.warn("Invalid value '{}' for {}, using the default of {} steps. The value must be a positive integer.", value, MAX_STEPS_KEY,
+      ExplodedGraphWalker.DEFAULT_MAX_STEPS);
+    return ExplodedGraphWalker.DEFAULT_MAX_STEPS;
+  }
+
   @Override
   public void customRulesDefinition(RulesDefinition.Context context, RulesDefinition.NewRepository javaRepository) {
     RuleMetadataLoader ruleMetadataLoader = new RuleMetadataLoader(RESOURCE_BASE_PATH, SONAR_WAY_PATH, runtime);
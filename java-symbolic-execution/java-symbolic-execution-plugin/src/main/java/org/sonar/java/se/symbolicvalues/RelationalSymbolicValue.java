@@ -20,8 +20,10 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
@@ -43,7 +45,7 @@ import static org.sonar.java.se.symbolicvalues.RelationalSymbolicValue.Kind.METH
 public class RelationalSymbolicValue extends BinarySymbolicValue {
 
   private static final int MAX_ITERATIONS = 10_000;
-  private static final int MAX_DEDUCED_RELATIONS = 100_000;
+  private static final int MAX_COMBINED_RELATIONS = 100_000;
 
   public enum Kind {
     EQUAL("=="),
@@ -271,30 +273,62 @@ public class RelationalSymbolicValue extends BinarySymbolicValue {
     return RelationState.UNDETERMINED;
   }
 
+  /**
+   * Only relations sharing an operand can be simplified or combined transitively: each deduced relation is only combined with the
+   * known relations on its operands, found through an index of the known relations by operand.
+   */
   @VisibleForTesting
   Set<RelationalSymbolicValue> transitiveRelations(Set<RelationalSymbolicValue> knownRelations) {
+    Map<SymbolicValue, List<RelationalSymbolicValue>> relationsByOperand = relationsByOperand(knownRelations);
     Set<RelationalSymbolicValue> newRelations = new HashSet<>();
     Deque<RelationalSymbolicValue> workList = new ArrayDeque<>();
     int iterations = 0;
+    int combinedRelations = 0;
     workList.add(this);
     while (!workList.isEmpty()) {
-      int relationSize = newRelations.size() * knownRelations.size();
-      if (relationSize > MAX_DEDUCED_RELATIONS || iterations > MAX_ITERATIONS) {
+      if (combinedRelations > MAX_COMBINED_RELATIONS || iterations > MAX_ITERATIONS) {
         // safety mechanism in case of an error in the algorithm
-        throw new RelationalSymbolicValue.TransitiveRelationExceededException("Used relations: " + relationSize + ". Iterations " + iterations);
+        throw new RelationalSymbolicValue.TransitiveRelationExceededException("Combined relations: " + combinedRelations + ". Iterations " + iterations);
       }
       iterations++;
       RelationalSymbolicValue relation = workList.pop();
-      for (RelationalSymbolicValue knownRelation : knownRelations) {
-        RelationalSymbolicValue r = relation.deduceTransitiveOrSimplified(knownRelation);
-        if (r != null && !knownRelations.contains(r) && newRelations.add(r)) {
-          workList.add(r);
+      for (RelationalSymbolicValue knownRelation : relationsByOperand.getOrDefault(relation.leftOp, Collections.emptyList())) {
+        combinedRelations++;
+        deduce(relation, knownRelation, knownRelations, newRelations, workList);
+      }
+      if (relation.hasSameOperand()) {
+        continue;
+      }
+      for (RelationalSymbolicValue knownRelation : relationsByOperand.getOrDefault(relation.rightOp, Collections.emptyList())) {
+        // relations on both operands were already combined with the relations on the left operand
+        if (!knownRelation.hasOperand(relation.leftOp)) {
+          combinedRelations++;
+          deduce(relation, knownRelation, knownRelations, newRelations, workList);
         }
       }
     }
     return newRelations;
   }
 
+  private static Map<SymbolicValue, List<RelationalSymbolicValue>> relationsByOperand(Set<RelationalSymbolicValue> relations) {
+    Map<SymbolicValue, List<RelationalSymbolicValue>> relationsByOperand = new HashMap<>();
+    for (RelationalSymbolicValue relation : relations) {
+      relationsByOperand.computeIfAbsent(relation.leftOp, k -> new ArrayList<>()).add(relation);
+      if (!relation.hasSameOperand()) {
+        relationsByOperand.computeIfAbsent(relation.rightOp, k -> new ArrayList<>()).add(relation);
+      }
+    }
+    return relationsByOperand;
+  }
+
+  private static void deduce(RelationalSymbolicValue relation, RelationalSymbolicValue knownRelation, Set<RelationalSymbolicValue> knownRelations,
+    Set<RelationalSymbolicValue> newRelations, Deque<RelationalSymbolicValue> workList) {
+    RelationalSymbolicValue r = relation.deduceTransitiveOrSimplified(knownRelation);
+    if (r != null && !knownRelations.contains(r) && newRelations.add(r)) {
+      workList.add(r);
+    }
+  }
+
   @VisibleForTesting
   RelationalSymbolicValue deduceTransitiveOrSimplified(RelationalSymbolicValue other) {
     RelationalSymbolicValue result = simplify(other);
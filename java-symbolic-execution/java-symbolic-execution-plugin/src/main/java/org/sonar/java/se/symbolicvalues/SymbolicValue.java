@@ -111,6 +111,10 @@ public class SymbolicValue {
     return !PROTECTED_SYMBOLIC_VALUES.contains(symbolicValue) && !(symbolicValue instanceof RelationalSymbolicValue);
   }
 
+  public static boolean isLiteral(SymbolicValue symbolicValue) {
+    return PROTECTED_SYMBOLIC_VALUES.contains(symbolicValue);
+  }
+
   public boolean references(SymbolicValue other) {
     return false;
   }
@@ -16,17 +16,10 @@
  */
 package org.sonar.java.se.xproc;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 import javax.annotation.CheckForNull;
@@ -46,7 +39,16 @@ public class BehaviorCache {
 
   @VisibleForTesting
   public final Map<String, MethodBehavior> behaviors = new LinkedHashMap<>();
-  private Map<String, MethodBehavior> hardcodedBehaviors = null;
+  private BinaryMethodBehaviors hardcodedBehaviors = null;
+  private final BehaviorStore store;
+
+  public BehaviorCache() {
+    this(new BehaviorStore());
+  }
+
+  public BehaviorCache(BehaviorStore store) {
+    this.store = store;
+  }
 
   public void setFileContext(@Nullable SymbolicExecutionVisitor sev) {
     this.sev = sev;
@@ -56,8 +58,19 @@ public class BehaviorCache {
     behaviors.clear();
   }
 
+  public BehaviorStore store() {
+    return store;
+  }
+
+  /**
+   * @return the behaviors computed for the methods of the current file
+   */
+  public Collection<MethodBehavior> computedBehaviors() {
+    return behaviors.values();
+  }
+
   @VisibleForTesting
-  Map<String, MethodBehavior> hardcodedBehaviors() {
+  BinaryMethodBehaviors hardcodedBehaviors() {
     if (hardcodedBehaviors == null) {
       hardcodedBehaviors = HardcodedMethodBehaviors.load();
       LOG.debug("[SE] Loaded {} hardcoded method behaviors.", hardcodedBehaviors.size());
@@ -95,7 +108,7 @@ public class BehaviorCache {
       }
     }
 
-    return hardcodedBehaviors().get(signature);
+    return storedOrHardcoded(signature);
   }
 
   /**
@@ -111,30 +124,28 @@ public class BehaviorCache {
     if (mb != null) {
       return mb;
     }
-    // check for hardcoded signatures
+    // check for behaviors computed on other files and hardcoded signatures
+    return storedOrHardcoded(signature);
+  }
+
+  @CheckForNull
+  private MethodBehavior storedOrHardcoded(String signature) {
+    MethodBehavior mb = store.get(signature);
+    if (mb != null) {
+      return mb;
+    }
     return hardcodedBehaviors().get(signature);
   }
 
   static class HardcodedMethodBehaviors {
-    private static final String UNABLE_LOAD_MSG = "[SE] Unable to load hardcoded method behaviors. Defaulting to no hardcoded method behaviors.";
-
-    private static final String[] BEHAVIORS_RESOURCES = {
-      "java.lang.json",
-      "java.util.json",
-      "com.google.common.base.json",
-      "org.apache.commons.collections.json",
-      "org.apache.commons.lang.json",
-      "org.apache.commons.lang3.json",
-      "org.apache.logging.log4j.core.util.json",
-      "org.eclipse.core.runtime.json",
-      "org.springframework.util.json",
-      "org.junit.jupiter.api.json",
-      "org.junit.json"
-    };
-
-    private static final Type LIST_OF_METHOD_BEHAVIORS_TYPE = new TypeToken<List<MethodBehavior>>() {}.getType();
-
-    private final Map<String, MethodBehavior> storedHardcodedMethodBehaviors;
+    private static final String UNABLE_LOAD_MSG = "[SE] Unable to load hardcoded method behaviors.";
+
+    /**
+     * Compiled from the JSON files of {@code src/main/hardcoded-behaviors}, see {@code HardcodedBehaviorsCompiler}.
+     */
+    private static final String BEHAVIORS_RESOURCE = "hardcoded-behaviors.bin";
+
+    private final BinaryMethodBehaviors storedHardcodedMethodBehaviors;
 
     private HardcodedMethodBehaviors() {
       this.storedHardcodedMethodBehaviors = loadHardcodedBehaviors();
@@ -149,35 +160,30 @@ public class BehaviorCache {
       return uniqueInstance;
     }
 
-    public static Map<String, MethodBehavior> load() {
+    public static BinaryMethodBehaviors load() {
       return uniqueInstance().storedHardcodedMethodBehaviors;
     }
 
-    private static Map<String, MethodBehavior> loadHardcodedBehaviors() {
-      return loadHardcodedBehaviors(
-        () -> Arrays.stream(BEHAVIORS_RESOURCES)
-          .map(BehaviorCache.class::getResourceAsStream)
-          .toList());
+    private static BinaryMethodBehaviors loadHardcodedBehaviors() {
+      return loadHardcodedBehaviors(() -> BehaviorCache.class.getResourceAsStream(BEHAVIORS_RESOURCE));
     }
 
+    /**
+     * The hardcoded behaviors are part of the plugin: failing to load them is a packaging error, not to be hidden by
+     * analyzing without them.
+     *
+     * @throws IllegalStateException when the hardcoded behaviors are missing or invalid
+     */
     @VisibleForTesting
-    static Map<String, MethodBehavior> loadHardcodedBehaviors(Supplier<List<InputStream>> methodBehaviorStreamsSupplier) {
-      Map<String, MethodBehavior> result = new LinkedHashMap<>();
-      Gson gson = MethodBehaviorJsonAdapter.gson();
-      for (InputStream serializedStream : methodBehaviorStreamsSupplier.get()) {
+    static BinaryMethodBehaviors loadHardcodedBehaviors(Supplier<InputStream> methodBehaviorsStreamSupplier) {
+      try (InputStream serializedStream = methodBehaviorsStreamSupplier.get()) {
         if (serializedStream == null) {
-          LOG.debug(UNABLE_LOAD_MSG);
-          return Collections.emptyMap();
-        }
-        try (Reader reader = new InputStreamReader(serializedStream, StandardCharsets.UTF_8)) {
-          List<MethodBehavior> deserialized = gson.fromJson(reader, LIST_OF_METHOD_BEHAVIORS_TYPE);
-          deserialized.forEach(methodBehavior -> result.put(methodBehavior.signature(), methodBehavior));
-        } catch (Exception e) {
-          LOG.error(UNABLE_LOAD_MSG, e);
-          return Collections.emptyMap();
+          throw new IllegalStateException(UNABLE_LOAD_MSG + " Missing resource '" + BEHAVIORS_RESOURCE + "'.");
         }
+        return BinaryMethodBehaviors.read(serializedStream);
+      } catch (IOException e) {
+        throw new IllegalStateException(UNABLE_LOAD_MSG, e);
       }
-      return Collections.unmodifiableMap(result);
     }
   }
 }
@@ -0,0 +1,233 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se.xproc;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.annotations.VisibleForTesting;
+import org.sonar.java.se.constraint.BooleanConstraint;
+import org.sonar.java.se.constraint.ConstraintsByDomain;
+import org.sonar.java.se.constraint.ObjectConstraint;
+import org.sonar.plugins.java.api.caching.JavaReadCache;
+
+/**
+ * Method behaviors computed for the methods of the module by the previous analysis, so that the behaviors of the methods
+ * declared in the other files can be reused instead of being unknown.
+ * <p>
+ * The behaviors of the other files are only read from the cache of the previous analysis, never taken from the files
+ * analyzed before the current one: the issues of a file then do not depend on the order in which the files are analyzed.
+ * Only the behaviors of the types declared by files unchanged since the previous analysis are reused, as the cached
+ * behaviors of a changed file describe its previous version. The unchanged files are the ones scanned without parsing,
+ * which are all scanned before the other files: when unchanged files cannot be skipped, no behavior is reused.
+ * <p>
+ * The behaviors are written to the cache by type, in the format of {@link MethodBehaviorJsonAdapter}, and are read back the
+ * first time a method of the type is looked up. Only the behaviors which can be serialized without loss are written.
+ * The memory used is bounded by the total number of yields of the types read, the least recently used types being evicted
+ * first and read again when needed. The store can be shared between threads.
+ */
+public class BehaviorStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BehaviorStore.class);
+
+  private static final String TYPE_CACHE_KEY_PREFIX = "java:se:behaviors:";
+  private static final String FILE_CACHE_KEY_PREFIX = "java:se:behaviorTypes:";
+  private static final Type LIST_OF_METHOD_BEHAVIORS_TYPE = new TypeToken<List<MethodBehavior>>() {}.getType();
+  private static final Gson GSON = MethodBehaviorJsonAdapter.compactGson();
+
+  @VisibleForTesting
+  static final int DEFAULT_MAX_YIELDS = 200_000;
+
+  private final Map<String, Map<String, MethodBehavior>> behaviorsByType = new LinkedHashMap<>(16, 0.75f, true);
+  private final Set<String> unchangedTypes = new HashSet<>();
+  private final int maxYields;
+  private int yields = 0;
+  @Nullable
+  private JavaReadCache previousAnalysis;
+
+  public BehaviorStore() {
+    this(DEFAULT_MAX_YIELDS);
+  }
+
+  @VisibleForTesting
+  BehaviorStore(int maxYields) {
+    this.maxYields = maxYields;
+  }
+
+  /**
+   * @return the key of the behaviors of the methods declared by the given type
+   */
+  public static String cacheKey(String typeName) {
+    return TYPE_CACHE_KEY_PREFIX + typeName;
+  }
+
+  /**
+   * @return the key of the names of the types whose behaviors have been written for the given file
+   */
+  public static String cacheKey(InputFile inputFile) {
+    return FILE_CACHE_KEY_PREFIX + inputFile.key();
+  }
+
+  /**
+   * @param previousAnalysis the cache of the previous analysis, null when the cache is disabled
+   */
+  public synchronized void setPreviousAnalysis(@Nullable JavaReadCache previousAnalysis) {
+    if (this.previousAnalysis != previousAnalysis) {
+      this.previousAnalysis = previousAnalysis;
+      behaviorsByType.clear();
+      unchangedTypes.clear();
+      yields = 0;
+    }
+  }
+
+  /**
+   * @param typeNames names of the types whose behaviors have been written for a file unchanged since the previous analysis
+   */
+  public synchronized void addUnchangedTypes(Collection<String> typeNames) {
+    unchangedTypes.addAll(typeNames);
+  }
+
+  @CheckForNull
+  public synchronized MethodBehavior get(String signature) {
+    String typeName = typeName(signature);
+    if (previousAnalysis == null || !unchangedTypes.contains(typeName)) {
+      return null;
+    }
+    Map<String, MethodBehavior> behaviors = behaviorsByType.get(typeName);
+    if (behaviors == null) {
+      behaviors = read(previousAnalysis, typeName);
+      put(typeName, behaviors);
+    }
+    return behaviors.get(signature);
+  }
+
+  @VisibleForTesting
+  synchronized int size() {
+    return behaviorsByType.values().stream().mapToInt(Map::size).sum();
+  }
+
+  private static Map<String, MethodBehavior> read(JavaReadCache previousAnalysis, String typeName) {
+    byte[] data = previousAnalysis.readBytes(cacheKey(typeName));
+    if (data == null) {
+      return Collections.emptyMap();
+    }
+    try {
+      return fromCacheData(data).stream().collect(Collectors.toMap(MethodBehavior::signature, Function.identity(), (a, b) -> b));
+    } catch (JsonParseException | IllegalArgumentException | IllegalStateException e) {
+      LOG.debug("Could not reuse method behaviors from cache key '{}': {}", cacheKey(typeName), e.getMessage());
+      return Collections.emptyMap();
+    }
+  }
+
+  private void put(String typeName, Map<String, MethodBehavior> behaviors) {
+    behaviorsByType.put(typeName, behaviors);
+    yields += weight(behaviors);
+    Iterator<Map<String, MethodBehavior>> leastRecentlyUsed = behaviorsByType.values().iterator();
+    // the type just read is the most recently used one, and is never evicted
+    while (yields > maxYields && behaviorsByType.size() > 1) {
+      yields -= weight(leastRecentlyUsed.next());
+      leastRecentlyUsed.remove();
+    }
+  }
+
+  private static int weight(Map<String, MethodBehavior> behaviors) {
+    return 1 + behaviors.values().stream().mapToInt(methodBehavior -> 1 + methodBehavior.yields().size()).sum();
+  }
+
+  private static String typeName(String signature) {
+    int methodSeparator = signature.indexOf('#');
+    return methodSeparator < 0 ? signature : signature.substring(0, methodSeparator);
+  }
+
+  /**
+   * Serializes the given behaviors, ignoring the ones which cannot be serialized without loss.
+   *
+   * @return the data to write in the cache, by name of the type declaring the methods
+   */
+  public static Map<String, byte[]> toCacheData(Collection<MethodBehavior> computedBehaviors) {
+    Map<String, List<MethodBehavior>> behaviorsByTypeName = computedBehaviors.stream()
+      .filter(BehaviorStore::isStorable)
+      .collect(Collectors.groupingBy(methodBehavior -> typeName(methodBehavior.signature()), LinkedHashMap::new, Collectors.toList()));
+    Map<String, byte[]> result = new LinkedHashMap<>();
+    behaviorsByTypeName.forEach((typeName, behaviors) -> result.put(typeName, GSON.toJson(behaviors, LIST_OF_METHOD_BEHAVIORS_TYPE).getBytes(StandardCharsets.UTF_8)));
+    return result;
+  }
+
+  /**
+   * Reads the behaviors written by {@link #toCacheData(Collection)}.
+   *
+   * @throws JsonParseException when the data is not valid
+   */
+  @VisibleForTesting
+  static List<MethodBehavior> fromCacheData(byte[] data) {
+    List<MethodBehavior> cached = GSON.fromJson(new String(data, StandardCharsets.UTF_8), LIST_OF_METHOD_BEHAVIORS_TYPE);
+    if (cached == null) {
+      throw new JsonParseException("No method behaviors");
+    }
+    return cached;
+  }
+
+  /**
+   * Yields based on checks and constraints of other domains than nullness and boolean values are not serialized, nor yields
+   * missing the constraints of some parameters.
+   */
+  @VisibleForTesting
+  static boolean isStorable(MethodBehavior methodBehavior) {
+    return methodBehavior.isComplete() && methodBehavior.yields().stream().allMatch(methodYield -> isStorable(methodYield, methodBehavior.methodArity()));
+  }
+
+  private static boolean isStorable(MethodYield methodYield, int arity) {
+    if (methodYield instanceof ExceptionalCheckBasedYield || !hasConstraintsOfEachParameter(methodYield, arity)) {
+      return false;
+    }
+    Stream<ConstraintsByDomain> constraints = methodYield.parametersConstraints.stream();
+    if (methodYield instanceof HappyPathYield happyPathYield) {
+      constraints = Stream.concat(constraints, Stream.of(happyPathYield.resultConstraint()));
+    }
+    return constraints.allMatch(BehaviorStore::hasOnlySerializableConstraints);
+  }
+
+  /**
+   * The constraints of the parameters are written by position: a yield missing some of them cannot be written.
+   */
+  @VisibleForTesting
+  static boolean hasConstraintsOfEachParameter(MethodYield methodYield, int arity) {
+    return methodYield.parametersConstraints.size() == arity;
+  }
+
+  private static boolean hasOnlySerializableConstraints(@Nullable ConstraintsByDomain constraints) {
+    return constraints == null || constraints.stream().allMatch(c -> c instanceof ObjectConstraint || c instanceof BooleanConstraint);
+  }
+}
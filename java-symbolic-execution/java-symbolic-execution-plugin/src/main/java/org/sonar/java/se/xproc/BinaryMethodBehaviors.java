@@ -0,0 +1,278 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se.xproc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.java.se.checks.DivisionByZeroCheck.ZeroConstraint;
+import org.sonar.java.se.constraint.BooleanConstraint;
+import org.sonar.java.se.constraint.Constraint;
+import org.sonar.java.se.constraint.ConstraintsByDomain;
+import org.sonar.java.se.constraint.ObjectConstraint;
+
+/**
+ * Compact binary form of the hardcoded method behaviors, compiled from their JSON description and committed as a resource
+ * (see {@code HardcodedBehaviorsCompiler}, in the test sources).
+ * <p>
+ * Only the sorted signatures and the offsets of the encoded behaviors are read when loading, each behavior being decoded
+ * on its first lookup. Layout of the data, written with {@link DataOutputStream}:
+ * <pre>
+ * magic, version
+ * strings:   count, UTF...                        (exception types, shared by the behaviors)
+ * index:     count, (UTF signature, int offset)...  (sorted by signature)
+ * behaviors: (varArgs, declared exceptions, yields)...
+ * </pre>
+ */
+public final class BinaryMethodBehaviors {
+
+  private static final int MAGIC = 0x53454842;
+  private static final int VERSION = 1;
+
+  private static final byte HAPPY_PATH_YIELD = 0;
+  private static final byte EXCEPTIONAL_YIELD = 1;
+  private static final int NO_STRING = -1;
+  private static final byte NO_CONSTRAINTS = -1;
+  /**
+   * Constraints which can be hardcoded, each one being encoded as a bit of a byte.
+   */
+  private static final Constraint[] CONSTRAINTS = {
+    ObjectConstraint.NULL,
+    ObjectConstraint.NOT_NULL,
+    BooleanConstraint.TRUE,
+    BooleanConstraint.FALSE,
+    ZeroConstraint.ZERO,
+    ZeroConstraint.NON_ZERO
+  };
+
+  private final byte[] data;
+  private final String[] strings;
+  private final String[] signatures;
+  private final int[] offsets;
+  private final AtomicReferenceArray<MethodBehavior> decoded;
+
+  private BinaryMethodBehaviors(byte[] data, String[] strings, String[] signatures, int[] offsets) {
+    this.data = data;
+    this.strings = strings;
+    this.signatures = signatures;
+    this.offsets = offsets;
+    this.decoded = new AtomicReferenceArray<>(signatures.length);
+  }
+
+  public static BinaryMethodBehaviors empty() {
+    return new BinaryMethodBehaviors(new byte[0], new String[0], new String[0], new int[0]);
+  }
+
+  /**
+   * @throws IOException when the data is not valid
+   */
+  public static BinaryMethodBehaviors read(InputStream inputStream) throws IOException {
+    byte[] data = inputStream.readAllBytes();
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+      throw new IOException("Unsupported format of method behaviors");
+    }
+    String[] strings = new String[in.readInt()];
+    for (int i = 0; i < strings.length; i++) {
+      strings[i] = in.readUTF();
+    }
+    int count = in.readInt();
+    String[] signatures = new String[count];
+    int[] offsets = new int[count];
+    for (int i = 0; i < count; i++) {
+      signatures[i] = in.readUTF();
+      offsets[i] = in.readInt();
+    }
+    // offsets are relative to the start of the encoded behaviors, right after the index
+    int behaviorsStart = data.length - in.available();
+    for (int i = 0; i < count; i++) {
+      offsets[i] += behaviorsStart;
+      if (offsets[i] < behaviorsStart || offsets[i] >= data.length) {
+        throw new IOException("Invalid offset of method behavior " + signatures[i]);
+      }
+    }
+    return new BinaryMethodBehaviors(data, strings, signatures, offsets);
+  }
+
+  public int size() {
+    return signatures.length;
+  }
+
+  public List<String> signatures() {
+    return Arrays.asList(signatures);
+  }
+
+  @CheckForNull
+  public MethodBehavior get(String signature) {
+    int index = Arrays.binarySearch(signatures, signature);
+    if (index < 0) {
+      return null;
+    }
+    MethodBehavior methodBehavior = decoded.get(index);
+    if (methodBehavior == null) {
+      methodBehavior = decode(index);
+      if (!decoded.compareAndSet(index, null, methodBehavior)) {
+        methodBehavior = decoded.get(index);
+      }
+    }
+    return methodBehavior;
+  }
+
+  private MethodBehavior decode(int index) {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offsets[index], data.length - offsets[index]));
+    try {
+      MethodBehavior methodBehavior = new MethodBehavior(signatures[index], in.readBoolean());
+      List<String> declaredExceptions = new ArrayList<>();
+      for (int i = in.readUnsignedShort(); i > 0; i--) {
+        declaredExceptions.add(strings[in.readInt()]);
+      }
+      methodBehavior.setDeclaredExceptions(declaredExceptions);
+      for (int i = in.readUnsignedShort(); i > 0; i--) {
+        methodBehavior.addYield(decodeYield(in, methodBehavior));
+      }
+      methodBehavior.completed();
+      return methodBehavior;
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to decode method behavior " + signatures[index], e);
+    }
+  }
+
+  private MethodYield decodeYield(DataInputStream in, MethodBehavior methodBehavior) throws IOException {
+    MethodYield methodYield;
+    if (in.readByte() == EXCEPTIONAL_YIELD) {
+      ExceptionalYield exceptionalYield = new ExceptionalYield(methodBehavior);
+      int exceptionType = in.readInt();
+      if (exceptionType != NO_STRING) {
+        exceptionalYield.setExceptionType(strings[exceptionType]);
+      }
+      methodYield = exceptionalYield;
+    } else {
+      HappyPathYield happyPathYield = new HappyPathYield(methodBehavior);
+      int resultIndex = in.readInt();
+      happyPathYield.setResult(resultIndex, decodeConstraints(in.readByte()));
+      methodYield = happyPathYield;
+    }
+    for (int i = in.readUnsignedByte(); i > 0; i--) {
+      methodYield.parametersConstraints.add(decodeConstraints(in.readByte()));
+    }
+    return methodYield;
+  }
+
+  @CheckForNull
+  private static ConstraintsByDomain decodeConstraints(byte encoded) {
+    if (encoded == NO_CONSTRAINTS) {
+      return null;
+    }
+    ConstraintsByDomain constraints = ConstraintsByDomain.empty();
+    for (int i = 0; i < CONSTRAINTS.length; i++) {
+      if ((encoded & (1 << i)) != 0) {
+        constraints = constraints.put(CONSTRAINTS[i]);
+      }
+    }
+    return constraints;
+  }
+
+  public static void write(Collection<MethodBehavior> methodBehaviors, OutputStream outputStream) throws IOException {
+    List<MethodBehavior> sorted = methodBehaviors.stream()
+      .sorted(Comparator.comparing(MethodBehavior::signature))
+      .toList();
+    Map<String, Integer> strings = new LinkedHashMap<>();
+    ByteArrayOutputStream encodedBehaviors = new ByteArrayOutputStream();
+    DataOutputStream behaviorsOut = new DataOutputStream(encodedBehaviors);
+    int[] offsets = new int[sorted.size()];
+    for (int i = 0; i < sorted.size(); i++) {
+      offsets[i] = behaviorsOut.size();
+      encode(sorted.get(i), behaviorsOut, strings);
+    }
+
+    DataOutputStream out = new DataOutputStream(outputStream);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(strings.size());
+    for (String string : strings.keySet()) {
+      out.writeUTF(string);
+    }
+    out.writeInt(sorted.size());
+    for (int i = 0; i < sorted.size(); i++) {
+      out.writeUTF(sorted.get(i).signature());
+      out.writeInt(offsets[i]);
+    }
+    encodedBehaviors.writeTo(out);
+    out.flush();
+  }
+
+  private static void encode(MethodBehavior methodBehavior, DataOutputStream out, Map<String, Integer> strings) throws IOException {
+    out.writeBoolean(methodBehavior.isMethodVarArgs());
+    List<String> declaredExceptions = methodBehavior.getDeclaredExceptions();
+    out.writeShort(declaredExceptions.size());
+    for (String declaredException : declaredExceptions) {
+      out.writeInt(stringIndex(declaredException, strings));
+    }
+    List<MethodYield> yields = methodBehavior.yields();
+    out.writeShort(yields.size());
+    for (MethodYield methodYield : yields) {
+      if (methodYield instanceof HappyPathYield happyPathYield) {
+        out.writeByte(HAPPY_PATH_YIELD);
+        out.writeInt(happyPathYield.resultIndex());
+        out.writeByte(encodeConstraints(happyPathYield.resultConstraint()));
+      } else if (methodYield instanceof ExceptionalYield exceptionalYield && !(methodYield instanceof ExceptionalCheckBasedYield)) {
+        out.writeByte(EXCEPTIONAL_YIELD);
+        String exceptionType = exceptionalYield.getExceptionType();
+        out.writeInt(exceptionType == null ? NO_STRING : stringIndex(exceptionType, strings));
+      } else {
+        throw new IllegalStateException("Hardcoded yields should only be HappyPathYield or ExceptionalYield.");
+      }
+      out.writeByte(methodYield.parametersConstraints.size());
+      for (ConstraintsByDomain constraints : methodYield.parametersConstraints) {
+        out.writeByte(encodeConstraints(constraints));
+      }
+    }
+  }
+
+  private static int stringIndex(String string, Map<String, Integer> strings) {
+    return strings.computeIfAbsent(string, k -> strings.size());
+  }
+
+  private static byte encodeConstraints(@Nullable ConstraintsByDomain constraints) {
+    if (constraints == null) {
+      return NO_CONSTRAINTS;
+    }
+    int encoded = 0;
+    for (Constraint constraint : constraints.stream().toList()) {
+      int bit = Arrays.asList(CONSTRAINTS).indexOf(constraint);
+      if (bit < 0) {
+        throw new IllegalStateException("Unsupported constraint \"" + constraint + "\" in hardcoded method behaviors.");
+      }
+      encoded |= 1 << bit;
+    }
+    return (byte) encoded;
+  }
+}
@@ -61,6 +61,17 @@ public class MethodBehaviorJsonAdapter implements JsonSerializer<MethodBehavior>
       .create();
   }
 
+  /**
+   * Same as {@link #gson()}, without pretty printing, to store method behaviors in the cache.
+   */
+  public static Gson compactGson() {
+    return new GsonBuilder()
+      .registerTypeAdapter(MethodBehavior.class,
+        new MethodBehaviorJsonAdapter())
+      .serializeNulls()
+      .create();
+  }
+
   @Override
   public MethodBehavior deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
     JsonObject jsonMB = (JsonObject) json;
@@ -86,7 +97,11 @@ public class MethodBehaviorJsonAdapter implements JsonSerializer<MethodBehavior>
     MethodYield result;
     if (methodYield.has(JSON_THROWN_EXCEPTION)) {
       ExceptionalYield exceptionalYield = new ExceptionalYield(behavior);
-      exceptionalYield.setExceptionType(methodYield.get(JSON_THROWN_EXCEPTION).getAsString());
+      JsonElement exceptionType = methodYield.get(JSON_THROWN_EXCEPTION);
+      // unknown exception type of computed method behaviors
+      if (!exceptionType.isJsonNull()) {
+        exceptionalYield.setExceptionType(exceptionType.getAsString());
+      }
       result = exceptionalYield;
     } else {
       HappyPathYield happyPathYield = new HappyPathYield(behavior);
@@ -25,6 +25,8 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.sonar.java.checks.verifier.TestUtils;
 import org.sonar.java.se.checks.AllowXMLInclusionCheck;
 import org.sonar.java.se.checks.BooleanGratuitousExpressionsCheck;
@@ -80,6 +82,17 @@ class ExplodedGraphWalkerTest {
       .verifyIssues();
   }
 
+  @ParameterizedTest
+  @EnumSource(ExplorationStrategy.class)
+  void seEngineTest_with_each_exploration_strategy(ExplorationStrategy explorationStrategy) {
+    SECheckVerifier.newVerifier()
+      .withExplorationStrategy(explorationStrategy)
+      .onFile("src/test/files/se/SeEngineTest.java")
+      .withChecks(seChecks())
+      .withClassPath(SETestUtils.CLASS_PATH)
+      .verifyIssues();
+  }
+
   @Test
   void test_cleanup_state() {
     final int[] steps = new int[2];
@@ -205,10 +218,10 @@ class ExplodedGraphWalkerTest {
 
               if (getNode) {
                 if (firstExceptionalNode == null) {
-                  firstExceptionalNode = workList.peekFirst();
+                  firstExceptionalNode = workList.peek();
                 }
-                assertThat(workList).as("Should have created a new node in the graph for each of the exceptions").hasSize(workListSize + 1);
-                assertThat(workList.peekFirst().programState.peekValue()).as("Exceptional Symbolic Value should stay on the stack").isEqualTo(exceptionSV);
+                assertThat(workList.size()).as("Should have created a new node in the graph for each of the exceptions").isEqualTo(workListSize + 1);
+                assertThat(workList.peek().programState.peekValue()).as("Exceptional Symbolic Value should stay on the stack").isEqualTo(exceptionSV);
                 tested[0]++;
               }
             }
@@ -260,10 +273,10 @@ class ExplodedGraphWalkerTest {
 
               super.enqueue(programPoint, programState, exitPath);
 
-              assertThat(workList).hasSize(workListSize + 1);
+              assertThat(workList.size()).isEqualTo(workListSize + 1);
               if (shouldEnqueueFalseBranch) {
                 assertThat(programPoints[1]).isNull();
-                programPoints[1] = workList.peekFirst().programPoint;
+                programPoints[1] = workList.peek().programPoint;
               }
             }
           };
@@ -369,6 +382,25 @@ class ExplodedGraphWalkerTest {
       .verifyNoIssues();
   }
 
+  @Test
+  void test_configured_maximum_steps_reached() {
+    SECheckVerifier.newVerifier()
+      .onFile("src/test/files/se/MaxSteps.java")
+      .withCheck(new SymbolicExecutionVisitor(Collections.emptyList()) {
+        @Override
+        public void visitMethod(MethodTree methodTree) {
+          ExplodedGraphWalker explodedGraphWalker = new ExplodedGraphWalker.ExplodedGraphWalkerFactory(Collections.emptyList(), ExplorationStrategy.BFS, 100)
+            .createWalker(this.behaviorCache, context);
+          MethodBehavior methodBehavior = methodBehaviorForSymbol(methodTree.symbol());
+          assertThatThrownBy(() -> explodedGraphWalker.visitMethod(methodTree, methodBehavior))
+            .isInstanceOf(ExplodedGraphWalker.MaximumStepsReachedException.class)
+            .hasMessageStartingWith("reached limit of 100 steps for method");
+        }
+      })
+      .withClassPath(SETestUtils.CLASS_PATH)
+      .verifyNoIssues();
+  }
+
   @Test
   void test_maximum_steps_reached_with_issue() {
     SECheckVerifier.newVerifier()
@@ -0,0 +1,131 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.cfg.CFG;
+import org.sonar.java.se.utils.CFGTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExplorationStrategyTest {
+
+  private static final CFG CFG_WITH_JOIN = CFGTestUtils.buildCFG("void foo(boolean a) { if(a) {foo(true);} foo(false); }");
+
+  @Test
+  void from_name() {
+    assertThat(ExplorationStrategy.fromName("dfs")).contains(ExplorationStrategy.DFS);
+    assertThat(ExplorationStrategy.fromName(" BFS ")).contains(ExplorationStrategy.BFS);
+    assertThat(ExplorationStrategy.fromName("Topological")).contains(ExplorationStrategy.TOPOLOGICAL);
+    assertThat(ExplorationStrategy.fromName("random")).isEmpty();
+  }
+
+  @Test
+  void reverse_post_order_ranks_blocks_before_their_successors() {
+    int[] rankById = ExplorationStrategy.reversePostOrder(CFG_WITH_JOIN);
+
+    assertThat(rankById[CFG_WITH_JOIN.entryBlock().id()]).isZero();
+    assertThat(rankById[CFG_WITH_JOIN.exitBlock().id()]).isEqualTo(CFG_WITH_JOIN.blocks().size() - 1);
+    for (CFG.Block block : CFG_WITH_JOIN.blocks()) {
+      for (CFG.Block successor : block.successors()) {
+        assertThat(rankById[block.id()]).isLessThan(rankById[successor.id()]);
+      }
+    }
+  }
+
+  @Test
+  void dfs_explores_last_enqueued_node_first() {
+    List<ExplodedGraph.Node> nodes = nodesFromExitToEntry();
+
+    assertThat(pollAll(ExplorationStrategy.DFS, nodes)).containsExactlyElementsOf(reversed(nodes));
+  }
+
+  @Test
+  void bfs_explores_first_enqueued_node_first() {
+    List<ExplodedGraph.Node> nodes = nodesFromExitToEntry();
+
+    assertThat(pollAll(ExplorationStrategy.BFS, nodes)).containsExactlyElementsOf(nodes);
+  }
+
+  @Test
+  void topological_explores_nodes_in_cfg_order() {
+    List<ExplodedGraph.Node> nodes = nodesFromExitToEntry();
+    List<ExplodedGraph.Node> shuffled = List.of(nodes.get(1), nodes.get(3), nodes.get(0), nodes.get(2));
+
+    assertThat(pollAll(ExplorationStrategy.TOPOLOGICAL, shuffled)).containsExactlyElementsOf(reversed(nodes));
+  }
+
+  @Test
+  void topological_explores_nodes_of_the_same_program_point_last_enqueued_first() {
+    ExplodedGraph explodedGraph = new ExplodedGraph();
+    ProgramPoint programPoint = new ProgramPoint(CFG_WITH_JOIN.entryBlock());
+    ExplodedGraph.Node first = explodedGraph.node(programPoint, ProgramState.EMPTY_STATE);
+    ExplodedGraph.Node second = explodedGraph.node(programPoint, ProgramState.EMPTY_STATE.visitedPoint(programPoint, 1));
+    ExplodedGraph.Node later = explodedGraph.node(programPoint.next(), ProgramState.EMPTY_STATE);
+
+    assertThat(pollAll(ExplorationStrategy.TOPOLOGICAL, List.of(later, first, second))).containsExactly(second, first, later);
+  }
+
+  @Test
+  void work_list_size_and_peek() {
+    for (ExplorationStrategy strategy : ExplorationStrategy.values()) {
+      ExplorationStrategy.WorkList workList = strategy.newWorkList(CFG_WITH_JOIN);
+      assertThat(workList.isEmpty()).isTrue();
+      assertThat(workList.peek()).isNull();
+      assertThat(workList.poll()).isNull();
+
+      ExplodedGraph.Node node = nodesFromExitToEntry().get(0);
+      workList.add(node);
+      assertThat(workList.size()).isEqualTo(1);
+      assertThat(workList.peek()).isSameAs(node);
+      assertThat(workList.isEmpty()).isFalse();
+    }
+  }
+
+  /**
+   * One node at the beginning of each block: exit, join, then-branch and entry.
+   */
+  private static List<ExplodedGraph.Node> nodesFromExitToEntry() {
+    ExplodedGraph explodedGraph = new ExplodedGraph();
+    List<CFG.Block> blocks = new ArrayList<>(CFG_WITH_JOIN.blocks());
+    int[] rankById = ExplorationStrategy.reversePostOrder(CFG_WITH_JOIN);
+    blocks.sort((b1, b2) -> Integer.compare(rankById[b2.id()], rankById[b1.id()]));
+    return blocks.stream()
+      .map(block -> explodedGraph.node(new ProgramPoint(block), ProgramState.EMPTY_STATE))
+      .toList();
+  }
+
+  private static List<ExplodedGraph.Node> pollAll(ExplorationStrategy strategy, List<ExplodedGraph.Node> nodes) {
+    ExplorationStrategy.WorkList workList = strategy.newWorkList(CFG_WITH_JOIN);
+    nodes.forEach(workList::add);
+    List<ExplodedGraph.Node> polled = new ArrayList<>();
+    while (!workList.isEmpty()) {
+      polled.add(workList.poll());
+    }
+    return polled;
+  }
+
+  private static <T> List<T> reversed(List<T> list) {
+    List<T> reversed = new ArrayList<>(list);
+    Collections.reverse(reversed);
+    return reversed;
+  }
+
+}
@@ -238,4 +238,48 @@ class ProgramStateTest {
     assertThat(ps.getConstraint(sv2, constraint.getClass())).isEqualTo(constraint);
   }
 
+  @Test
+  void unreachable_relations_are_cleaned_up() {
+    Symbol a = variable("a");
+    Symbol b = variable("b");
+    SymbolicValue svA = new SymbolicValue();
+    SymbolicValue svB = new SymbolicValue();
+    SymbolicValue deadA = new SymbolicValue();
+    SymbolicValue deadB = new SymbolicValue();
+    SymbolicValue deadC = new SymbolicValue();
+    SymbolicValue deadD = new SymbolicValue();
+    RelationalSymbolicValue reachable = relation(svA, deadA);
+    RelationalSymbolicValue reachableThroughRelation = relation(deadA, deadB);
+    RelationalSymbolicValue withNullLiteral = relation(deadC, SymbolicValue.NULL_LITERAL);
+    RelationalSymbolicValue unreachable = relation(deadC, deadD);
+    RelationalSymbolicValue withProtectedValue = relation(svB, deadC);
+
+    ProgramState ps = ProgramState.EMPTY_STATE.put(a, svA)
+      .addConstraint(reachable, BooleanConstraint.TRUE)
+      .addConstraint(reachableThroughRelation, BooleanConstraint.TRUE)
+      .addConstraint(withNullLiteral, BooleanConstraint.TRUE)
+      .addConstraint(deadC, ObjectConstraint.NULL);
+    ProgramState cleaned = ps.cleanupUnreachableRelations(List.of());
+    assertThat(cleaned.getConstraints(reachable)).isNotNull();
+    assertThat(cleaned.getConstraints(reachableThroughRelation)).isNotNull();
+    assertThat(cleaned.getConstraints(withNullLiteral)).isNull();
+    assertThat(cleaned.getConstraints(deadC)).isNotNull();
+
+    ProgramState withUnreachable = cleaned.addConstraint(unreachable, BooleanConstraint.TRUE);
+    assertThat(withUnreachable.cleanupUnreachableRelations(List.of())).isEqualTo(cleaned);
+    assertThat(cleaned.cleanupUnreachableRelations(List.of())).isSameAs(cleaned);
+
+    ProgramState protectedState = ProgramState.EMPTY_STATE.put(b, svB).addConstraint(withProtectedValue, BooleanConstraint.TRUE);
+    assertThat(protectedState.cleanupUnreachableRelations(List.of(deadC))).isSameAs(protectedState);
+    assertThat(protectedState.stackValue(deadC).cleanupUnreachableRelations(List.of()).getConstraints(withProtectedValue)).isNotNull();
+    ProgramState withoutB = ProgramState.EMPTY_STATE.addConstraint(withProtectedValue, BooleanConstraint.TRUE);
+    assertThat(withoutB.cleanupUnreachableRelations(List.of()).getConstraints(withProtectedValue)).isNull();
+  }
+
+  private static RelationalSymbolicValue relation(SymbolicValue left, SymbolicValue right) {
+    RelationalSymbolicValue relation = new RelationalSymbolicValue(RelationalSymbolicValue.Kind.EQUAL);
+    SymbolicValueTestUtil.computedFrom(relation, left, right);
+    return relation;
+  }
+
 }
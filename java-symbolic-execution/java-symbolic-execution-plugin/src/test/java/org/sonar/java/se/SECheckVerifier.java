@@ -36,6 +36,7 @@ import org.sonar.plugins.java.api.JavaFileScanner;
 public class SECheckVerifier implements CheckVerifier {
   
   private final InternalCheckVerifier checkVerifier;
+  private ExplorationStrategy explorationStrategy = ExplorationStrategy.DEFAULT;
   
   public static SECheckVerifier newVerifier() {
     return new SECheckVerifier();
@@ -45,6 +46,14 @@ public class SECheckVerifier implements CheckVerifier {
     checkVerifier = (InternalCheckVerifier) CheckVerifier.newInternalVerifier();
   }
 
+  /**
+   * Strategy used to explore the exploded graph, to be set before the checks.
+   */
+  public SECheckVerifier withExplorationStrategy(ExplorationStrategy explorationStrategy) {
+    this.explorationStrategy = explorationStrategy;
+    return this;
+  }
+
   @Override
   public CheckVerifier withCheck(JavaFileScanner check) {
     return withChecks(check);
@@ -58,7 +67,7 @@ public class SECheckVerifier implements CheckVerifier {
       .toList();
     List<JavaFileScanner> newCheckList = new ArrayList<>();
     if (!seChecks.isEmpty()) {
-      newCheckList.add(new SymbolicExecutionVisitor(seChecks));
+      newCheckList.add(new SymbolicExecutionVisitor(seChecks, explorationStrategy, ExplodedGraphWalker.DEFAULT_MAX_STEPS));
     }
     newCheckList.addAll(Arrays.asList(checks));
     checkVerifier.withChecks(newCheckList.toArray(new JavaFileScanner[0]));
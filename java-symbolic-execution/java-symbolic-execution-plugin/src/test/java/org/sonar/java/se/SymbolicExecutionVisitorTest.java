@@ -0,0 +1,235 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.event.Level;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonar.java.checks.verifier.internal.InternalInputFile;
+import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.JavaVersionImpl;
+import org.sonar.java.se.checks.NullDereferenceCheck;
+import org.sonar.java.se.utils.JParserTestUtils;
+import org.sonar.java.se.utils.SETestUtils;
+import org.sonar.java.se.xproc.BehaviorStore;
+import org.sonar.plugins.java.api.InputFileScannerContext;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.ModuleScannerContext;
+import org.sonar.plugins.java.api.caching.CacheContext;
+import org.sonar.plugins.java.api.caching.JavaReadCache;
+import org.sonar.plugins.java.api.caching.JavaWriteCache;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SymbolicExecutionVisitorTest {
+
+  @RegisterExtension
+  public LogTesterJUnit5 logTester = new LogTesterJUnit5().setLevel(Level.TRACE);
+
+  private static final String FILE = "src/test/resources/se/MethodBehavior.java";
+  private static final String FOO = "MethodBehavior#foo(Z)Z";
+  private static final String CALLEE = "src/test/java/org/sonar/java/se/NullableValues.java";
+  private static final String CALLER = "src/test/resources/se/NullableValuesCaller.java";
+  private static final String CHANGED_CALLEE = "src/test/resources/se/changed/NullableValues.java";
+
+  private final CacheContext cacheContext = mock(CacheContext.class);
+  private final NullDereferenceCheck check = new NullDereferenceCheck();
+  private final JavaReadCache readCache = mock(JavaReadCache.class);
+  private final JavaWriteCache writeCache = mock(JavaWriteCache.class);
+  private final Map<String, byte[]> previousAnalysis = new HashMap<>();
+  private final Map<String, byte[]> nextAnalysis = new HashMap<>();
+
+  SymbolicExecutionVisitorTest() {
+    when(cacheContext.isCacheEnabled()).thenReturn(true);
+    when(cacheContext.getReadCache()).thenReturn(readCache);
+    when(cacheContext.getWriteCache()).thenReturn(writeCache);
+    when(readCache.readBytes(anyString())).thenAnswer(invocation -> previousAnalysis.get(invocation.<String>getArgument(0)));
+    doAnswer(invocation -> nextAnalysis.put(invocation.getArgument(0), invocation.getArgument(1)))
+      .when(writeCache).write(anyString(), any(byte[].class));
+  }
+
+  @Test
+  void behaviors_of_analyzed_files_are_written_to_the_cache_by_type() {
+    SymbolicExecutionVisitor sev = newVisitor();
+    scanFile(sev, FILE);
+
+    assertThat(nextAnalysis).containsOnlyKeys(BehaviorStore.cacheKey(inputFile(FILE)), BehaviorStore.cacheKey("MethodBehavior"));
+    assertThat(new String(nextAnalysis.get(BehaviorStore.cacheKey(inputFile(FILE))), StandardCharsets.UTF_8)).isEqualTo("MethodBehavior");
+    previousAnalysis.putAll(nextAnalysis);
+    BehaviorStore nextAnalysisStore = new BehaviorStore();
+    nextAnalysisStore.setPreviousAnalysis(readCache);
+    nextAnalysisStore.addUnchangedTypes(List.of("MethodBehavior"));
+    assertThat(nextAnalysisStore.get(FOO)).isEqualTo(sev.behaviorCache.behaviors.get(FOO));
+  }
+
+  @Test
+  void failing_to_write_to_the_cache_is_logged() {
+    doThrow(new IllegalArgumentException("boom")).when(writeCache).write(any(), any(byte[].class));
+    scanFile(newVisitor(), FILE);
+    assertThat(logTester.logs(Level.TRACE)).contains("Could not store data to cache key '" + BehaviorStore.cacheKey("MethodBehavior") + "': boom");
+  }
+
+  @Test
+  void behaviors_of_unchanged_files_are_kept_for_the_next_analysis() {
+    scanFile(newVisitor(), FILE);
+    previousAnalysis.putAll(nextAnalysis);
+
+    assertThat(newVisitor().scanWithoutParsing(inputFileScannerContext(FILE))).isTrue();
+
+    verify(writeCache).copyFromPrevious(BehaviorStore.cacheKey(inputFile(FILE)));
+    verify(writeCache).copyFromPrevious(BehaviorStore.cacheKey("MethodBehavior"));
+  }
+
+  @Test
+  void failing_to_copy_from_the_cache_is_logged() {
+    previousAnalysis.put(BehaviorStore.cacheKey(inputFile(FILE)), new byte[0]);
+    doThrow(new IllegalArgumentException("boom")).when(writeCache).copyFromPrevious(any());
+
+    assertThat(newVisitor().scanWithoutParsing(inputFileScannerContext(FILE))).isTrue();
+
+    verify(writeCache).copyFromPrevious(any());
+    assertThat(logTester.logs(Level.TRACE)).contains("Could not copy data of cache key '" + BehaviorStore.cacheKey(inputFile(FILE)) + "': boom");
+  }
+
+  @Test
+  void missing_cached_behaviors_and_disabled_cache() {
+    SymbolicExecutionVisitor sev = newVisitor();
+    assertThat(sev.scanWithoutParsing(inputFileScannerContext(FILE))).isTrue();
+    verifyNoInteractions(writeCache);
+
+    when(cacheContext.isCacheEnabled()).thenReturn(false);
+    assertThat(sev.scanWithoutParsing(inputFileScannerContext(FILE))).isTrue();
+    verify(readCache).readBytes(any());
+  }
+
+  @Test
+  void issues_do_not_depend_on_the_order_of_the_files() {
+    // first analysis: the behaviors of the other files are unknown, even when analyzed before
+    SymbolicExecutionVisitor firstAnalysis = newVisitor();
+    scanFile(firstAnalysis, CALLEE);
+    assertThat(issues(scanFile(firstAnalysis, CALLER))).isEmpty();
+    previousAnalysis.putAll(nextAnalysis);
+
+    // the callee is analyzed again, so it may have changed: its previous behaviors are not reused
+    SymbolicExecutionVisitor calleeFirst = newVisitor();
+    scanFile(calleeFirst, CALLEE);
+    List<String> calleeFirstIssues = issues(scanFile(calleeFirst, CALLER));
+
+    SymbolicExecutionVisitor callerFirst = newVisitor();
+    List<String> callerFirstIssues = issues(scanFile(callerFirst, CALLER));
+    scanFile(callerFirst, CALLEE);
+
+    assertThat(calleeFirstIssues).isEmpty();
+    assertThat(callerFirstIssues).isEmpty();
+  }
+
+  @Test
+  void behaviors_of_unchanged_files_are_reused() {
+    scanFile(newVisitor(), CALLEE);
+    previousAnalysis.putAll(nextAnalysis);
+
+    SymbolicExecutionVisitor pullRequest = newVisitor();
+    pullRequest.scanWithoutParsing(inputFileScannerContext(CALLEE));
+    assertThat(issues(scanFile(pullRequest, CALLER)))
+      .containsExactly("6: A \"NullPointerException\" could be thrown; \"nullIf()\" can return null.");
+  }
+
+  @Test
+  void behaviors_of_changed_files_are_not_reused() {
+    scanFile(newVisitor(), CALLEE);
+    previousAnalysis.putAll(nextAnalysis);
+    nextAnalysis.clear();
+
+    // the callee changed since the previous analysis: nullIf() does not return null anymore
+    SymbolicExecutionVisitor sev = newVisitor();
+    assertThat(issues(scanFile(sev, CALLER))).isEmpty();
+    scanFile(sev, CHANGED_CALLEE);
+
+    String typeName = "org.sonar.java.se.NullableValues";
+    assertThat(nextAnalysis.get(BehaviorStore.cacheKey(typeName))).isNotEqualTo(previousAnalysis.get(BehaviorStore.cacheKey(typeName)));
+  }
+
+  @Test
+  void completed_methods_are_reported_at_the_end_of_the_analysis() {
+    SymbolicExecutionVisitor sev = newVisitor();
+    scanFile(sev, FILE);
+    sev.endOfAnalysis(mock(ModuleScannerContext.class));
+    assertThat(logTester.logs(Level.INFO))
+      .anyMatch(log -> log.matches("Symbolic execution \\(DFS strategy, limit of 16000 steps\\) completed for (\\d+)/\\1 methods"));
+
+    logTester.clear();
+    new SymbolicExecutionVisitor(Collections.emptyList()).endOfAnalysis(mock(ModuleScannerContext.class));
+    assertThat(logTester.logs(Level.INFO)).isEmpty();
+  }
+
+  private SymbolicExecutionVisitor newVisitor() {
+    return new SymbolicExecutionVisitor(Collections.singletonList(check));
+  }
+
+  private JavaFileScannerContext scanFile(SymbolicExecutionVisitor sev, String file) {
+    JavaTree.CompilationUnitTreeImpl cut = (JavaTree.CompilationUnitTreeImpl) JParserTestUtils.parse(new File(file), SETestUtils.CLASS_PATH);
+    JavaFileScannerContext context = mock(JavaFileScannerContext.class);
+    when(context.getTree()).thenReturn(cut);
+    when(context.getSemanticModel()).thenReturn(cut.sema);
+    when(context.getJavaVersion()).thenReturn(new JavaVersionImpl(11));
+    when(context.getInputFile()).thenReturn(inputFile(file));
+    when(context.getCacheContext()).thenReturn(cacheContext);
+    sev.scanFile(context);
+    // the checks report the issues found by the exploration once the file is scanned
+    check.scanFile(context);
+    return context;
+  }
+
+  /**
+   * @return the issues reported on the file, as "line: message"
+   */
+  private static List<String> issues(JavaFileScannerContext context) {
+    return mockingDetails(context).getInvocations().stream()
+      .filter(invocation -> invocation.getMethod().getName().equals("reportIssueWithFlow"))
+      .map(invocation -> ((Tree) invocation.getArgument(1)).firstToken().range().start().line() + ": " + invocation.getArgument(2))
+      .toList();
+  }
+
+  private InputFileScannerContext inputFileScannerContext(String file) {
+    InputFileScannerContext context = mock(InputFileScannerContext.class);
+    when(context.getInputFile()).thenReturn(inputFile(file));
+    when(context.getCacheContext()).thenReturn(cacheContext);
+    return context;
+  }
+
+  private static InputFile inputFile(String file) {
+    return InternalInputFile.inputFile("", new File(file));
+  }
+}
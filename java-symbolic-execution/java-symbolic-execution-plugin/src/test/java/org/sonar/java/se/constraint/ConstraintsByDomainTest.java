@@ -118,6 +118,46 @@ class ConstraintsByDomainTest {
     assertThat(c1.hashCode()).isNotEqualTo(c2.hashCode());
   }
 
+  @Test
+  void test_packed_and_not_packed_domains() {
+    TypedConstraint typed = new TypedConstraint("java.lang.String");
+    ConstraintsByDomain c1 = ConstraintsByDomain.empty()
+      .put(ObjectConstraint.NOT_NULL)
+      .put(typed)
+      .put(BooleanConstraint.TRUE);
+    ConstraintsByDomain c2 = ConstraintsByDomain.empty()
+      .put(BooleanConstraint.FALSE)
+      .put(typed)
+      .put(BooleanConstraint.TRUE)
+      .put(ObjectConstraint.NOT_NULL);
+    assertThat(c1)
+      .isEqualTo(c2)
+      .hasSameHashCodeAs(c2)
+      .isNotEqualTo(c1.put(ObjectConstraint.NULL))
+      .isNotEqualTo(c1.remove(TypedConstraint.class));
+    assertThat(c1.get(ObjectConstraint.class)).isEqualTo(ObjectConstraint.NOT_NULL);
+    assertThat(c1.get(BooleanConstraint.class)).isEqualTo(BooleanConstraint.TRUE);
+    assertThat(c1.get(TypedConstraint.class)).isSameAs(typed);
+    assertThat(c1.domains()).containsExactly(ObjectConstraint.class, BooleanConstraint.class, TypedConstraint.class);
+
+    ConstraintsByDomain c3 = c1.remove(BooleanConstraint.class).remove(TypedConstraint.class);
+    assertThat(c3.get(BooleanConstraint.class)).isNull();
+    assertThat(c3.get(TypedConstraint.class)).isNull();
+    assertThat(c3.stream()).containsExactly(ObjectConstraint.NOT_NULL);
+    assertThat(c3.remove(ObjectConstraint.class)).isSameAs(ConstraintsByDomain.empty());
+    assertThat(c1.remove(ObjectConstraint.class).remove(BooleanConstraint.class).remove(TypedConstraint.class)).isSameAs(ConstraintsByDomain.empty());
+  }
+
+  @Test
+  void test_packed_only_sets_are_interned() {
+    ConstraintsByDomain c1 = ConstraintsByDomain.empty().put(ObjectConstraint.NOT_NULL).put(BooleanConstraint.TRUE);
+    ConstraintsByDomain c2 = ConstraintsByDomain.empty().put(BooleanConstraint.FALSE).put(ObjectConstraint.NOT_NULL).put(BooleanConstraint.TRUE);
+    assertThat(c1).isSameAs(c2);
+    assertThat(c1.put(new TypedConstraint("java.lang.String")).remove(TypedConstraint.class)).isSameAs(c1);
+    assertThat(c1.remove(BooleanConstraint.class)).isSameAs(ConstraintsByDomain.empty().put(ObjectConstraint.NOT_NULL));
+    assertThat(c1.put(new TypedConstraint("java.lang.String"))).isNotSameAs(c2.put(new TypedConstraint("java.lang.String")));
+  }
+
   @Test
   void test_has_constraint() {
     ConstraintsByDomain c = ConstraintsByDomain.empty();
@@ -21,6 +21,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.event.Level;
 import org.sonar.api.SonarEdition;
 import org.sonar.api.SonarQubeSide;
 import org.sonar.api.SonarRuntime;
@@ -28,12 +30,15 @@ import org.sonar.api.batch.rule.ActiveRules;
 import org.sonar.api.batch.rule.CheckFactory;
 import org.sonar.api.batch.rule.internal.ActiveRulesBuilder;
 import org.sonar.api.batch.rule.internal.NewActiveRule;
+import org.sonar.api.config.internal.MapSettings;
 import org.sonar.api.internal.SonarRuntimeImpl;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.api.server.rule.RulesDefinition;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.api.utils.Version;
 import org.sonar.check.Rule;
 import org.sonar.java.checks.verifier.TestCheckRegistrarContext;
+import org.sonar.java.se.ExplorationStrategy;
 import org.sonar.java.se.checks.SECheck;
 import org.sonar.plugins.java.api.CheckRegistrar;
 
@@ -41,6 +46,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 class JavaSECheckRegistrarTest {
 
+  @RegisterExtension
+  public LogTesterJUnit5 logTester = new LogTesterJUnit5().setLevel(Level.WARN);
+
   private static final ActiveRules activeRules = activeRules(getRuleKeysWithRepo());
 
   private static final List<String> rulesNotActiveByDefault = List.of(
@@ -66,6 +74,41 @@ class JavaSECheckRegistrarTest {
     assertThat(context.testRuleKeys).isEmpty();
   }
 
+  @Test
+  void symbolic_execution_settings() {
+    MapSettings settings = new MapSettings();
+    JavaSECheckRegistrar registrar = new JavaSECheckRegistrar(null, settings.asConfig());
+    assertThat(registrar.explorationStrategy()).isEqualTo(ExplorationStrategy.DFS);
+    assertThat(registrar.maxSteps()).isEqualTo(16_000);
+
+    settings.setProperty(JavaSECheckRegistrar.EXPLORATION_STRATEGY_KEY, "topological");
+    settings.setProperty(JavaSECheckRegistrar.MAX_STEPS_KEY, "50000");
+    registrar = new JavaSECheckRegistrar(null, settings.asConfig());
+    assertThat(registrar.explorationStrategy()).isEqualTo(ExplorationStrategy.TOPOLOGICAL);
+    assertThat(registrar.maxSteps()).isEqualTo(50_000);
+
+    settings.setProperty(JavaSECheckRegistrar.EXPLORATION_STRATEGY_KEY, "random");
+    settings.setProperty(JavaSECheckRegistrar.MAX_STEPS_KEY, "0");
+    registrar = new JavaSECheckRegistrar(null, settings.asConfig());
+    assertThat(registrar.explorationStrategy()).isEqualTo(ExplorationStrategy.DFS);
+    assertThat(registrar.maxSteps()).isEqualTo(16_000);
+    assertThat(logTester.logs(Level.WARN))
+      .containsExactly(
+        "Unknown value 'random' for sonar.java.experimental.symbolicExecution.strategy, using the DFS strategy. Supported values: [DFS, BFS, TOPOLOGICAL].",
+        "Invalid value '0' for sonar.java.experimental.symbolicExecution.maxSteps, using the default of 16000 steps. The value must be a positive integer.");
+
+    logTester.clear();
+    settings.setProperty(JavaSECheckRegistrar.MAX_STEPS_KEY, "many");
+    registrar = new JavaSECheckRegistrar(null, settings.asConfig());
+    assertThat(registrar.maxSteps()).isEqualTo(16_000);
+    assertThat(logTester.logs(Level.WARN))
+      .containsExactly("Invalid value 'many' for sonar.java.experimental.symbolicExecution.maxSteps, using the default of 16000 steps. The value must be a positive integer.");
+
+    registrar = new JavaSECheckRegistrar(null);
+    assertThat(registrar.explorationStrategy()).isEqualTo(ExplorationStrategy.DFS);
+    assertThat(registrar.maxSteps()).isEqualTo(16_000);
+  }
+
   @Test
   void rules_definition() {
     SonarRuntime sonarRuntime = SonarRuntimeImpl.forSonarQube(Version.create(10, 2), SonarQubeSide.SERVER, SonarEdition.ENTERPRISE);
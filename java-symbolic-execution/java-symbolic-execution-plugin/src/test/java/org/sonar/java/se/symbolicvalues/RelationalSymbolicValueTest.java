@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -219,6 +220,25 @@ class RelationalSymbolicValueTest {
     assertThat(programState.getConstraint(firstLessThanLast, BooleanConstraint.class)).isEqualTo(TRUE);
   }
 
+  @Test
+  void test_transitive_relations_of_a_long_chain() {
+    // x < sv0 added to the chain sv0 < sv1 < ... < sv399 deduces x < sv1 ... x < sv399
+    int chainLength = 400;
+    SymbolicValue[] sv = new SymbolicValue[chainLength];
+    Set<RelationalSymbolicValue> given = new HashSet<>();
+    sv[0] = new SymbolicValue();
+    for (int i = 1; i < chainLength; i++) {
+      sv[i] = new SymbolicValue();
+      given.add(relationalSV(Tree.Kind.LESS_THAN, sv[i - 1], sv[i]));
+    }
+    SymbolicValue x = new SymbolicValue();
+    RelationalSymbolicValue xLessThanFirst = relationalSV(Tree.Kind.LESS_THAN, x, sv[0]);
+    Set<RelationalSymbolicValue> transitive = xLessThanFirst.transitiveRelations(given);
+    assertThat(transitive)
+      .hasSize(chainLength - 1)
+      .contains(relationalSV(Tree.Kind.LESS_THAN, x, sv[chainLength - 1]));
+  }
+
   @Test
   void test_not_equals_is_not_transitive() {
     RelationalSymbolicValue aNEb = relationalSV(Tree.Kind.NOT_EQUAL_TO, a, b);
@@ -515,12 +535,29 @@ class RelationalSymbolicValueTest {
   void too_many_relationship_should_stop_se_engine() {
     logTester.setLevel(Level.TRACE);
     SETestUtils.createSymbolicExecutionVisitor("src/test/files/se/ExceedTransitiveLimit.java", new NullDereferenceCheck());
-    String exceptionMessage = "reached maximum number of transitive relations generated for method hashCode in class ExceedTransitiveLimit";
+    // transitive relations are only combined through their operands: the size of the program states is reached first
+    String exceptionMessage = "Program state constraints are too big : stopping Symbolic Execution for method hashCode in class ExceedTransitiveLimit";
     assertThat(logTester.logs(Level.DEBUG))
       .contains("Could not complete symbolic execution: " + exceptionMessage);
     assertThat(logTester.logs(Level.TRACE))
       .hasSize(1)
-      .allMatch(trace -> trace.startsWith("org.sonar.java.se.ExplodedGraphWalker$MaximumStepsReachedException: " + exceptionMessage));
+      .allMatch(trace -> trace.startsWith("org.sonar.java.se.ExplodedGraphWalker$ExplodedGraphTooBigException: " + exceptionMessage));
+  }
+
+  @Test
+  void too_many_transitive_relations() {
+    int chainLength = 10_003;
+    SymbolicValue[] sv = new SymbolicValue[chainLength];
+    Set<RelationalSymbolicValue> given = new HashSet<>();
+    sv[0] = new SymbolicValue();
+    for (int i = 1; i < chainLength; i++) {
+      sv[i] = new SymbolicValue();
+      given.add(relationalSV(Tree.Kind.LESS_THAN, sv[i - 1], sv[i]));
+    }
+    RelationalSymbolicValue xLessThanFirst = relationalSV(Tree.Kind.LESS_THAN, new SymbolicValue(), sv[0]);
+    assertThatThrownBy(() -> xLessThanFirst.transitiveRelations(given))
+      .isInstanceOf(RelationalSymbolicValue.TransitiveRelationExceededException.class)
+      .hasMessage("Number of transitive relations exceeded!Combined relations: 20001. Iterations 10001");
   }
 
   @Test
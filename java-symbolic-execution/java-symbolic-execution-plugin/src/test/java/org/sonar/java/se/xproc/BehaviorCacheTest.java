@@ -17,6 +17,7 @@
 package org.sonar.java.se.xproc;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Collections;
@@ -24,6 +25,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledForJreRange;
 import org.junit.jupiter.api.condition.JRE;
@@ -50,12 +52,14 @@ import org.sonar.java.se.checks.SECheck;
 import org.sonar.java.se.utils.JParserTestUtils;
 import org.sonar.java.se.utils.SETestUtils;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.caching.JavaReadCache;
 import org.sonar.plugins.java.api.semantic.Sema;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.MethodInvocationTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -64,6 +68,7 @@ import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.sonar.java.checks.verifier.TestUtils.mainCodeSourcesPath;
 import static org.sonar.java.se.utils.SETestUtils.createSymbolicExecutionVisitor;
 import static org.sonar.java.se.utils.SETestUtils.createSymbolicExecutionVisitorAndSemantic;
@@ -97,6 +102,28 @@ class BehaviorCacheTest {
     assertThat(sev.behaviorCache.behaviors).isEmpty();
   }
 
+  @Test
+  void behaviors_computed_by_the_previous_analysis_are_reused() {
+    SymbolicExecutionVisitor sev = createSymbolicExecutionVisitor("src/test/resources/se/MethodBehavior.java", new NullDereferenceCheck());
+    MethodBehavior computed = sev.behaviorCache.behaviors.get("MethodBehavior#foo(Z)Z");
+    // behaviors computed by the current analysis are not reused
+    assertThat(sev.behaviorCache.store().get("MethodBehavior#foo(Z)Z")).isNull();
+
+    // next analysis
+    Map<String, byte[]> previousAnalysis = BehaviorStore.toCacheData(sev.behaviorCache.computedBehaviors());
+    JavaReadCache readCache = mock(JavaReadCache.class);
+    when(readCache.readBytes(BehaviorStore.cacheKey("MethodBehavior"))).thenReturn(previousAnalysis.get("MethodBehavior"));
+    sev.behaviorCache.store().setPreviousAnalysis(readCache);
+    sev.behaviorCache.store().addUnchangedTypes(List.of("MethodBehavior"));
+    sev.behaviorCache.cleanup();
+    assertThat(sev.behaviorCache.behaviors).isEmpty();
+    MethodBehavior stored = sev.behaviorCache.peek("MethodBehavior#foo(Z)Z");
+    assertThat(stored).isNotNull().isNotSameAs(computed).isEqualTo(computed);
+    assertThat(sev.behaviorCache.get("MethodBehavior#foo(Z)Z")).isSameAs(stored);
+    // hardcoded behaviors are still available
+    assertThat(sev.behaviorCache.get("java.lang.Class#isInstance(Ljava/lang/Object;)Z")).isNotNull();
+  }
+
   @Test
   void compute_behavior_only_once() {
     SymbolicExecutionVisitor sev = createSymbolicExecutionVisitor("src/test/resources/se/ComputeBehaviorOnce.java", new NullDereferenceCheck());
@@ -195,7 +222,7 @@ class BehaviorCacheTest {
     }
 
     assertThat(behaviorCache.behaviors).isEmpty();
-    assertThat(behaviorCache.hardcodedBehaviors()).hasSize(255);
+    assertThat(behaviorCache.hardcodedBehaviors().size()).isEqualTo(255);
     assertThat(logTester.logs(Level.DEBUG)).containsOnly("[SE] Loaded 255 hardcoded method behaviors.");
   }
 
@@ -337,19 +364,22 @@ class BehaviorCacheTest {
   }
 
   @Test
-  void log_when_unable_to_load_resources_with_method_behavior() {
-    Map<String, MethodBehavior> result = BehaviorCache.HardcodedMethodBehaviors
-      .loadHardcodedBehaviors(() -> Collections.singletonList((InputStream) null));
-    assertThat(result).isEmpty();
-    assertThat(logTester.logs(Level.DEBUG)).containsOnlyOnce("[SE] Unable to load hardcoded method behaviors. Defaulting to no hardcoded method behaviors.");
+  void fail_when_hardcoded_behaviors_are_missing() {
+    Supplier<InputStream> missing = () -> null;
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> BehaviorCache.HardcodedMethodBehaviors.loadHardcodedBehaviors(missing));
+    assertThat(e).hasMessage("[SE] Unable to load hardcoded method behaviors. Missing resource 'hardcoded-behaviors.bin'.");
+  }
+
+  @Test
+  void fail_when_hardcoded_behaviors_are_invalid() {
+    Supplier<InputStream> invalid = () -> BehaviorCacheTest.class.getResourceAsStream("invalid.json");
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> BehaviorCache.HardcodedMethodBehaviors.loadHardcodedBehaviors(invalid));
+    assertThat(e).hasMessage("[SE] Unable to load hardcoded method behaviors.").hasCauseInstanceOf(IOException.class);
   }
 
   @Test
-  void log_when_unable_to_load_resources_with_invalid_method_behaviors() {
-    Map<String, MethodBehavior> result = BehaviorCache.HardcodedMethodBehaviors
-      .loadHardcodedBehaviors(() -> Collections.singletonList(BehaviorCacheTest.class.getResourceAsStream("invalid.json")));
-    assertThat(result).isEmpty();
-    assertThat(logTester.logs(Level.ERROR)).containsOnlyOnce("[SE] Unable to load hardcoded method behaviors. Defaulting to no hardcoded method behaviors.");
+  void hardcoded_behaviors_are_built_with_the_plugin() {
+    assertThat(BehaviorCache.HardcodedMethodBehaviors.load().size()).isEqualTo(255);
   }
 
   private static void verifyNoIssueOnFile(String fileName) {
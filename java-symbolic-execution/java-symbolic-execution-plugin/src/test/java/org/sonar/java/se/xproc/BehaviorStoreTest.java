@@ -0,0 +1,225 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se.xproc;
+
+import com.google.gson.JsonParseException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.event.Level;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonar.java.se.checks.DivisionByZeroCheck;
+import org.sonar.java.se.checks.SECheck;
+import org.sonar.java.se.constraint.BooleanConstraint;
+import org.sonar.java.se.constraint.ConstraintsByDomain;
+import org.sonar.java.se.constraint.ObjectConstraint;
+import org.sonar.java.se.symbolicvalues.SymbolicValue;
+import org.sonar.plugins.java.api.caching.JavaReadCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BehaviorStoreTest {
+
+  @RegisterExtension
+  public LogTesterJUnit5 logTester = new LogTesterJUnit5().setLevel(Level.DEBUG);
+
+  private static final String FOO = "A#foo(Ljava/lang/Object;)Ljava/lang/Object;";
+  private static final String M = "#m(Ljava/lang/Object;)Ljava/lang/Object;";
+  private static final String BAZ = "B#baz(Ljava/lang/Object;)Ljava/lang/Object;";
+
+  private final Map<String, byte[]> previousAnalysis = new HashMap<>();
+  private final JavaReadCache readCache = mock(JavaReadCache.class);
+
+  BehaviorStoreTest() {
+    when(readCache.readBytes(anyString())).thenAnswer(invocation -> previousAnalysis.get(invocation.<String>getArgument(0)));
+  }
+
+  @Test
+  void behaviors_are_read_from_the_previous_analysis_once_by_type() {
+    MethodBehavior complete = behavior(FOO);
+    MethodBehavior incomplete = new MethodBehavior("A#bar()V", false);
+    Map<String, byte[]> data = BehaviorStore.toCacheData(List.of(complete, incomplete, behavior(BAZ)));
+    assertThat(data).containsOnlyKeys("A", "B");
+    data.forEach((typeName, typeData) -> previousAnalysis.put(BehaviorStore.cacheKey(typeName), typeData));
+
+    BehaviorStore store = new BehaviorStore();
+    store.setPreviousAnalysis(readCache);
+    store.addUnchangedTypes(List.of("A", "B", "C"));
+
+    MethodBehavior storedBehavior = store.get(FOO);
+    assertThat(storedBehavior).isNotSameAs(complete).isEqualTo(complete);
+    assertThat(store.get(FOO)).isSameAs(storedBehavior);
+    assertThat(store.get("A#bar()V")).isNull();
+    assertThat(store.get(BAZ)).isNotNull();
+    assertThat(store.get("C#qix()V")).isNull();
+    assertThat(store.get("C#qix()V")).isNull();
+    assertThat(store.size()).isEqualTo(2);
+    verify(readCache).readBytes(BehaviorStore.cacheKey("A"));
+    verify(readCache).readBytes(BehaviorStore.cacheKey("B"));
+    verify(readCache).readBytes(BehaviorStore.cacheKey("C"));
+  }
+
+  @Test
+  void no_behaviors_without_previous_analysis() {
+    previousAnalysis.put(BehaviorStore.cacheKey("A"), BehaviorStore.toCacheData(List.of(behavior(FOO))).get("A"));
+    BehaviorStore store = new BehaviorStore();
+    assertThat(store.get(FOO)).isNull();
+
+    store.setPreviousAnalysis(readCache);
+    store.addUnchangedTypes(List.of("A"));
+    assertThat(store.get(FOO)).isNotNull();
+
+    store.setPreviousAnalysis(null);
+    assertThat(store.get(FOO)).isNull();
+    assertThat(store.size()).isZero();
+  }
+
+  @Test
+  void behaviors_of_types_of_changed_files_are_not_reused() {
+    Map<String, byte[]> data = BehaviorStore.toCacheData(List.of(behavior(FOO), behavior(BAZ)));
+    data.forEach((typeName, typeData) -> previousAnalysis.put(BehaviorStore.cacheKey(typeName), typeData));
+    BehaviorStore store = new BehaviorStore();
+    store.setPreviousAnalysis(readCache);
+    store.addUnchangedTypes(List.of("A"));
+
+    assertThat(store.get(FOO)).isNotNull();
+    assertThat(store.get(BAZ)).isNull();
+    verify(readCache, never()).readBytes(BehaviorStore.cacheKey("B"));
+
+    // the unchanged types are the ones of the files of the current previous analysis
+    store.setPreviousAnalysis(mock(JavaReadCache.class));
+    store.setPreviousAnalysis(readCache);
+    assertThat(store.get(FOO)).isNull();
+  }
+
+  @Test
+  void behaviors_which_cannot_be_serialized_without_loss_are_not_written() {
+    MethodBehavior checkBased = behavior("A#foo(Ljava/lang/Object;)Ljava/lang/Object;");
+    checkBased.addYield(new ExceptionalCheckBasedYield(new SymbolicValue(), "java.lang.ArithmeticException", SECheck.class, null, checkBased));
+    assertThat(BehaviorStore.isStorable(checkBased)).isFalse();
+
+    MethodBehavior zeroConstraint = new MethodBehavior("A#zero(I)I", false);
+    HappyPathYield yield = new HappyPathYield(zeroConstraint);
+    yield.parametersConstraints.add(ConstraintsByDomain.empty().put(DivisionByZeroCheck.ZeroConstraint.ZERO));
+    yield.setResult(0, null);
+    zeroConstraint.addYield(yield);
+    zeroConstraint.completed();
+    assertThat(BehaviorStore.isStorable(zeroConstraint)).isFalse();
+
+    MethodBehavior unknownException = new MethodBehavior("A#fail()V", false);
+    unknownException.addYield(new ExceptionalYield(unknownException));
+    unknownException.completed();
+    assertThat(BehaviorStore.isStorable(unknownException)).isTrue();
+
+    byte[] data = BehaviorStore.toCacheData(List.of(checkBased, zeroConstraint, unknownException)).get("A");
+    List<MethodBehavior> written = BehaviorStore.fromCacheData(data);
+    assertThat(written).extracting(MethodBehavior::signature).containsExactly("A#fail()V");
+    assertThat(written.get(0).exceptionalPathYields()).allMatch(y -> y.getExceptionType() == null);
+  }
+
+  @Test
+  void yields_missing_the_constraints_of_some_parameters_are_not_written() {
+    MethodBehavior missingParameterConstraints = new MethodBehavior("A#bar(ZZ)V", false);
+    HappyPathYield partialYield = new HappyPathYield(missingParameterConstraints);
+    partialYield.parametersConstraints.add(ConstraintsByDomain.empty());
+    partialYield.setResult(-1, null);
+    assertThat(BehaviorStore.hasConstraintsOfEachParameter(partialYield, 2)).isFalse();
+    missingParameterConstraints.addYield(partialYield);
+    missingParameterConstraints.completed();
+    assertThat(BehaviorStore.isStorable(missingParameterConstraints)).isFalse();
+
+    MethodBehavior allParameterConstraints = new MethodBehavior("A#baz(ZZ)V", false);
+    HappyPathYield completeYield = new HappyPathYield(allParameterConstraints);
+    completeYield.parametersConstraints.add(ConstraintsByDomain.empty());
+    completeYield.parametersConstraints.add(ConstraintsByDomain.empty().put(BooleanConstraint.TRUE));
+    completeYield.setResult(-1, null);
+    assertThat(BehaviorStore.hasConstraintsOfEachParameter(completeYield, 2)).isTrue();
+    allParameterConstraints.addYield(completeYield);
+    allParameterConstraints.completed();
+    assertThat(BehaviorStore.isStorable(allParameterConstraints)).isTrue();
+
+    byte[] data = BehaviorStore.toCacheData(List.of(missingParameterConstraints, allParameterConstraints)).get("A");
+    assertThat(BehaviorStore.fromCacheData(data)).extracting(MethodBehavior::signature).containsExactly("A#baz(ZZ)V");
+  }
+
+  @Test
+  void least_recently_used_types_are_evicted_and_read_again() {
+    for (String typeName : List.of("A", "B", "C")) {
+      previousAnalysis.put(BehaviorStore.cacheKey(typeName), BehaviorStore.toCacheData(List.of(behavior(typeName + M))).get(typeName));
+    }
+    // each type weighs 4: itself, its behavior and the 2 yields of the behavior
+    BehaviorStore store = new BehaviorStore(8);
+    store.setPreviousAnalysis(readCache);
+    store.addUnchangedTypes(List.of("A", "B", "C"));
+    MethodBehavior a = store.get("A" + M);
+    MethodBehavior b = store.get("B" + M);
+    assertThat(store.get("A" + M)).isSameAs(a);
+
+    assertThat(store.get("C" + M)).isNotNull();
+    assertThat(store.size()).isEqualTo(2);
+    assertThat(store.get("A" + M)).isSameAs(a);
+    // evicted, then read again
+    assertThat(store.get("B" + M)).isNotSameAs(b).isEqualTo(b);
+    verify(readCache, times(2)).readBytes(BehaviorStore.cacheKey("B"));
+
+    // a type heavier than the limit is kept until the next one is read
+    BehaviorStore tinyStore = new BehaviorStore(1);
+    tinyStore.setPreviousAnalysis(readCache);
+    tinyStore.addUnchangedTypes(List.of("A", "B"));
+    assertThat(tinyStore.get("A" + M)).isNotNull();
+    assertThat(tinyStore.get("B" + M)).isNotNull();
+    assertThat(tinyStore.size()).isEqualTo(1);
+  }
+
+  @Test
+  void invalid_cache_data_is_ignored() {
+    previousAnalysis.put(BehaviorStore.cacheKey("A"), "{".getBytes(StandardCharsets.UTF_8));
+    BehaviorStore store = new BehaviorStore();
+    store.setPreviousAnalysis(readCache);
+    store.addUnchangedTypes(List.of("A"));
+
+    assertThat(store.get(FOO)).isNull();
+    assertThat(logTester.logs(Level.DEBUG)).anyMatch(log -> log.startsWith("Could not reuse method behaviors from cache key '" + BehaviorStore.cacheKey("A") + "'"));
+
+    byte[] invalid = "{}".getBytes(StandardCharsets.UTF_8);
+    assertThrows(JsonParseException.class, () -> BehaviorStore.fromCacheData(invalid));
+    byte[] empty = new byte[0];
+    assertThrows(JsonParseException.class, () -> BehaviorStore.fromCacheData(empty));
+  }
+
+  private static MethodBehavior behavior(String signature) {
+    MethodBehavior methodBehavior = new MethodBehavior(signature, false);
+    for (ObjectConstraint constraint : ObjectConstraint.values()) {
+      HappyPathYield yield = new HappyPathYield(methodBehavior);
+      yield.parametersConstraints.add(ConstraintsByDomain.empty().put(constraint));
+      yield.setResult(0, ConstraintsByDomain.empty().put(constraint));
+      methodBehavior.addYield(yield);
+    }
+    methodBehavior.completed();
+    return methodBehavior;
+  }
+}
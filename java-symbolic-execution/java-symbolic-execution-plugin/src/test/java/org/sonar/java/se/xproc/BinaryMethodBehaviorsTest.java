@@ -0,0 +1,122 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se.xproc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.java.se.checks.SECheck;
+import org.sonar.java.se.constraint.Constraint;
+import org.sonar.java.se.constraint.ConstraintsByDomain;
+import org.sonar.java.se.symbolicvalues.SymbolicValue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class BinaryMethodBehaviorsTest {
+
+  private static final Path HARDCODED_BEHAVIORS = Path.of("src/main/hardcoded-behaviors");
+  private static final Path COMPILED_HARDCODED_BEHAVIORS = Path.of("src/main/resources/org/sonar/java/se/xproc/hardcoded-behaviors.bin");
+
+  @Test
+  void binary_behaviors_are_the_same_as_json_behaviors() throws IOException {
+    Map<String, MethodBehavior> jsonBehaviors = HardcodedBehaviorsCompiler.readJson(HARDCODED_BEHAVIORS);
+    BinaryMethodBehaviors binaryBehaviors = roundTrip(List.copyOf(jsonBehaviors.values()));
+
+    assertThat(binaryBehaviors.size()).isEqualTo(jsonBehaviors.size());
+    assertThat(binaryBehaviors.signatures()).isSorted().containsExactlyInAnyOrderElementsOf(jsonBehaviors.keySet());
+    jsonBehaviors.forEach((signature, methodBehavior) -> assertThat(binaryBehaviors.get(signature)).isEqualTo(methodBehavior));
+  }
+
+  @Test
+  void committed_binary_behaviors_are_compiled_from_json_behaviors(@TempDir Path tempDir) throws IOException {
+    Path output = tempDir.resolve("hardcoded-behaviors.bin");
+    HardcodedBehaviorsCompiler.main(new String[] {HARDCODED_BEHAVIORS.toString(), output.toString()});
+    assertThat(Files.readAllBytes(COMPILED_HARDCODED_BEHAVIORS))
+      .as("Run HardcodedBehaviorsCompiler with '%s %s' as arguments to compile the changed JSON files", HARDCODED_BEHAVIORS, COMPILED_HARDCODED_BEHAVIORS)
+      .isEqualTo(Files.readAllBytes(output));
+  }
+
+  @Test
+  void behaviors_are_decoded_once() throws IOException {
+    MethodBehavior methodBehavior = new MethodBehavior("A#foo(Ljava/lang/Object;)V", false);
+    methodBehavior.setDeclaredExceptions(List.of("java.io.IOException"));
+    ExceptionalYield unknownException = new ExceptionalYield(methodBehavior);
+    unknownException.parametersConstraints.add(null);
+    methodBehavior.addYield(unknownException);
+    methodBehavior.completed();
+
+    BinaryMethodBehaviors binaryBehaviors = roundTrip(List.of(methodBehavior));
+
+    MethodBehavior decoded = binaryBehaviors.get("A#foo(Ljava/lang/Object;)V");
+    assertThat(decoded).isEqualTo(methodBehavior).isSameAs(binaryBehaviors.get("A#foo(Ljava/lang/Object;)V"));
+    assertThat(decoded.getDeclaredExceptions()).containsExactly("java.io.IOException");
+    assertThat(binaryBehaviors.get("A#bar()V")).isNull();
+    assertThat(binaryBehaviors.get("Z#unknown()V")).isNull();
+    assertThat(BinaryMethodBehaviors.empty().get("A#foo(Ljava/lang/Object;)V")).isNull();
+  }
+
+  @Test
+  void only_hardcoded_yields_and_constraints_are_supported() {
+    MethodBehavior checkBased = new MethodBehavior("A#foo()V", false);
+    checkBased.addYield(new ExceptionalCheckBasedYield(new SymbolicValue(), "java.lang.ArithmeticException", SECheck.class, null, checkBased));
+    List<MethodBehavior> checkBasedBehaviors = List.of(checkBased);
+    assertThrows(IllegalStateException.class, () -> roundTrip(checkBasedBehaviors));
+
+    MethodBehavior otherConstraint = new MethodBehavior("A#bar(Ljava/lang/Object;)V", false);
+    HappyPathYield yield = new HappyPathYield(otherConstraint);
+    yield.parametersConstraints.add(ConstraintsByDomain.empty().put(mock(Constraint.class)));
+    yield.setResult(-1, null);
+    otherConstraint.addYield(yield);
+    List<MethodBehavior> otherConstraintBehaviors = List.of(otherConstraint);
+    assertThrows(IllegalStateException.class, () -> roundTrip(otherConstraintBehaviors));
+  }
+
+  @Test
+  void invalid_data() {
+    ByteArrayInputStream notBehaviors = new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+    assertThrows(IOException.class, () -> BinaryMethodBehaviors.read(notBehaviors));
+    ByteArrayInputStream truncated = new ByteArrayInputStream(new byte[] {0x53, 0x45, 0x48});
+    assertThrows(IOException.class, () -> BinaryMethodBehaviors.read(truncated));
+  }
+
+  @Test
+  void compiler_writes_binary_behaviors(@TempDir Path tempDir) throws IOException {
+    Path output = tempDir.resolve("xproc").resolve("behaviors.bin");
+    HardcodedBehaviorsCompiler.main(new String[] {HARDCODED_BEHAVIORS.toString(), output.toString()});
+    BinaryMethodBehaviors binaryBehaviors = BinaryMethodBehaviors.read(Files.newInputStream(output));
+    assertThat(binaryBehaviors.size()).isEqualTo(255);
+
+    String[] noArgs = new String[0];
+    assertThrows(IllegalArgumentException.class, () -> HardcodedBehaviorsCompiler.main(noArgs));
+    String[] emptyDirectory = {tempDir.toString(), output.toString()};
+    assertThrows(IOException.class, () -> HardcodedBehaviorsCompiler.main(emptyDirectory));
+  }
+
+  private static BinaryMethodBehaviors roundTrip(List<MethodBehavior> methodBehaviors) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryMethodBehaviors.write(methodBehaviors, out);
+    return BinaryMethodBehaviors.read(new ByteArrayInputStream(out.toByteArray()));
+  }
+}
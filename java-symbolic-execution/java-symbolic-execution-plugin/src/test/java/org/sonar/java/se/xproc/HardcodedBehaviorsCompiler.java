@@ -0,0 +1,82 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012-2025 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.se.xproc;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Compiles the JSON description of the hardcoded method behaviors into their {@link BinaryMethodBehaviors binary form}.
+ * Run with the directory of the JSON files and the binary file to write as arguments, after changing the JSON files:
+ * <pre>
+ * src/main/hardcoded-behaviors src/main/resources/org/sonar/java/se/xproc/hardcoded-behaviors.bin
+ * </pre>
+ * The binary file is committed, so that the plugin builds without running its tests, and {@code BinaryMethodBehaviorsTest}
+ * fails when it does not match the JSON files anymore.
+ */
+public final class HardcodedBehaviorsCompiler {
+
+  private static final Type LIST_OF_METHOD_BEHAVIORS_TYPE = new TypeToken<List<MethodBehavior>>() {}.getType();
+
+  private HardcodedBehaviorsCompiler() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      throw new IllegalArgumentException("Usage: HardcodedBehaviorsCompiler <directory of JSON files> <output file>");
+    }
+    Map<String, MethodBehavior> behaviors = readJson(Path.of(args[0]));
+    Path output = Path.of(args[1]);
+    Files.createDirectories(output.toAbsolutePath().getParent());
+    try (OutputStream outputStream = Files.newOutputStream(output)) {
+      BinaryMethodBehaviors.write(behaviors.values(), outputStream);
+    }
+  }
+
+  /**
+   * @return the method behaviors described by the JSON files of the directory, by signature
+   */
+  public static Map<String, MethodBehavior> readJson(Path directory) throws IOException {
+    List<Path> files;
+    try (Stream<Path> paths = Files.list(directory)) {
+      files = paths.filter(path -> path.getFileName().toString().endsWith(".json")).sorted().toList();
+    }
+    if (files.isEmpty()) {
+      throw new IOException("No hardcoded method behaviors in " + directory);
+    }
+    Map<String, MethodBehavior> result = new LinkedHashMap<>();
+    Gson gson = MethodBehaviorJsonAdapter.gson();
+    for (Path file : files) {
+      try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+        List<MethodBehavior> deserialized = gson.fromJson(reader, LIST_OF_METHOD_BEHAVIORS_TYPE);
+        deserialized.forEach(methodBehavior -> result.put(methodBehavior.signature(), methodBehavior));
+      }
+    }
+    return result;
+  }
+}
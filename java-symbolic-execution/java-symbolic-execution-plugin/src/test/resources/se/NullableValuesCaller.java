@@ -0,0 +1,12 @@
+package org.sonar.java.se;
+
+class NullableValuesCaller {
+
+  int nullDereference() {
+    return NullableValues.nullIf(true).hashCode();
+  }
+
+  int noNullDereference() {
+    return NullableValues.nullIf(false).hashCode();
+  }
+}
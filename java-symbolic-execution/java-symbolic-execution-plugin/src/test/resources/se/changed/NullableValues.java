@@ -0,0 +1,11 @@
+package org.sonar.java.se;
+
+final class NullableValues {
+
+  private NullableValues() {
+  }
+
+  static Object nullIf(boolean condition) {
+    return new Object();
+  }
+}